@@ -1,6 +1,9 @@
 package com.swp391.bookverse.configuration;
 
 import com.swp391.bookverse.entity.User;
+import com.swp391.bookverse.repository.BookRepository;
+import com.swp391.bookverse.repository.CustomerSummaryRepository;
+import com.swp391.bookverse.repository.OrderRepository;
 import com.swp391.bookverse.repository.UserRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +14,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -57,4 +61,52 @@ public class AppInitConfig {
             }
         };
     }
+
+    /**
+     * Fill book.visible for books that existed before the column was added.
+     * @return ApplicationRunner that runs on application startup.
+     */
+    @Bean
+    @Order(3)
+    ApplicationRunner bookVisibilityBackfillRunner(BookRepository bookRepository) {
+        return args -> {
+            int updated = bookRepository.backfillVisibility();
+            if (updated > 0) {
+                log.info("Backfilled visibility for {} books", updated);
+            }
+        };
+    }
+
+    /**
+     * Fill book.review_count / last_reviewed_at for books that existed before the columns were added.
+     * Only touches rows where review_count is still null, so it is a no-op after the first run.
+     * @return ApplicationRunner that runs on application startup.
+     */
+    @Bean
+    @Order(2)
+    ApplicationRunner reviewSummaryBackfillRunner(BookRepository bookRepository, TransactionTemplate transactionTemplate) {
+        return args -> {
+            Integer updated = transactionTemplate.execute(status -> bookRepository.backfillReviewSummaries());
+            if (updated != null && updated > 0) {
+                log.info("Backfilled review summary for {} books", updated);
+            }
+        };
+    }
+
+    /**
+     * Fill customer_summary from the order table the first time the table is empty.
+     * After that OrderService keeps it up to date.
+     * @return ApplicationRunner that runs on application startup.
+     */
+    @Bean
+    @Order(4)
+    ApplicationRunner customerSummaryBackfillRunner(CustomerSummaryRepository customerSummaryRepository,
+                                                    OrderRepository orderRepository) {
+        return args -> {
+            if (customerSummaryRepository.count() == 0 && orderRepository.count() > 0) {
+                int updated = customerSummaryRepository.rebuildAll();
+                log.info("Backfilled order summary for {} customers", updated);
+            }
+        };
+    }
 }
@@ -0,0 +1,98 @@
+package com.swp391.bookverse.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated thread pools for work that should not run on request threads.
+ * Each pool is bounded so a burst of requests gets rejected instead of piling up in memory.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Pool used for BCrypt hashing and verification.
+     * BCrypt is pure CPU work, so one thread per core is enough; extra requests wait in a small queue
+     * and are rejected (HTTP 429) once the queue is full.
+     * @param queueCapacity maximum number of hashing jobs waiting for a free thread
+     * @return ThreadPoolTaskExecutor for password hashing
+     */
+    @Bean(name = "passwordHashingExecutor")
+    ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${bookverse.security.hashing-queue-capacity:64}") int queueCapacity) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pwd-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool of SMTP workers used by EmailQueueService. Each task sends one chunk of emails over one SMTP session.
+     * When every worker is busy the dispatcher thread sends the chunk itself instead of dropping it.
+     * @param workers number of concurrent SMTP sessions
+     * @return ThreadPoolTaskExecutor for outbound mail
+     */
+    @Bean(name = "mailExecutor")
+    ThreadPoolTaskExecutor mailExecutor(@Value("${bookverse.mail.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 2);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool running the handlers of due delayed tasks (DelayedTaskScheduler), off the scheduling thread.
+     * When it is full the ticking thread runs the task itself: a due task is never dropped.
+     * @param threads number of tasks handled concurrently
+     * @return ThreadPoolTaskExecutor for delayed tasks
+     */
+    @Bean(name = "delayedTaskExecutor")
+    ThreadPoolTaskExecutor delayedTaskExecutor(@Value("${bookverse.tasks.workers:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("delayed-task-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool used to generate image thumbnails after an upload has been stored.
+     * Decoding and resizing is CPU and memory heavy, so it runs on a couple of threads outside the request.
+     * @param threads number of concurrent thumbnail jobs
+     * @param queueCapacity uploads waiting for thumbnails before new ones are skipped
+     * @return ThreadPoolTaskExecutor for image processing
+     */
+    @Bean(name = "imageProcessingExecutor")
+    ThreadPoolTaskExecutor imageProcessingExecutor(
+            @Value("${bookverse.storage.thumbnail-threads:2}") int threads,
+            @Value("${bookverse.storage.thumbnail-queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
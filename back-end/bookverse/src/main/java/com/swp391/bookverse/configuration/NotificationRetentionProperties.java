@@ -0,0 +1,40 @@
+package com.swp391.bookverse.configuration;
+
+import com.swp391.bookverse.enums.NotificationType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * bookverse.notification.retention: how long notifications are kept, per NotificationType
+ * (enforced by NotificationPurgeJob). Types without a policy are kept forever.
+ */
+@Component
+@ConfigurationProperties(prefix = "bookverse.notification.retention")
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class NotificationRetentionProperties {
+    boolean enabled = true;
+    /** ids covered by one DELETE (and one transaction) */
+    int chunkSize = 5000;
+    /** pause between chunks, lets replicas catch up */
+    long pauseMs = 100;
+    Map<NotificationType, Policy> policies = new EnumMap<>(NotificationType.class);
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Policy {
+        /** read notifications older than this are deleted; null = keep */
+        Integer readDays;
+        /** every notification older than this is deleted, read or not; null = keep */
+        Integer unreadDays;
+    }
+}
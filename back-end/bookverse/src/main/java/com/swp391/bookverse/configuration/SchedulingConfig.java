@@ -0,0 +1,12 @@
+package com.swp391.bookverse.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (mail dispatch, cleanup jobs, ...).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
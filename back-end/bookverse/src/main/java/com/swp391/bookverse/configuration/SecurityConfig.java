@@ -41,12 +41,17 @@ public class SecurityConfig {
     @Value("${jwt.signerKey}")
     protected String SIGNER_KEY;
 
+    // BCrypt work factor. Raising it makes existing hashes get upgraded on the next successful login.
+    @NonFinal
+    @Value("${bookverse.security.bcrypt-strength:10}")
+    protected int BCRYPT_STRENGTH;
+
     // Define endpoint access rules based on user roles and HTTP methods
 
     String[] PUBLIC_POST_ENDPOINTS = {"api/auth/token", "api/auth/introspect", "api/users/create", "api/users/signup", "api/otp/**", "api/payments/create-vnpay-url"};
     String[] PUBLIC_GET_ENDPOINTS = {"api/users/id-by-email/**","api/users/myInfo","api/users/is-active/**","api/authors/**", "api/books/**",
             "api/publishers/**", "api/sup-categories/**", "api/sub-categories/**", "api/cart/myCart", "api/payments/**",
-            "api/payments/vnpay-return/**", "api/reviews/**", "api/promotions/**"};
+            "api/payments/vnpay-return/**", "api/reviews/**", "api/promotions/**", "api/images/**"};
     String[] PUBLIC_PUT_ENDPOINTS = {"api/users/myInfo", "api/users/change-my-password"};
 
     String[] ADMIN_GET_ENDPOINTS = {"api/users/**"};
@@ -92,6 +97,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, STAFF_POST_ENDPOINTS).hasAnyAuthority("SCOPE_ADMIN", "SCOPE_STAFF")
                         .requestMatchers(HttpMethod.PUT, ADMIN_PUT_ENDPOINTS).hasAnyAuthority("SCOPE_ADMIN")
                         .requestMatchers(HttpMethod.POST, ADMIN_POST_ENDPOINTS).hasAnyAuthority("SCOPE_ADMIN")
+                        // metrics expose request, pool and cache internals: admins only
+                        .requestMatchers("/actuator/metrics/**").hasAnyAuthority("SCOPE_ADMIN")
                         .anyRequest().authenticated());
 
         // Configure ability to use form login and basic authentication
@@ -121,6 +128,6 @@ public class SecurityConfig {
 
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+        return new BCryptPasswordEncoder(BCRYPT_STRENGTH);
     }
 }
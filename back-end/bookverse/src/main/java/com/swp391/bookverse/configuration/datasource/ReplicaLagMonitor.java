@@ -0,0 +1,103 @@
+package com.swp391.bookverse.configuration.datasource;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Decides whether the replica may serve reads.
+ * Every "bookverse.datasource.replica.check-interval-ms" it runs the lag query on the replica
+ * (SHOW REPLICA STATUS by default) and reads Seconds_Behind_Source. The replica is usable while the lag
+ * is at most max-lag-seconds; if replication is stopped, the lag is unknown or the check fails,
+ * reads fall back to the primary until a later check succeeds.
+ * With an empty lag query (e.g. a second H2 instance in tests) only connectivity is checked.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class ReplicaLagMonitor {
+    DataSource replica;
+    String lagQuery;
+    long maxLagSeconds;
+
+    @NonFinal
+    volatile boolean usable;
+    @NonFinal
+    volatile long lastLagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery == null ? "" : lagQuery.trim();
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * @return true if read-only transactions may use the replica
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * @return lag seen by the last check in seconds, -1 if unknown
+     */
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${bookverse.datasource.replica.check-interval-ms:5000}")
+    public void check() {
+        boolean wasUsable = usable;
+        long lag;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            lag = lagQuery.isEmpty() ? ping(statement) : readLag(statement);
+        } catch (SQLException e) {
+            lag = -1;
+            if (wasUsable) {
+                log.warn("Replica check failed, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+
+        lastLagSeconds = lag;
+        usable = lag >= 0 && lag <= maxLagSeconds;
+        if (wasUsable && !usable && lag >= 0) {
+            log.warn("Replica is {}s behind (max {}s), routing reads to the primary", lag, maxLagSeconds);
+        } else if (!wasUsable && usable) {
+            log.info("Replica is available again (lag {}s)", lag);
+        }
+    }
+
+    private long ping(Statement statement) throws SQLException {
+        statement.execute("SELECT 1");
+        return 0;
+    }
+
+    private long readLag(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1; // not configured as a replica
+            }
+            long lag = rs.getLong(lagColumn(rs));
+            return rs.wasNull() ? -1 : lag; // NULL: replication threads are not running
+        }
+    }
+
+    private static String lagColumn(ResultSet rs) throws SQLException {
+        // MySQL 8.0.22+ names it Seconds_Behind_Source, older versions Seconds_Behind_Master
+        int columns = rs.getMetaData().getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            if ("Seconds_Behind_Master".equalsIgnoreCase(rs.getMetaData().getColumnLabel(i))) {
+                return "Seconds_Behind_Master";
+            }
+        }
+        return "Seconds_Behind_Source";
+    }
+}
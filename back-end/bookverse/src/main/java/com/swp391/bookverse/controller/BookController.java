@@ -1,20 +1,25 @@
 package com.swp391.bookverse.controller;
 
 import com.swp391.bookverse.dto.APIResponse;
+import com.swp391.bookverse.dto.request.BookBulkActiveRequest;
 import com.swp391.bookverse.dto.request.BookCreationRequest;
 import com.swp391.bookverse.dto.request.BookUpdateRequest;
 import com.swp391.bookverse.dto.response.BookActiveResponse;
+import com.swp391.bookverse.dto.response.BookImportResponse;
 import com.swp391.bookverse.dto.response.BookResponse;
 import com.swp391.bookverse.entity.Book;
 import com.swp391.bookverse.service.BookService;
+import com.swp391.bookverse.service.catalog.CatalogImportService;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -26,6 +31,7 @@ import java.util.List;
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class BookController {
     BookService bookService;
+    CatalogImportService catalogImportService;
 
     @PostMapping(value = "/create", consumes = {"multipart/form-data"})
     public APIResponse<Book> createBook(
@@ -47,6 +53,22 @@ public class BookController {
         return response;
     }
 
+    /**
+     * Bulk create/update books from a .csv (header row required) or .jsonl file sent as the raw request body,
+     * e.g. curl --data-binary @books.csv -H "Content-Type: application/octet-stream" ".../import?filename=books.csv".
+     * The body is streamed, so it is not subject to the multipart size limit (see bookverse.catalog.import.max-bytes).
+     * Rows are matched to existing books by title; authors and publishers are matched by name and created if missing.
+     */
+    @PostMapping(value = "/import", consumes = {"application/octet-stream", "text/csv", "application/x-ndjson"})
+    public APIResponse<BookImportResponse> importBooks(
+            @RequestParam("filename") String filename,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) {
+        APIResponse<BookImportResponse> response = new APIResponse<>();
+        response.setResult(catalogImportService.importBooks(filename, contentLength, body));
+        return response;
+    }
+
 //    @PostMapping("/create")
 //    public APIResponse<Book> createBook(@ModelAttribute @Valid BookCreationRequest request) {
 //        APIResponse<Book> response;
@@ -150,10 +172,35 @@ public class BookController {
         return bookService.changeActiveBookById(false, bookId);
     }
 
+    @PutMapping("/bulk-active")
+    public APIResponse<Integer> bulkChangeActiveBooks(@RequestBody @Valid BookBulkActiveRequest request) {
+        APIResponse<Integer> response = new APIResponse<>();
+        response.setResult(bookService.bulkChangeActiveBooks(request));
+        return response;
+    }
+
     @GetMapping("/active/random")
-    public APIResponse<List<BookResponse>> getRandomActiveBooks() {
+    public APIResponse<List<BookResponse>> getRandomActiveBooks(@RequestParam(required = false) Integer size,
+                                                                @RequestParam(required = false) Long seed,
+                                                                @RequestParam(defaultValue = "0") int page) {
+        APIResponse<List<BookResponse>> response;
+        response = bookService.getRandomActiveBooks(size, seed, page);
+        return response;
+    }
+
+    @GetMapping("/active/trending")
+    public APIResponse<List<BookResponse>> getTrendingBooks(@RequestParam(required = false) String window,
+                                                            @RequestParam(required = false) Integer size) {
+        APIResponse<List<BookResponse>> response;
+        response = bookService.getTrendingBooks(window, size);
+        return response;
+    }
+
+    @GetMapping("/{bookId}/also-bought")
+    public APIResponse<List<BookResponse>> getAlsoBoughtBooks(@PathVariable("bookId") Long bookId,
+                                                              @RequestParam(required = false) Integer limit) {
         APIResponse<List<BookResponse>> response;
-        response = bookService.getRandomActiveBooks();
+        response = bookService.getAlsoBoughtBooks(bookId, limit);
         return response;
     }
 
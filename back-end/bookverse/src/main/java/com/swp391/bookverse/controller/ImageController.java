@@ -0,0 +1,37 @@
+package com.swp391.bookverse.controller;
+
+import com.swp391.bookverse.service.storage.ImageDeliveryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Serves uploaded images. The DB path "/img/book/x.jpg" is available at "/api/images/book/x.jpg".
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ImageController {
+    ImageDeliveryService imageDeliveryService;
+
+    @GetMapping("/{folder}/{filename:.+}")
+    public void getImage(@PathVariable String folder, @PathVariable String filename,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        imageDeliveryService.serve("/img/" + folder + "/" + filename, request, response);
+    }
+
+    @GetMapping("/{folder}/thumb/{width}/{filename:.+}")
+    public void getThumbnail(@PathVariable String folder, @PathVariable int width, @PathVariable String filename,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        imageDeliveryService.serve("/img/" + folder + "/thumb/" + width + "/" + filename, request, response);
+    }
+}
@@ -4,6 +4,7 @@ import com.swp391.bookverse.dto.APIResponse;
 import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
 import com.swp391.bookverse.dto.request.NotificationCreationRequest;
 import com.swp391.bookverse.dto.request.NotificationUpdateRequest;
+import com.swp391.bookverse.dto.response.NotificationInboxResponse;
 import com.swp391.bookverse.dto.response.NotificationResponse;
 import com.swp391.bookverse.dto.response.NotificationResponseWithID;
 import com.swp391.bookverse.dto.response.UserResponse;
@@ -78,6 +79,24 @@ public class NotificationController {
                 .build();
     }
 
+    /**
+     * Personal inbox page by page, newest first.
+     * Pass nextCursor as "before" for older notifications, prevCursor as "after" for newer ones.
+     */
+    @GetMapping("/myNotifications/inbox")
+    @PreAuthorize("hasAnyAuthority('SCOPE_ADMIN', 'SCOPE_STAFF', 'SCOPE_CUSTOMER')")
+    public APIResponse<NotificationInboxResponse> getMyInbox(@RequestParam(required = false) String before,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Boolean read,
+                                                             @RequestParam(required = false) String type,
+                                                             @RequestParam(required = false) Integer size) {
+        return APIResponse.<NotificationInboxResponse>builder()
+                .code(200)
+                .result(notificationService.getMyInbox(before, after, read, type, size))
+                .message("Fetched inbox page successfully")
+                .build();
+    }
+
     @GetMapping("/myNotifications/unread-count")
     @PreAuthorize("hasAnyAuthority('SCOPE_ADMIN', 'SCOPE_STAFF', 'SCOPE_CUSTOMER')")
     public APIResponse<Long> getUnreadCount() {
@@ -4,6 +4,7 @@ import com.swp391.bookverse.dto.APIResponse;
 import com.swp391.bookverse.dto.request.OrderCancelRequest;
 import com.swp391.bookverse.dto.request.OrderCreationRequest;
 import com.swp391.bookverse.dto.request.OrderUpdateRequest;
+import com.swp391.bookverse.dto.response.CustomerSummaryResponse;
 import com.swp391.bookverse.dto.response.OrderResponse;
 import com.swp391.bookverse.enums.OrderStatus;
 import com.swp391.bookverse.service.OrderService;
@@ -62,6 +63,15 @@ public class OrderController {
                 .build();
     }
 
+    @GetMapping("/myOrders/summary")
+    @PreAuthorize("hasAuthority('SCOPE_CUSTOMER')")
+    public APIResponse<CustomerSummaryResponse> getMySummary() {
+        return APIResponse.<CustomerSummaryResponse>builder()
+                .code(200)
+                .result(orderService.getMySummary())
+                .build();
+    }
+
     /**
      * Get orders by status
      * @param status
@@ -58,9 +58,11 @@ public class ReviewController {
 
 
     @GetMapping("/{bookId}")
-    public APIResponse<List<ReviewResponse>> getReviewByBookId(@PathVariable Long bookId) {
+    public APIResponse<List<ReviewResponse>> getReviewByBookId(@PathVariable Long bookId,
+                                                               @RequestParam(required = false) Integer page,
+                                                               @RequestParam(required = false) Integer size) {
         APIResponse<List<ReviewResponse>> response = new APIResponse<>();
-        response.setResult(reviewService.getReviewsByBookId(bookId));
+        response.setResult(reviewService.getReviewsByBookId(bookId, page, size));
         return response;
     }
 
@@ -1,10 +1,12 @@
 package com.swp391.bookverse.controller;
 
 import com.swp391.bookverse.dto.APIResponse;
+import com.swp391.bookverse.dto.request.BulkActiveRequest;
 import com.swp391.bookverse.dto.request.SubCategoryCreationRequest;
 import com.swp391.bookverse.dto.response.BookResponse;
 import com.swp391.bookverse.dto.response.SubCategoryResponse;
 import com.swp391.bookverse.service.SubCategoryService;
+import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -85,6 +87,13 @@ public class SubCategoryController {
         return response;
     }
 
+    @PutMapping("/bulk-active")
+    public APIResponse<Integer> bulkChangeActiveSubCategories(@RequestBody @Valid BulkActiveRequest request) {
+        APIResponse<Integer> response = new APIResponse<>();
+        response.setResult(subCategoryService.bulkChangeActiveSubCategories(request));
+        return response;
+    }
+
     @PutMapping("/inactive/{subCategoryId}")
     public APIResponse<SubCategoryResponse> deactivateSubCategory(@PathVariable("subCategoryId") Integer subCategoryId) {
         APIResponse<SubCategoryResponse> response = new APIResponse<>();
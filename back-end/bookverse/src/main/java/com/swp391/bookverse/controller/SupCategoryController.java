@@ -1,11 +1,13 @@
 package com.swp391.bookverse.controller;
 
 import com.swp391.bookverse.dto.APIResponse;
+import com.swp391.bookverse.dto.request.BulkActiveRequest;
 import com.swp391.bookverse.dto.request.SupCategoryCreationRequest;
 import com.swp391.bookverse.dto.response.SubCategoryResponse;
 import com.swp391.bookverse.dto.response.SupCategoryResponse;
 import com.swp391.bookverse.entity.SupCategory;
 import com.swp391.bookverse.service.SupCategoryService;
+import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -79,6 +81,13 @@ public class SupCategoryController {
         return response;
     }
 
+    @PutMapping("/bulk-active")
+    public APIResponse<Integer> bulkChangeActiveSupCategories(@RequestBody @Valid BulkActiveRequest request) {
+        APIResponse<Integer> response = new APIResponse<>();
+        response.setResult(supCategoryService.bulkChangeActiveSupCategories(request));
+        return response;
+    }
+
     @PutMapping("/inactive/{supCategoryId}")
     public APIResponse<SupCategoryResponse> deactivateSupCategory(@PathVariable("supCategoryId") Integer supCategoryId) {
         APIResponse<SupCategoryResponse> response = new APIResponse<>();
@@ -0,0 +1,45 @@
+package com.swp391.bookverse.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Stores a UUID kept as a String in Java (user ids) as BINARY(16).
+ * The byte order is the plain big-endian order, the same as MySQL's UUID_TO_BIN(x) without the swap flag,
+ * so time-ordered (v7) ids stay in insert order inside the index.
+ * A string that is not a UUID is mapped to the nil UUID, which never matches a stored row; lookups with
+ * a malformed id from a request then behave like "not found" instead of failing.
+ */
+@Converter
+public class UuidBinaryConverter implements AttributeConverter<String, byte[]> {
+    private static final byte[] NIL = new byte[16];
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(attribute);
+        } catch (IllegalArgumentException e) {
+            return NIL.clone();
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(dbData);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
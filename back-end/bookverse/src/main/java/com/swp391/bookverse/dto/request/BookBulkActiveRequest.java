@@ -0,0 +1,24 @@
+package com.swp391.bookverse.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * Select books by exactly one of: ids, authorId, subCategoryId.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookBulkActiveRequest {
+    List<Long> ids;
+    Long authorId;
+    Long subCategoryId;
+
+    @NotNull(message = "Active status is required")
+    Boolean active;
+}
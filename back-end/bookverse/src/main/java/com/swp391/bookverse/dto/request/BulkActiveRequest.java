@@ -0,0 +1,21 @@
+package com.swp391.bookverse.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkActiveRequest {
+    @NotEmpty(message = "Ids are required")
+    List<Long> ids;
+
+    @NotNull(message = "Active status is required")
+    Boolean active;
+}
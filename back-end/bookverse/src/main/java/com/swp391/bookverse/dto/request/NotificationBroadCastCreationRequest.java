@@ -1,11 +1,15 @@
 package com.swp391.bookverse.dto.request;
 
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,9 +17,24 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class NotificationBroadCastCreationRequest {
 
+    // Free text; internal callers use template + params instead (see NotificationTemplate)
     @NotBlank(message = "Content is required")
     String content;
 
+    NotificationTemplate template;
+    List<String> params;
+
     @NotNull(message = "Type is required")
     NotificationType type;
+
+    public static class NotificationBroadCastCreationRequestBuilder {
+        /**
+         * Store the text as a template; params fill {0}, {1}, ... in order (null becomes an empty string).
+         */
+        public NotificationBroadCastCreationRequestBuilder template(NotificationTemplate template, Object... params) {
+            this.template = template;
+            this.params = Arrays.stream(params).map(param -> param == null ? "" : String.valueOf(param)).toList();
+            return this;
+        }
+    }
 }
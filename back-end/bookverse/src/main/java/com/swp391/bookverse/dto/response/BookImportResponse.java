@@ -0,0 +1,34 @@
+package com.swp391.bookverse.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk book import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookImportResponse {
+    long totalRows;
+    long created;
+    long updated;
+    long failed;
+    long authorsCreated;
+    long publishersCreated;
+    // only the first errors are listed, "failed" has the full count
+    List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RowError {
+        long row;
+        String message;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * @Author huangdat
@@ -19,11 +20,15 @@ public class BookResponse {
     String title;
     String description;
     Double price;
+    Double effectivePrice; // price after the running promotion of its sub-category, if any
     Long authorId;
     Long publisherId;
     Long categoryId;
     Integer stockQuantity;
     LocalDate publishedDate;
     String image;
+    String thumbnail; // small JPEG of image for listing grids, null when there is none (use image)
     Boolean active;
+    Integer reviewCount;
+    LocalDateTime lastReviewedAt;
 }
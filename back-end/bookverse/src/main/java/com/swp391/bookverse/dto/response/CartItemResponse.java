@@ -13,6 +13,7 @@ public class CartItemResponse {
     Long bookId;
     String bookTitle;
     Double price;
+    Double effectivePrice;
     Integer quantity;
     Double subtotal;
 }
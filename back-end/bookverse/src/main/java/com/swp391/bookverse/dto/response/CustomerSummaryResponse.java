@@ -0,0 +1,19 @@
+package com.swp391.bookverse.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CustomerSummaryResponse {
+    String userId;
+    Double totalSpent;
+    Integer orderCount;
+    Long lifetimeItems;
+    LocalDateTime lastOrderAt;
+}
@@ -0,0 +1,24 @@
+package com.swp391.bookverse.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * One page of the personal inbox, newest first.
+ * nextCursor goes into "before" for the older page (null when there is none),
+ * prevCursor goes into "after" to fetch newer notifications (null when the page is empty).
+ * hasMore tells whether more notifications exist in the direction that was requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class NotificationInboxResponse {
+    List<NotificationResponse> items;
+    String nextCursor;
+    String prevCursor;
+    boolean hasMore;
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * @Author huangdat
@@ -12,6 +13,9 @@ import java.time.LocalDate;
 
 @Data
 @Entity
+@Table(name = "book", indexes = {
+        @Index(name = "idx_book_visible", columnList = "visible")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -46,4 +50,16 @@ public class Book {
     LocalDate publishedDate;
     String image;
     Boolean active;
+
+    // Review summary kept up to date by ReviewService, so listings don't have to load reviews.
+    // null until the startup backfill in AppInitConfig has run for this book.
+    @Column(name = "review_count")
+    Integer reviewCount;
+
+    @Column(name = "last_reviewed_at")
+    LocalDateTime lastReviewedAt;
+
+    // active && category.active && category.supCategory.active, kept in sync by BookRepository.refreshVisibility*
+    // so store listings filter on one indexed column
+    Boolean visible;
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.swp391.bookverse.entity;
+
+import com.swp391.bookverse.converter.UuidBinaryConverter;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-customer order aggregates, maintained by OrderService on order status changes.
+ * Spend, order count and items only include DELIVERED orders (same rule as the statistics);
+ * lastOrderAt is the creation time of the customer's most recent order of any status.
+ */
+@Entity
+@Table(name = "customer_summary", indexes = {
+        @Index(name = "idx_customer_summary_total_spent", columnList = "total_spent")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CustomerSummary {
+    @Id
+    @Convert(converter = UuidBinaryConverter.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "user_id", length = 16)
+    String userId;
+
+    @Column(name = "total_spent", nullable = false)
+    Double totalSpent;
+
+    @Column(name = "order_count", nullable = false)
+    Integer orderCount;
+
+    @Column(name = "lifetime_items", nullable = false)
+    Long lifetimeItems;
+
+    @Column(name = "last_order_at")
+    LocalDateTime lastOrderAt;
+}
@@ -25,9 +25,17 @@ public class Notification {
     @JoinColumn(name = "user_id", nullable = false)
     User user;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // free text; null when the notification is stored as a template (see NotificationTemplate)
+    @Column(columnDefinition = "TEXT")
     String content;
 
+    @Column(name = "template_id")
+    Short templateId;
+
+    // template parameters separated by U+001F
+    @Column(length = 512)
+    String params;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     NotificationType type;
@@ -0,0 +1,31 @@
+package com.swp391.bookverse.entity;
+
+import com.swp391.bookverse.converter.UuidBinaryConverter;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Number of unread notifications of a user, maintained by NotificationService in the same transaction
+ * as the notification change and periodically checked against the notification table
+ * (see UnreadCounterService).
+ */
+@Entity
+@Table(name = "notification_counter")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class NotificationCounter {
+    @Id
+    @Convert(converter = UuidBinaryConverter.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "user_id", length = 16)
+    String userId;
+
+    @Column(nullable = false)
+    Integer unread;
+}
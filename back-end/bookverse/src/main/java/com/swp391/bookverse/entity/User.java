@@ -1,9 +1,13 @@
 package com.swp391.bookverse.entity;
 
 import com.swp391.bookverse.converter.BooleanConverter;
+import com.swp391.bookverse.converter.UuidBinaryConverter;
+import com.swp391.bookverse.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.Set;
 
@@ -20,7 +24,10 @@ import java.util.Set;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
+    @Convert(converter = UuidBinaryConverter.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     String id;
     String username;
     String password;
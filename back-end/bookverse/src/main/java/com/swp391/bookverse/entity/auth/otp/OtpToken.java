@@ -1,8 +1,11 @@
 package com.swp391.bookverse.entity.auth.otp;
 
+import com.swp391.bookverse.converter.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
@@ -29,7 +32,9 @@ public class OtpToken {
     @Column(nullable = false, length = 255)
     String email;
 
-    @Column(name = "userId", length = 36)
+    @Convert(converter = UuidBinaryConverter.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "userId", length = 16)
     String userId;
 
     @Column(nullable = false, length = 6)
@@ -0,0 +1,60 @@
+package com.swp391.bookverse.entity.mail;
+
+import com.swp391.bookverse.enums.EmailStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * A queued outgoing email. Rows are written in the same transaction as the business change
+ * (e.g. the OTP token) and delivered later by EmailQueueService.
+ */
+@Data
+@Entity
+@Table(
+        name = "outbound_email",
+        indexes = {
+                @Index(name = "idx_outbound_email_status_next_attempt", columnList = "status,nextAttemptAt")
+        }
+)
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboundEmail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(nullable = false, length = 255)
+    String recipient;
+
+    @Column(nullable = false, length = 255)
+    String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    EmailStatus status = EmailStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    int attempts = 0;
+
+    // When PENDING: earliest time of the next attempt. When SENDING: end of the worker's lease.
+    @Column(nullable = false)
+    Instant nextAttemptAt;
+
+    @Column(length = 500)
+    String lastError;
+
+    @Column(nullable = false)
+    Instant createdAt;
+
+    Instant sentAt;
+}
@@ -0,0 +1,9 @@
+package com.swp391.bookverse.enums;
+
+/**
+ * Kinds of delayed tasks stored in scheduled_task; each has one DelayedTaskHandler.
+ */
+public enum DelayedTaskType {
+    PROMOTION_BOUNDARY, // key "promotionId:date": a promotion starts or ends, prices are recomputed
+    PAYMENT_EXPIRY,     // key order id: an online payment still PENDING is given up
+}
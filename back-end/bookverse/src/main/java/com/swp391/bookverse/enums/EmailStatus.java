@@ -0,0 +1,8 @@
+package com.swp391.bookverse.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED,
+}
@@ -0,0 +1,56 @@
+package com.swp391.bookverse.enums;
+
+import lombok.Getter;
+
+/**
+ * Notification texts stored as a template id plus parameters instead of the full text.
+ * The id is the key of notification_template, where the body of each locale lives ({0}, {1}, ... are
+ * replaced by the parameters when the notification is read). Ids must never be reused.
+ */
+@Getter
+public enum NotificationTemplate {
+    AUTHOR_ADDED(1),
+    AUTHOR_UPDATED(2),
+    AUTHOR_STATUS_CHANGED(3),
+    BOOK_ADDED(4),
+    BOOK_UPDATED(5),
+    BOOK_STATUS_CHANGED(6),
+    BOOKS_STATUS_CHANGED(7),
+    ORDER_PLACED(8),
+    ORDER_CREATED(9),
+    ORDER_CONFIRMED(10),
+    ORDER_PROCESSING(11),
+    ORDER_DELIVERING(12),
+    ORDER_DELIVERED(13),
+    ORDER_CANCELLED(14),
+    ORDER_ADDRESS_CHANGED(15),
+    ORDER_ADDRESS_CHANGE_CONFIRMED(16),
+    PROMOTION_ADDED(17),
+    PROMOTION_UPDATED(18),
+    PROMOTION_STATUS_CHANGED(19),
+    PUBLISHER_ADDED(20),
+    PUBLISHER_UPDATED(21),
+    PUBLISHER_STATUS_CHANGED(22),
+    REVIEW_DELETED(23),
+    SUB_CATEGORY_ADDED(24),
+    SUB_CATEGORY_FEATURED(25),
+    SUB_CATEGORY_UPDATED(26),
+    SUB_CATEGORIES_STATUS_CHANGED(27),
+    SUB_CATEGORY_ACTIVATED(28),
+    SUB_CATEGORY_DEACTIVATED(29),
+    SUP_CATEGORY_ADDED(30),
+    SUP_CATEGORY_UPDATED(31),
+    SUP_CATEGORIES_STATUS_CHANGED(32),
+    SUP_CATEGORY_ACTIVATED(33),
+    SUP_CATEGORY_DEACTIVATED(34),
+    BOOK_IMPORT_FINISHED(35),
+    BOOKS_UPDATED(36),
+    ORDERS_ADDRESS_CHANGED(37),
+    ;
+
+    private final short id;
+
+    NotificationTemplate(int id) {
+        this.id = (short) id;
+    }
+}
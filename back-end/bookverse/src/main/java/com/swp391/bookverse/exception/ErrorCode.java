@@ -14,6 +14,7 @@ public enum ErrorCode {
     NOT_FOUND(404, "Not Found"),
     METHOD_NOT_ALLOWED(405, "Method Not Allowed"),
     CONFLICT(409, "Conflict"),
+    TOO_MANY_REQUESTS(429, "Too many requests, please try again later"),
     INTERNAL_SERVER_ERROR(500, "Internal Server Error"),
     SERVICE_UNAVAILABLE(503, "Service Unavailable"),
 
@@ -43,6 +44,8 @@ public enum ErrorCode {
     BOOK_EXISTS(3001, "Book already exists"),
     BOOK_NOT_FOUND(3002, "Book not found"),
     NO_BOOKS_STORED(3003, "No books stored in database"),
+    INVALID_BULK_SELECTION(3004, "Select books by exactly one of ids, authorId or subCategoryId, and give the active status"),
+    INVALID_TRENDING_WINDOW(3005, "Trending window must be one of 1h, 24h or 7d"),
 
     // Custom error codes for publisher entity
     PUBLISHER_EXISTS(4001, "Publisher already exists"),
@@ -81,6 +84,8 @@ public enum ErrorCode {
     FILE_TOO_LARGE(10002, "File size must be less than 5MB"),
     INVALID_FILE_NAME(10003, "Invalid file name"),
     FILE_UPLOAD_FAILED(10004, "File upload failed"),
+    INVALID_IMPORT_FILE(10005, "Import file must be a non-empty .csv or .jsonl file"),
+    IMPORT_FILE_TOO_LARGE(10006, "Import file is too large"),
 
     // custom error codes for promotion entity
     PROMOTION_NOT_FOUND(11001, "Promotion not found"),
@@ -109,6 +114,7 @@ public enum ErrorCode {
     // custom error codes for notification entity
     NOTIFICATION_NOT_FOUND(1601, "Notification not found"),
     INVALID_REQUEST(1602, "Invalid notification request"),
+    INVALID_NOTIFICATION_CURSOR(1603, "Invalid notification cursor (use either before or after, as returned by the inbox)"),
 
     INVALID_KEY(99999, "Invalid message key provided")
     ;
@@ -1,6 +1,7 @@
 package com.swp391.bookverse.exception;
 
 import com.swp391.bookverse.dto.APIResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -57,6 +58,11 @@ public class GlobalExeptionHandle {
         APIResponse response = new APIResponse();
         response.setCode(errorCode.getCode());
         response.setMessage(errorCode.getMessage());
+
+        // Saturated resources (e.g. the password hashing pool) answer with a real 429 so clients can back off
+        if (errorCode == ErrorCode.TOO_MANY_REQUESTS) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
         return ResponseEntity.badRequest().body(response);
     }
 
@@ -4,10 +4,13 @@ import com.swp391.bookverse.dto.response.CartItemResponse;
 import com.swp391.bookverse.dto.response.CartResponse;
 import com.swp391.bookverse.entity.Cart;
 import com.swp391.bookverse.entity.CartItem;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = PricingEngine.class)
 public interface CartMapper {
     @Mapping(source = "user.id", target = "userId")
     @Mapping(source = "cartItems", target = "cartItems")
@@ -16,6 +19,13 @@ public interface CartMapper {
     @Mapping(source = "book.id", target = "bookId")
     @Mapping(source = "book.title", target = "bookTitle")
     @Mapping(source = "book.price", target = "price")
-    @Mapping(expression = "java(cartItem.getQuantity() * cartItem.getBook().getPrice())", target = "subtotal")
+    @Mapping(source = "book", target = "effectivePrice", qualifiedByName = "effectivePrice")
+    @Mapping(target = "subtotal", ignore = true)
     CartItemResponse toCartItemResponse(CartItem cartItem);
+
+    // what checkout will charge: the effective price, not the list price
+    @AfterMapping
+    default void computeSubtotal(@MappingTarget CartItemResponse response) {
+        response.setSubtotal(response.getEffectivePrice() * response.getQuantity());
+    }
 }
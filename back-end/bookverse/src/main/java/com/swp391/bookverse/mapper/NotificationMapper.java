@@ -3,10 +3,16 @@ package com.swp391.bookverse.mapper;
 import com.swp391.bookverse.dto.response.NotificationResponse;
 import com.swp391.bookverse.dto.response.NotificationResponseWithID;
 import com.swp391.bookverse.entity.Notification;
+import com.swp391.bookverse.service.notification.NotificationTemplateService;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = NotificationTemplateService.class)
 public interface NotificationMapper {
+    @Mapping(target = "content", source = "notification", qualifiedByName = "notificationContent")
     NotificationResponse toNotificationResponse(Notification notification);
+
+    @Mapping(target = "content", source = "notification", qualifiedByName = "notificationContent")
+    @Mapping(target = "userId", source = "user.id")
     NotificationResponseWithID toNotificationResponseWithID(Notification notification);
 }
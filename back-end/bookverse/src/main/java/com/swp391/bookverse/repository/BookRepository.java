@@ -2,10 +2,17 @@ package com.swp391.bookverse.repository;
 
 import com.swp391.bookverse.entity.Book;
 import com.swp391.bookverse.entity.SubCategory;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,6 +20,13 @@ import java.util.List;
  */
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+    // book.visible = book, its sub-category and its sup-category are all active
+    String VISIBILITY_JOIN = "UPDATE book b " +
+            "LEFT JOIN sub_category sc ON sc.id = b.category_id " +
+            "LEFT JOIN sup_category sp ON sp.id = sc.sup_cat_id ";
+    String VISIBILITY_SET = "SET b.visible = COALESCE(b.active = 1 AND sc.active = 1 AND sp.active = 1, 0) ";
+    String BULK_ACTIVE_SET = "SET b.active = :active, b.visible = COALESCE(:active AND sc.active = 1 AND sp.active = 1, 0) ";
+
     // Find an Book by their name
     Book findByTitleIgnoreCase(String title);
     // Check if an Book exists by their name
@@ -23,4 +37,60 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByCategoryAndActive(SubCategory category, boolean active);
 
     List<Book> findByAuthorId(Long id);
+
+    List<Book> findByVisibleTrue(Sort sort);
+
+    @Query("SELECT b.id FROM Book b WHERE b.visible = true ORDER BY b.id")
+    List<Long> findVisibleIds();
+
+    // Bulk activation: active and visible are written by the same statement
+    @Modifying
+    @Transactional
+    @Query(value = VISIBILITY_JOIN + BULK_ACTIVE_SET + "WHERE b.id IN (:ids)", nativeQuery = true)
+    int setActiveByIds(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+    @Modifying
+    @Transactional
+    @Query(value = VISIBILITY_JOIN + BULK_ACTIVE_SET + "WHERE b.author_id = :authorId", nativeQuery = true)
+    int setActiveByAuthorId(@Param("authorId") Long authorId, @Param("active") boolean active);
+
+    @Modifying
+    @Transactional
+    @Query(value = VISIBILITY_JOIN + BULK_ACTIVE_SET + "WHERE b.category_id = :subCategoryId", nativeQuery = true)
+    int setActiveBySubCategoryId(@Param("subCategoryId") Long subCategoryId, @Param("active") boolean active);
+
+    // Recompute book.visible after a category changed
+    @Modifying
+    @Transactional
+    @Query(value = VISIBILITY_JOIN + VISIBILITY_SET + "WHERE b.category_id IN (:subCategoryIds)", nativeQuery = true)
+    int refreshVisibilityBySubCategoryIds(@Param("subCategoryIds") Collection<Long> subCategoryIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = VISIBILITY_JOIN + VISIBILITY_SET + "WHERE sc.sup_cat_id IN (:supCategoryIds)", nativeQuery = true)
+    int refreshVisibilityBySupCategoryIds(@Param("supCategoryIds") Collection<Integer> supCategoryIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = VISIBILITY_JOIN + VISIBILITY_SET + "WHERE b.visible IS NULL", nativeQuery = true)
+    int backfillVisibility();
+
+    // Review summary maintenance (see ReviewService)
+    @Modifying
+    @Query("UPDATE Book b SET b.reviewCount = COALESCE(b.reviewCount, 0) + 1, b.lastReviewedAt = :reviewedAt WHERE b.id = :bookId")
+    int incrementReviewCount(@Param("bookId") Long bookId, @Param("reviewedAt") LocalDateTime reviewedAt);
+
+    @Modifying
+    @Query("UPDATE Book b SET " +
+            "b.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.bookId = b.id), " +
+            "b.lastReviewedAt = (SELECT MAX(r.createdAt) FROM Review r WHERE r.bookId = b.id) " +
+            "WHERE b.id = :bookId")
+    int refreshReviewSummary(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("UPDATE Book b SET " +
+            "b.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.bookId = b.id), " +
+            "b.lastReviewedAt = (SELECT MAX(r.createdAt) FROM Review r WHERE r.bookId = b.id) " +
+            "WHERE b.reviewCount IS NULL")
+    int backfillReviewSummaries();
 }
\ No newline at end of file
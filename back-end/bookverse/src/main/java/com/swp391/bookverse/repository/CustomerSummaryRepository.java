@@ -0,0 +1,61 @@
+package com.swp391.bookverse.repository;
+
+import com.swp391.bookverse.entity.CustomerSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CustomerSummaryRepository extends JpaRepository<CustomerSummary, String> {
+
+    // Leaderboard, read in total_spent order from idx_customer_summary_total_spent
+    @Query("SELECT s FROM CustomerSummary s WHERE s.orderCount > 0 ORDER BY s.totalSpent DESC")
+    List<CustomerSummary> findTopBySpending(Pageable pageable);
+
+    // Called when an order is placed
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO customer_summary (user_id, total_spent, order_count, lifetime_items, last_order_at) " +
+            "VALUES (UUID_TO_BIN(:userId), 0, 0, 0, :orderedAt) " +
+            "ON DUPLICATE KEY UPDATE last_order_at = GREATEST(COALESCE(last_order_at, :orderedAt), :orderedAt)",
+            nativeQuery = true)
+    int recordOrderPlaced(@Param("userId") String userId, @Param("orderedAt") LocalDateTime orderedAt);
+
+    // Called with positive deltas when an order is delivered, negative ones when a delivered order is cancelled
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO customer_summary (user_id, total_spent, order_count, lifetime_items, last_order_at) " +
+            "VALUES (UUID_TO_BIN(:userId), :amount, :orders, :items, NULL) " +
+            "ON DUPLICATE KEY UPDATE total_spent = total_spent + :amount, " +
+            "order_count = order_count + :orders, lifetime_items = lifetime_items + :items",
+            nativeQuery = true)
+    int addDelivered(@Param("userId") String userId, @Param("amount") double amount,
+                     @Param("orders") int orders, @Param("items") long items);
+
+    // Recompute every summary from live and archived orders (startup backfill)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO customer_summary (user_id, total_spent, order_count, lifetime_items, last_order_at) " +
+            "SELECT s.user_id, s.total_spent, s.order_count, s.lifetime_items, s.last_order_at FROM (" +
+            "  SELECT o.user_id AS user_id, " +
+            "    COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN o.total_amount END), 0) AS total_spent, " +
+            "    COUNT(CASE WHEN o.status = 'DELIVERED' THEN 1 END) AS order_count, " +
+            "    COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN i.items END), 0) AS lifetime_items, " +
+            "    MAX(o.created_at) AS last_order_at " +
+            "  FROM order_history o " +
+            "  LEFT JOIN (SELECT order_id, SUM(quantity) AS items FROM order_item_history GROUP BY order_id) i ON i.order_id = o.id " +
+            "  WHERE o.user_id IS NOT NULL " +
+            "  GROUP BY o.user_id" +
+            ") s " +
+            "ON DUPLICATE KEY UPDATE total_spent = s.total_spent, order_count = s.order_count, " +
+            "lifetime_items = s.lifetime_items, last_order_at = s.last_order_at",
+            nativeQuery = true)
+    int rebuildAll();
+}
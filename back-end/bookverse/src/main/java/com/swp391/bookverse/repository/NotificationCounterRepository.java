@@ -0,0 +1,37 @@
+package com.swp391.bookverse.repository;
+
+import com.swp391.bookverse.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, String> {
+
+    // Unread count by username in one query (0 for a user without a counter row), empty if the user does not exist
+    @Query("SELECT COALESCE(c.unread, 0) FROM User u LEFT JOIN NotificationCounter c ON c.userId = u.id " +
+            "WHERE u.username = :username")
+    Optional<Integer> findUnreadByUsername(@Param("username") String username);
+
+    // +1 for a new notification, negative when notifications are read or deleted; never goes below 0
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_counter (user_id, unread) VALUES (UUID_TO_BIN(:userId), GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE unread = GREATEST(unread + :delta, 0)",
+            nativeQuery = true)
+    int add(@Param("userId") String userId, @Param("delta") int delta);
+
+    // +1 for every user with the role (broadcast), rows taken in user id order
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_counter (user_id, unread) " +
+            "SELECT ur.user_id, 1 FROM user_role ur WHERE ur.role = :role ORDER BY ur.user_id " +
+            "ON DUPLICATE KEY UPDATE unread = unread + 1",
+            nativeQuery = true)
+    int addOneForRole(@Param("role") String role);
+}
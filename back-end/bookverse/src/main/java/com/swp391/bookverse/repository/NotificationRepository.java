@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -20,17 +21,53 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.read = false")
     long countUnreadByUserId(@Param("userId") String userId);
 
+    // Both return the number of notifications that were unread, for the unread counter
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId")
-    void markAllAsReadByUserId(@Param("userId") String userId);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllAsReadByUserId(@Param("userId") String userId);
 
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :notificationId AND n.user.id = :userId")
-    void markAsReadByIdAndUserId(@Param("notificationId") Long notificationId, @Param("userId") String userId);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :notificationId AND n.user.id = :userId AND n.read = false")
+    int markAsReadByIdAndUserId(@Param("notificationId") Long notificationId, @Param("userId") String userId);
 
     List<Notification> findAllByUserIdOrderByCreatedAtDesc(String userId);
 
     Page<Notification> findByUserIdOrderByCreatedAtAsc(String userId, Pageable firstFive);
 
     List<Notification> findAllByType(NotificationType notificationType);
+
+    // Keyset inbox, newest first: (created_at, id) seeks on idx_notification_inbox instead of skipping rows.
+    // read and type are optional filters (null = any).
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+            "AND (:read IS NULL OR n.read = :read) AND (:type IS NULL OR n.type = :type) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxLatest(@Param("userId") String userId,
+                                       @Param("read") Boolean read,
+                                       @Param("type") NotificationType type,
+                                       Pageable pageable);
+
+    // older than the cursor, newest first
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+            "AND n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+            "AND (:read IS NULL OR n.read = :read) AND (:type IS NULL OR n.type = :type) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxBefore(@Param("userId") String userId,
+                                       @Param("read") Boolean read,
+                                       @Param("type") NotificationType type,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    // newer than the cursor, oldest first (the caller reverses the page)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+            "AND n.createdAt >= :createdAt AND (n.createdAt > :createdAt OR n.id > :id) " +
+            "AND (:read IS NULL OR n.read = :read) AND (:type IS NULL OR n.type = :type) " +
+            "ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findInboxAfter(@Param("userId") String userId,
+                                      @Param("read") Boolean read,
+                                      @Param("type") NotificationType type,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
 }
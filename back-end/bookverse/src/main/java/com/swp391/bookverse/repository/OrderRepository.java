@@ -16,6 +16,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.active = true ORDER BY o.createdAt DESC")
     List<Order> findByUserId(@Param("userId") String userId);
 
+    // Same as findByUserId, with items, books and payment fetched in the same query
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book LEFT JOIN FETCH o.payment " +
+            "WHERE o.user.id = :userId AND o.active = true ORDER BY o.createdAt DESC")
+    List<Order> findByUserIdWithItems(@Param("userId") String userId);
+
     @Query("SELECT o FROM Order o WHERE o.status = :status AND o.active = true ORDER BY o.createdAt DESC")
     List<Order> findByStatus(@Param("status") OrderStatus status);
 
@@ -25,8 +30,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book WHERE o.id = :id AND o.active = true")
     Optional<Order> findByIdWithItems(@Param("id") Long id);
 
-    // Custom query to find top-selling book IDs
-    @Query("SELECT oi.book.id FROM Order o JOIN o.orderItems oi WHERE o.status = 'DELIVERED' GROUP BY oi.book.id ORDER BY SUM(oi.quantity) DESC")
+    // Top-selling book IDs, over live and archived orders
+    @Query(value = "SELECT oi.book_id FROM order_item_history oi JOIN order_history o ON o.id = oi.order_id " +
+            "WHERE o.status = 'DELIVERED' AND oi.book_id IS NOT NULL GROUP BY oi.book_id ORDER BY SUM(oi.quantity) DESC",
+            nativeQuery = true)
     List<Long> findTopSellingBookIds();
 
     @Query("SELECT o.user.id FROM Order o WHERE o.status = 'DELIVERED' GROUP BY o.user.id ORDER BY SUM(o.totalAmount) DESC")
@@ -1,7 +1,11 @@
 package com.swp391.bookverse.repository;
 
+import com.swp391.bookverse.dto.response.ReviewResponse;
 import com.swp391.bookverse.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +18,24 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     boolean existsByUserIdAndBookId(String id, Long id1);
 
     boolean existsByBookIdAndUserId(Long bookId, String userId);
+
+    /**
+     * Reviews of one book together with the reviewer's username and name, in a single query.
+     * Newest first; use Pageable.unpaged() to get every review.
+     */
+    @Query("SELECT new com.swp391.bookverse.dto.response.ReviewResponse(" +
+            "r.id, r.userId, u.username, u.name, r.bookId, r.comment, r.createdAt) " +
+            "FROM Review r LEFT JOIN User u ON u.id = r.userId " +
+            "WHERE r.bookId = :bookId " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewResponse> findResponsesByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
+    /**
+     * Every review with the reviewer's username and name, in a single query, grouped by book.
+     */
+    @Query("SELECT new com.swp391.bookverse.dto.response.ReviewResponse(" +
+            "r.id, r.userId, u.username, u.name, r.bookId, r.comment, r.createdAt) " +
+            "FROM Review r LEFT JOIN User u ON u.id = r.userId " +
+            "ORDER BY r.bookId, r.createdAt DESC, r.id DESC")
+    List<ReviewResponse> findAllResponses();
 }
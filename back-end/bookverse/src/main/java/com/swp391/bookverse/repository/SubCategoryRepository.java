@@ -4,6 +4,10 @@ import com.swp391.bookverse.entity.Promotion;
 import com.swp391.bookverse.entity.SubCategory;
 import com.swp391.bookverse.entity.SupCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -20,4 +24,9 @@ public interface SubCategoryRepository extends JpaRepository<SubCategory, Long>
 
     // Find all sub-categories whose promotion_id are the given id (only that id, not a list of ids). not using promotion entity to avoid join query
     List<SubCategory> findByPromotionId(Long promotionId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SubCategory sc SET sc.active = :active WHERE sc.id IN :ids")
+    int setActiveByIds(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
 }
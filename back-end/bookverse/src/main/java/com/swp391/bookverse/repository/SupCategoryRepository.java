@@ -2,8 +2,13 @@ package com.swp391.bookverse.repository;
 
 import com.swp391.bookverse.entity.SupCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,4 +21,9 @@ public interface SupCategoryRepository extends JpaRepository<SupCategory, Intege
     List<SupCategory> findByActiveTrue();
 
     int countByActiveTrue();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupCategory sp SET sp.active = :active WHERE sp.id IN :ids")
+    int setActiveByIds(@Param("ids") Collection<Integer> ids, @Param("active") boolean active);
 }
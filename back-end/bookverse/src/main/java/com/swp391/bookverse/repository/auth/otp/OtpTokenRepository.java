@@ -2,10 +2,20 @@ package com.swp391.bookverse.repository.auth.otp;
 
 import com.swp391.bookverse.entity.auth.otp.OtpToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface OtpTokenRepository extends JpaRepository<OtpToken, Long> {
     Optional<OtpToken> findTopByEmailAndUsedFalseOrderByCreatedAtDesc(String email);
     Optional<OtpToken> findTopByUserIdAndUsedFalseOrderByCreatedAtDesc(String userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM otp_token WHERE used = true OR expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteUsedOrExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
 }
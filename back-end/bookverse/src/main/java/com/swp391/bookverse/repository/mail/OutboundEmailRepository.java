@@ -0,0 +1,29 @@
+package com.swp391.bookverse.repository.mail;
+
+import com.swp391.bookverse.entity.mail.OutboundEmail;
+import com.swp391.bookverse.enums.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // Due emails: PENDING ones whose backoff elapsed, and SENDING ones whose worker lease expired (crashed worker).
+    // Rows locked by another instance are skipped (lock timeout -2 = SKIP LOCKED in Hibernate).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboundEmail e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboundEmail> findDueForUpdate(@Param("statuses") List<EmailStatus> statuses,
+                                         @Param("now") Instant now,
+                                         Pageable pageable);
+
+    long countByStatus(EmailStatus status);
+}
@@ -19,8 +19,6 @@ import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
@@ -34,6 +32,7 @@ import java.util.Set;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true) // Set default access level for fields to private
 public class AuthenticationService {
     UserRepository userRepository;
+    PasswordHashingService passwordHashingService;
 
     @NonFinal
     @Value("${jwt.signerKey}")
@@ -47,16 +46,21 @@ public class AuthenticationService {
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         var user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
 
-        // Check if the provided password matches the stored password
-        boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        // Check if the provided password matches the stored password (runs on the bounded hashing pool)
+        boolean authenticated = passwordHashingService.matches(request.getPassword(), user.getPassword());
 
         // Consider authentication result to generate a JWT token or handle further logic
         if (!authenticated) {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
 
+        // Transparently re-hash the password when the configured BCrypt cost has changed
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            userRepository.save(user);
+        }
+
         // Build the response object with authentication status and token
         String token = generateToken(user.getUsername());
         AuthenticationResponse response = AuthenticationResponse.builder()
@@ -11,12 +11,15 @@ import com.swp391.bookverse.dto.response.AuthorActiveResponse;
 import com.swp391.bookverse.entity.Author;
 import com.swp391.bookverse.entity.Book;
 import com.swp391.bookverse.entity.User;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.mapper.AuthorMapper;
 import com.swp391.bookverse.repository.AuthorRepository;
 import com.swp391.bookverse.repository.BookRepository;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import com.swp391.bookverse.service.storage.ImageStorageService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -24,11 +27,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,6 +41,8 @@ public class AuthorService {
     AuthorMapper authorMapper;
     BookRepository bookRepository;
     NotificationService notificationService;
+    ImageStorageService imageStorageService;
+    PricingEngine pricingEngine;
 
     /**
      * Create a new author based on the provided request
@@ -78,7 +78,7 @@ public class AuthorService {
         // Handle image upload or URL
         String imagePath = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            imagePath = handleImageUpload(imageFile, "author");
+            imagePath = imageStorageService.store(imageFile, "author");
         } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             imagePath = imageUrl.trim();
         }
@@ -93,85 +93,20 @@ public class AuthorService {
         // create notification for new author creation to all staffs
         NotificationBroadCastCreationRequest notificationBroadCastCreationRequestRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("A new author named '" + name + "' has been added to the system.")
+                .template(NotificationTemplate.AUTHOR_ADDED, name)
                 .build();
         notificationService.createBroadcastNotification(notificationBroadCastCreationRequestRequest);
 
         // create notification for new author creation to all admins
         notificationBroadCastCreationRequestRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("A new author named '" + name + "' has been added to the system.")
+                .template(NotificationTemplate.AUTHOR_ADDED, name)
                 .build();
         notificationService.createBroadcastNotification(notificationBroadCastCreationRequestRequest);
 
         return authorRepository.save(author);
     }
 
-    /**
-     * Handle image file upload
-     * @param imageFile the multipart file to upload
-     * @param folder the folder to save the image in (e.g., "author", "book")
-     * @return the relative path to the uploaded image
-     */
-    private String handleImageUpload(MultipartFile imageFile, String folder) {
-        try {
-            // Validate file type
-            String contentType = imageFile.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new AppException(ErrorCode.INVALID_FILE_TYPE);
-            }
-
-            // Validate file size (max 5MB)
-            long maxSize = 5 * 1024 * 1024; // 5MB in bytes
-            if (imageFile.getSize() > maxSize) {
-                throw new AppException(ErrorCode.FILE_TOO_LARGE);
-            }
-
-            // Get original filename and create a unique filename
-            String originalFilename = imageFile.getOriginalFilename();
-            if (originalFilename == null || originalFilename.isEmpty()) {
-                throw new AppException(ErrorCode.INVALID_FILE_NAME);
-            }
-
-            // Extract file extension
-            String fileExtension = "";
-            int lastDotIndex = originalFilename.lastIndexOf('.');
-            if (lastDotIndex > 0) {
-                fileExtension = originalFilename.substring(lastDotIndex);
-            }
-
-            // Create unique filename with timestamp
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            String cleanFilename = originalFilename.substring(0, lastDotIndex > 0 ? lastDotIndex : originalFilename.length())
-                    .replaceAll("[^a-zA-Z0-9]", "-");
-            String uniqueFilename = timestamp + "-" + cleanFilename + fileExtension;
-
-            // Determine the upload directory
-            String projectRoot = System.getProperty("user.dir")
-                    .replace("\\back-end\\bookverse", "")  // Windows
-                    .replace("/back-end/bookverse", "");    // Linux/Mac
-            String uploadDir = projectRoot + "/front-end/public/img/" + folder;
-
-            // Create directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Save the file
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return the relative path for storing in database
-            return "/img/" + folder + "/" + uniqueFilename;
-
-        } catch (IOException e) {
-            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
-        }
-    }
-
-
-
     /**
      * Fetches all authors from the system.
      * @return List<AuthorResponse> a list of all authors
@@ -239,7 +174,7 @@ public class AuthorService {
 
         // Handle image update
         if (imageFile != null && !imageFile.isEmpty()) {
-            String imagePath = handleImageUpload(imageFile, "author");
+            String imagePath = imageStorageService.store(imageFile, "author");
             existingAuthor.setImage(imagePath);
         } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             existingAuthor.setImage(imageUrl.trim());
@@ -252,14 +187,14 @@ public class AuthorService {
         // create notification for author update to all staffs
         NotificationBroadCastCreationRequest notificationBroadCastCreationRequestRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("The author named '" + existingAuthor.getName() + "' has been updated.")
+                .template(NotificationTemplate.AUTHOR_UPDATED, existingAuthor.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationBroadCastCreationRequestRequest);
 
         // create notification for author update to all admins
         notificationBroadCastCreationRequestRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("The author named '" + existingAuthor.getName() + "' has been updated.")
+                .template(NotificationTemplate.AUTHOR_UPDATED, existingAuthor.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationBroadCastCreationRequestRequest);
 
@@ -267,7 +202,6 @@ public class AuthorService {
         return authorMapper.toAuthorResponse(updatedAuthor);
     }
 
-
     /**
      * Change the active status of an author by ID
      * @param isActive new active status
@@ -285,14 +219,14 @@ public class AuthorService {
         String status = isActive ? "active" : "inactive";
         NotificationBroadCastCreationRequest notificationBroadCastCreationRequestRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Author " +status+ " : " + existingAuthor.getName() + ".")
+                .template(NotificationTemplate.AUTHOR_STATUS_CHANGED, status, existingAuthor.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationBroadCastCreationRequestRequest);
 
         // create notification for author status change to all admins
         notificationBroadCastCreationRequestRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Author " +status+ " : " + existingAuthor.getName() + ".")
+                .template(NotificationTemplate.AUTHOR_STATUS_CHANGED, status, existingAuthor.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationBroadCastCreationRequestRequest);
         
@@ -359,13 +293,17 @@ public class AuthorService {
                     .title(book.getTitle())
                     .description(book.getDescription())
                     .price(book.getPrice())
+                    .effectivePrice(pricingEngine.effectivePrice(book))
                     .publishedDate(book.getPublishedDate())
                     .active(book.getActive())
                     .image(book.getImage())
+                    .thumbnail(imageStorageService.listingThumbnail(book.getImage()))
                     .stockQuantity(book.getStockQuantity())
                     .authorId(book.getAuthor() != null ? book.getAuthor().getId() : null)
                     .publisherId(book.getPublisher() != null ? book.getPublisher().getId() : null)
                     .categoryId(book.getCategory() != null ? book.getCategory().getId() : null)
+                    .reviewCount(book.getReviewCount() == null ? 0 : book.getReviewCount())
+                    .lastReviewedAt(book.getLastReviewedAt())
                     .build();
             bookResponses.add(br);
         }
@@ -1,36 +1,47 @@
 package com.swp391.bookverse.service;
 
 import com.swp391.bookverse.dto.APIResponse;
+import com.swp391.bookverse.dto.request.BookBulkActiveRequest;
 import com.swp391.bookverse.dto.request.BookCreationRequest;
 import com.swp391.bookverse.dto.request.BookUpdateRequest;
 import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
 import com.swp391.bookverse.dto.response.BookActiveResponse;
 import com.swp391.bookverse.dto.response.BookResponse;
 import com.swp391.bookverse.entity.*;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.repository.*;
+import com.swp391.bookverse.service.catalog.AlsoBoughtEngine;
+import com.swp391.bookverse.service.catalog.BookSampler;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import com.swp391.bookverse.service.catalog.TrendingBooksEngine;
+import com.swp391.bookverse.service.notification.NotificationCoalescer;
+import com.swp391.bookverse.service.storage.ImageStorageService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
 public class BookService {
     AuthorRepository authorRepository;
     PublisherRepository publisherRepository;
@@ -39,6 +50,28 @@ public class BookService {
     OrderRepository orderRepository;
     SupCategoryRepository supCategoryRepository;
     NotificationService notificationService;
+    NotificationCoalescer notificationCoalescer;
+    ImageStorageService imageStorageService;
+    BookSampler bookSampler;
+    PricingEngine pricingEngine;
+    AlsoBoughtEngine alsoBoughtEngine;
+    TrendingBooksEngine trendingBooksEngine;
+
+    @NonFinal
+    @Value("${bookverse.catalog.sample.default-size:10}")
+    int sampleDefaultSize;
+
+    @NonFinal
+    @Value("${bookverse.catalog.sample.max-size:50}")
+    int sampleMaxSize;
+
+    @NonFinal
+    @Value("${bookverse.catalog.also-bought.default-size:8}")
+    int alsoBoughtDefaultSize;
+
+    @NonFinal
+    @Value("${bookverse.catalog.trending.default-size:10}")
+    int trendingDefaultSize;
 
     /**
      * Create a new book based on the provided request.
@@ -52,8 +85,11 @@ public class BookService {
 
         APIResponse<Book> response = new APIResponse<>();
         Book book = mapToBookEntity(request);
+        book.setVisible(isVisible(book));
 
         bookRepository.save(book);
+        bookSampler.invalidate();
+        pricingEngine.bookChanged(book);
         response.setResult(book);
         return response;
     }
@@ -72,11 +108,11 @@ public class BookService {
         // Handle image upload
         String imagePath = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            imagePath = handleImageUpload(imageFile, "book");
-            System.out.println("✅ Created book with uploaded file: " + imagePath);
+            imagePath = imageStorageService.store(imageFile, "book");
+            log.debug("Created book with uploaded file: {}", imagePath);
         } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             imagePath = imageUrl.trim();
-            System.out.println("✅ Created book with image URL: " + imageUrl);
+            log.debug("Created book with image URL: {}", imageUrl);
         }
 
         // Create book entity
@@ -88,6 +124,7 @@ public class BookService {
         book.setPublishedDate(LocalDate.parse(publishedDate));
         book.setImage(imagePath);
         book.setActive(active);
+        book.setReviewCount(0);
 
         // Set relationships
         if (authorId != null) {
@@ -105,8 +142,11 @@ public class BookService {
                     .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
             book.setCategory(subCategory);
         }
+        book.setVisible(isVisible(book));
 
         bookRepository.save(book);
+        bookSampler.invalidate();
+        pricingEngine.bookChanged(book);
         
         APIResponse<Book> response = new APIResponse<>();
         response.setResult(book);
@@ -114,94 +154,32 @@ public class BookService {
         // Send notification about new book for customers
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
             .type(NotificationType.FOR_CUSTOMERS)
-            .content("New book added: " + book.getTitle())
+            .template(NotificationTemplate.BOOK_ADDED, book.getTitle())
             .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // Send notification about new book for staffs
         notificationRequest = NotificationBroadCastCreationRequest.builder()
             .type(NotificationType.FOR_STAFFS)
-            .content("New book added: " + book.getTitle())
+            .template(NotificationTemplate.BOOK_ADDED, book.getTitle())
             .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // Send notification about new book for admins
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("New book added: " + book.getTitle())
+                .template(NotificationTemplate.BOOK_ADDED, book.getTitle())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         return response;
     }
 
-    private String handleImageUpload(MultipartFile imageFile, String folder) {
-        System.out.println("🔍 handleImageUpload called - imageFile: " + 
-            (imageFile != null ? imageFile.getOriginalFilename() + " (" + imageFile.getSize() + " bytes)" : "null"));
-        
-        if (imageFile == null || imageFile.isEmpty()) {
-            System.out.println("⚠️ Image file is null or empty, skipping upload");
-            return null;
-        }
-
-        try {
-            // Validate file type
-            String contentType = imageFile.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new AppException(ErrorCode.INVALID_FILE_TYPE);
-            }
-
-            // Validate file size (max 5MB)
-            if (imageFile.getSize() > 5 * 1024 * 1024) {
-                throw new AppException(ErrorCode.FILE_TOO_LARGE);
-            }
-
-            // Generate unique filename
-            String originalFilename = imageFile.getOriginalFilename();
-            if (originalFilename == null || originalFilename.isEmpty()) {
-                throw new AppException(ErrorCode.INVALID_FILE_NAME);
-            }
-
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            String cleanFilename = originalFilename.toLowerCase()
-                    .replaceAll("[^a-z0-9.]", "-")
-                    .replaceAll("-+", "-");
-            String filename = timestamp + "-" + cleanFilename;
-
-            // Create upload directory if not exists
-            String projectRoot = System.getProperty("user.dir")
-                    .replace("\\back-end\\bookverse", "")  // Windows
-                    .replace("/back-end/bookverse", "");    // Linux/Mac
-            String uploadDir = projectRoot + "/front-end/public/img/" + folder;
-            Path uploadPath = Paths.get(uploadDir);
-            
-            System.out.println("📁 Upload directory: " + uploadPath.toAbsolutePath());
-            
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                System.out.println("✅ Created directory: " + uploadPath.toAbsolutePath());
-            }
-
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return DB path
-            String dbPath = "/img/" + folder + "/" + filename;
-            System.out.println("✅ Image uploaded: " + dbPath);
-            return dbPath;
-
-        } catch (IOException e) {
-            System.err.println("❌ Image upload failed: " + e.getMessage());
-            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
-        }
-    }
-
-
     /**
      * Get all books stored in the system.
      * @return APIResponse containing a list of BookResponse objects
      */
+    @Transactional(readOnly = true)
     public APIResponse<List<BookResponse>> getBooks() {
         if (bookRepository.count() == 0) {
             throw new AppException(ErrorCode.NO_BOOKS_STORED);
@@ -220,34 +198,19 @@ public class BookService {
     }
 
     /**
-     * Get all books with active status true.
+     * Get all books that are visible in the store (book, sub-category and sup-category all active).
      * @return APIResponse containing a list of BookResponse objects
      */
+    @Transactional(readOnly = true)
     public APIResponse<List<BookResponse>> getActiveBooks() {
         if (bookRepository.count() == 0) {
             throw new AppException(ErrorCode.NO_BOOKS_STORED);
         }
 
         APIResponse<List<BookResponse>> response = new APIResponse<>();
-        List<Book> books = bookRepository.findAll();
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Book book : books) {
-            if (book.getActive()) {
-                BookResponse bookResponse = mapToBookResponse(book);
-                bookResponses.add(bookResponse);
-            }
-        }
-
-        // filtering: get only book that has sub-category active = true and sup-category active = true
-        bookResponses = bookResponses.stream()
-            .filter(bookResponse -> {
-                Book book = bookRepository.findById(bookResponse.getId())
-                    .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
-                SubCategory subCategory = book.getCategory();
-                SupCategory supCategory = subCategory.getSupCategory();
-                return subCategory.getActive() && supCategory.getActive();
-            })
-            .collect(Collectors.toList());
+        List<BookResponse> bookResponses = bookRepository.findByVisibleTrue(Sort.by("id")).stream()
+                .map(this::mapToBookResponse)
+                .collect(Collectors.toList());
 
         response.setResult(bookResponses);
         return response;
@@ -257,6 +220,7 @@ public class BookService {
      * Get all books with active status false.
      * @return APIResponse containing a list of BookResponse objects
      */
+    @Transactional(readOnly = true)
     public APIResponse<List<BookResponse>> getInactiveBooks() {
         if (bookRepository.count() == 0) {
             throw new AppException(ErrorCode.NO_BOOKS_STORED);
@@ -281,6 +245,7 @@ public class BookService {
      * @param bookId
      * @return BookResponse containing the book details
      */
+    @Transactional(readOnly = true)
     public BookResponse getBookById(String bookId) {
         Book book = bookRepository.findById(Long.parseLong(bookId))
                 .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
@@ -305,9 +270,12 @@ public class BookService {
         existingBook.setPublishedDate(request.getPublishedDate());
         existingBook.setImage(request.getImage());
         existingBook.setActive(request.getActive());
+        existingBook.setVisible(isVisible(existingBook));
 
         // Save updated book
         Book updatedBook = bookRepository.save(existingBook);
+        bookSampler.invalidate();
+        pricingEngine.bookChanged(updatedBook);
         return mapToBookResponse(updatedBook);
     }
 
@@ -330,12 +298,12 @@ public class BookService {
 
         // Handle image update
         if (imageFile != null && !imageFile.isEmpty()) {
-            String imagePath = handleImageUpload(imageFile, "book");
+            String imagePath = imageStorageService.store(imageFile, "book");
             existingBook.setImage(imagePath);
-            System.out.println("✅ Updated book with uploaded file: " + imagePath);
+            log.debug("Updated book with uploaded file: {}", imagePath);
         } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             existingBook.setImage(imageUrl.trim());
-            System.out.println("✅ Updated book with image URL: " + imageUrl);
+            log.debug("Updated book with image URL: {}", imageUrl);
         }
 
         // Update relationships
@@ -354,27 +322,29 @@ public class BookService {
                     .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
             existingBook.setCategory(subCategory);
         }
+        existingBook.setVisible(isVisible(existingBook));
 
         Book updatedBook = bookRepository.save(existingBook);
+        bookSampler.invalidate();
+        pricingEngine.bookChanged(updatedBook);
 
         // Send notification about book update for staffs
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
             .type(NotificationType.FOR_STAFFS)
-            .content("Book updated: " + existingBook.getTitle())
+            .template(NotificationTemplate.BOOK_UPDATED, existingBook.getTitle())
             .build();
-        notificationService.createBroadcastNotification(notificationRequest);
+        notificationCoalescer.broadcast(notificationRequest, existingBook.getId(), NotificationTemplate.BOOKS_UPDATED);
 
         // send notification about book update for admins
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Book updated: " + existingBook.getTitle())
+                .template(NotificationTemplate.BOOK_UPDATED, existingBook.getTitle())
                 .build();
-        notificationService.createBroadcastNotification(notificationRequest);
+        notificationCoalescer.broadcast(notificationRequest, existingBook.getId(), NotificationTemplate.BOOKS_UPDATED);
 
         return mapToBookResponse(updatedBook);
     }
 
-
     /**
      * Change the active status of a book by its ID.
      * @param isActive new active status
@@ -386,7 +356,9 @@ public class BookService {
                 .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
 
         existingBook.setActive(isActive);
+        existingBook.setVisible(isVisible(existingBook));
         bookRepository.save(existingBook);
+        bookSampler.invalidate();
 
         APIResponse<BookActiveResponse> response = new APIResponse<>();
         response.setResult(mapToBookActiveResponse(existingBook));
@@ -395,187 +367,200 @@ public class BookService {
         String status = isActive ? "restored" : "deactivated";
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
             .type(NotificationType.FOR_STAFFS)
-            .content("Book " + status + ": " + existingBook.getTitle())
+            .template(NotificationTemplate.BOOK_STATUS_CHANGED, status, existingBook.getTitle())
             .build();
-        notificationService.createBroadcastNotification(notificationRequest);
+        notificationCoalescer.broadcast(notificationRequest, existingBook.getId(), NotificationTemplate.BOOKS_STATUS_CHANGED, status);
 
         // Send notification about book status change for admins
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Book " + status + ": " + existingBook.getTitle())
+                .template(NotificationTemplate.BOOK_STATUS_CHANGED, status, existingBook.getTitle())
                 .build();
-        notificationService.createBroadcastNotification(notificationRequest);
+        notificationCoalescer.broadcast(notificationRequest, existingBook.getId(), NotificationTemplate.BOOKS_STATUS_CHANGED, status);
 
         return response;
     }
 
     /**
-     * Get a list of random active books.
-     * @return APIResponse containing a list of BookResponse objects
-     */
-    public APIResponse<List<BookResponse>> getRandomActiveBooks() {
-        // Filter active books
-        List<Book> activeBooks = bookRepository.findAll().stream()
-                .filter(Book::getActive)
-                .toList();
-        // Check if there are any active books
-        if (activeBooks.isEmpty()) {
-            throw new AppException(ErrorCode.NO_BOOKS_STORED);
-        }
-        // Select up to 10 random active books
-        else {
-            APIResponse<List<BookResponse>> response = new APIResponse<>();
-            List<BookResponse> bookResponses = new ArrayList<>();
-            int count = Math.min(10, activeBooks.size());
-            for (int i = 0; i < count; i++) {
-                Book book = activeBooks.get((int) (Math.random() * activeBooks.size()));
-                BookResponse bookResponse = mapToBookResponse(book);
-                bookResponses.add(bookResponse);
-            }
-            response.setResult(bookResponses);
-            return response;
-        }
-    }
-
-    /**
-     *  Get a list of active books sorted by newest published date.
+     * Get a list of random visible books.
+     * Without a seed every call returns a fresh sample; with a seed, pages of the same seed form one
+     * shuffled pass over the catalog without repeats ("discover" feed).
+     * @param size number of books, defaults to bookverse.catalog.sample.default-size
+     * @param seed optional seed for deterministic paging
+     * @param page zero-based page, only used with a seed
      * @return APIResponse containing a list of BookResponse objects
      */
-    public APIResponse<List<BookResponse>> getActiveBooksSortedByNewest() {
-        // Create a MUTABLE list
-        List<Book> activeBooks = new ArrayList<>(
-            bookRepository.findAll().stream()
-                .filter(Book::getActive)
-                .toList()
-        );
-
-        if (activeBooks.isEmpty()) {
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getRandomActiveBooks(Integer size, Long seed, int page) {
+        if (bookSampler.size() == 0) {
             throw new AppException(ErrorCode.NO_BOOKS_STORED);
         }
 
-        activeBooks.sort((b1, b2) -> b2.getPublishedDate().compareTo(b1.getPublishedDate()));
+        int k = Math.min(size == null || size < 1 ? sampleDefaultSize : size, sampleMaxSize);
+        List<Long> ids = seed == null
+                ? bookSampler.sample(k)
+                : bookSampler.sample(seed, Math.max(page, 0), k);
 
-        // filtering: get only book that has sub-category active = true and sup-category active = true
-            activeBooks = activeBooks.stream()
-            .filter(book -> {
-                SubCategory subCategory = book.getCategory();
-                SupCategory supCategory = subCategory.getSupCategory();
-                return subCategory.getActive() && supCategory.getActive();
-            })
-            .collect(Collectors.toList());
+        // keep the sampled order
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BookResponse> bookResponses = ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToBookResponse)
+                .collect(Collectors.toList());
 
         APIResponse<List<BookResponse>> response = new APIResponse<>();
-        List<BookResponse> bookResponses = activeBooks.stream()
-            .map(this::mapToBookResponse)
-            .collect(Collectors.toList());
-
         response.setResult(bookResponses);
         return response;
     }
 
-    public APIResponse<List<BookResponse>> getActiveBooksSortedByOldest() {
-        List<BookResponse> bookResponses = bookRepository.findAll().stream()
-            .filter(Book::getActive)
-            .sorted(Comparator.comparing(Book::getPublishedDate))
-            .map(this::mapToBookResponse)
-            .collect(Collectors.toList());
-
-        if (bookResponses.isEmpty()) {
-            throw new AppException(ErrorCode.NO_BOOKS_STORED);
-        }
-
-        // filtering: get only book that has sub-category active = true and sup-category active = true
-        bookResponses = bookResponses.stream()
-            .filter(bookResponse -> {
-                Book book = bookRepository.findById(bookResponse.getId())
-                    .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
-                SubCategory subCategory = book.getCategory();
-                SupCategory supCategory = subCategory.getSupCategory();
-                return subCategory.getActive() && supCategory.getActive();
-            })
-            .collect(Collectors.toList());
+    /**
+     * Get books that customers often bought together with the given book, most frequent first.
+     * Served from AlsoBoughtEngine's in-memory top-K; hidden books are left out.
+     * @param bookId the book id
+     * @param limit maximum number of books, defaults to bookverse.catalog.also-bought.default-size
+     * @return APIResponse containing a list of BookResponse objects (empty when there is no co-purchase data)
+     */
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getAlsoBoughtBooks(Long bookId, Integer limit) {
+        int k = limit == null || limit < 1 ? alsoBoughtDefaultSize : limit;
+        List<Long> ids = alsoBoughtEngine.alsoBought(bookId, k);
+
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BookResponse> bookResponses = ids.stream()
+                .map(books::get)
+                .filter(book -> book != null && Boolean.TRUE.equals(book.getVisible()))
+                .map(this::mapToBookResponse)
+                .collect(Collectors.toList());
 
         APIResponse<List<BookResponse>> response = new APIResponse<>();
         response.setResult(bookResponses);
         return response;
     }
 
-    public APIResponse<List<BookResponse>> getActiveBooksSortedByPriceAsc() {
-        List<BookResponse> bookResponses = bookRepository.findAll().stream()
-            .filter(Book::getActive)
-            .sorted(Comparator.comparing(Book::getPrice))
-            .map(this::mapToBookResponse)
-            .collect(Collectors.toList());
-
-        if (bookResponses.isEmpty()) {
-            throw new AppException(ErrorCode.NO_BOOKS_STORED);
+    /**
+     * Get the books with the most units ordered in a recent time window, most first.
+     * Served from TrendingBooksEngine's precomputed ranking; hidden books are left out.
+     * @param window "1h", "24h" or "7d", defaults to 24h
+     * @param size maximum number of books, defaults to bookverse.catalog.trending.default-size
+     * @return APIResponse containing a list of BookResponse objects (empty when nothing was ordered)
+     */
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getTrendingBooks(String window, Integer size) {
+        TrendingBooksEngine.Window trendingWindow = window == null
+                ? TrendingBooksEngine.Window.DAY
+                : TrendingBooksEngine.Window.fromCode(window);
+        if (trendingWindow == null) {
+            throw new AppException(ErrorCode.INVALID_TRENDING_WINDOW);
         }
 
-        // filtering: get only book that has sub-category active = true and sup-category active = true
-        bookResponses = bookResponses.stream()
-            .filter(bookResponse -> {
-                Book book = bookRepository.findById(bookResponse.getId())
-                    .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
-                SubCategory subCategory = book.getCategory();
-                SupCategory supCategory = subCategory.getSupCategory();
-                return subCategory.getActive() && supCategory.getActive();
-            })
-            .collect(Collectors.toList());
+        int k = size == null || size < 1 ? trendingDefaultSize : size;
+        List<Long> ids = trendingBooksEngine.trending(trendingWindow, k);
+
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BookResponse> bookResponses = ids.stream()
+                .map(books::get)
+                .filter(book -> book != null && Boolean.TRUE.equals(book.getVisible()))
+                .map(this::mapToBookResponse)
+                .collect(Collectors.toList());
 
         APIResponse<List<BookResponse>> response = new APIResponse<>();
         response.setResult(bookResponses);
         return response;
     }
 
+    /**
+     *  Get a list of active books sorted by newest published date.
+     * @return APIResponse containing a list of BookResponse objects
+     */
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getActiveBooksSortedByNewest() {
+        return getVisibleBooksSorted(Sort.by(Sort.Direction.DESC, "publishedDate"));
+    }
+
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getActiveBooksSortedByOldest() {
+        return getVisibleBooksSorted(Sort.by(Sort.Direction.ASC, "publishedDate"));
+    }
+
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getActiveBooksSortedByPriceAsc() {
+        return getVisibleBooksSorted(Sort.by(Sort.Direction.ASC, "price"));
+    }
+
+    @Transactional(readOnly = true)
     public APIResponse<List<BookResponse>> getActiveBooksSortedByPriceDesc() {
-        List<BookResponse> bookResponses = bookRepository.findAll().stream()
-            .filter(Book::getActive)
-            .sorted((b1, b2) -> b2.getPrice().compareTo(b1.getPrice()))
-            .map(this::mapToBookResponse)
-            .collect(Collectors.toList());
+        return getVisibleBooksSorted(Sort.by(Sort.Direction.DESC, "price"));
+    }
 
-        if (bookResponses.isEmpty()) {
-            throw new AppException(ErrorCode.NO_BOOKS_STORED);
+    @Transactional(readOnly = true)
+    public APIResponse<List<BookResponse>> getActiveBooksSortedByTitleAsc() {
+        return getVisibleBooksSorted(Sort.by(Sort.Direction.ASC, "title"));
+    }
+
+    /**
+     * Activate or deactivate many books with one UPDATE statement, selected by ids, author or sub-category.
+     * book.visible is updated in the same statement.
+     * @param request exactly one of ids / authorId / subCategoryId, and the new active status
+     * @return number of books changed
+     */
+    @Transactional
+    public int bulkChangeActiveBooks(BookBulkActiveRequest request) {
+        int selectors = (request.getIds() != null && !request.getIds().isEmpty() ? 1 : 0)
+                + (request.getAuthorId() != null ? 1 : 0)
+                + (request.getSubCategoryId() != null ? 1 : 0);
+        if (selectors != 1 || request.getActive() == null) {
+            throw new AppException(ErrorCode.INVALID_BULK_SELECTION);
         }
 
-        // filtering: get only book that has sub-category active = true and sup-category active = true
-        bookResponses = bookResponses.stream()
-            .filter(bookResponse -> {
-                Book book = bookRepository.findById(bookResponse.getId())
-                    .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
-                SubCategory subCategory = book.getCategory();
-                SupCategory supCategory = subCategory.getSupCategory();
-                return subCategory.getActive() && supCategory.getActive();
-            })
-            .collect(Collectors.toList());
+        int updated;
+        if (request.getAuthorId() != null) {
+            updated = bookRepository.setActiveByAuthorId(request.getAuthorId(), request.getActive());
+        } else if (request.getSubCategoryId() != null) {
+            updated = bookRepository.setActiveBySubCategoryId(request.getSubCategoryId(), request.getActive());
+        } else {
+            updated = bookRepository.setActiveByIds(request.getIds(), request.getActive());
+        }
+        bookSampler.invalidate();
+
+        String status = request.getActive() ? "restored" : "deactivated";
+        notificationService.createBroadcastNotification(NotificationBroadCastCreationRequest.builder()
+                .type(NotificationType.FOR_STAFFS)
+                .template(NotificationTemplate.BOOKS_STATUS_CHANGED, updated, status)
+                .build());
+        return updated;
+    }
 
-        APIResponse<List<BookResponse>> response = new APIResponse<>();
-        response.setResult(bookResponses);
-        return response;
+    /**
+     * A book is shown in the store only if it and its sub-category and sup-category are all active.
+     * @param book the book entity
+     * @return value for book.visible
+     */
+    private boolean isVisible(Book book) {
+        SubCategory subCategory = book.getCategory();
+        return Boolean.TRUE.equals(book.getActive())
+                && subCategory != null && Boolean.TRUE.equals(subCategory.getActive())
+                && subCategory.getSupCategory() != null && Boolean.TRUE.equals(subCategory.getSupCategory().getActive());
     }
 
-    public APIResponse<List<BookResponse>> getActiveBooksSortedByTitleAsc() {
-        List<BookResponse> bookResponses = bookRepository.findAll().stream()
-            .filter(Book::getActive)
-            .sorted(Comparator.comparing(Book::getTitle))
-            .map(this::mapToBookResponse)
-            .collect(Collectors.toList());
+    /**
+     * Visible books sorted in the database, filtered on the indexed book.visible column
+     * instead of walking book -> sub-category -> sup-category for every row.
+     * @param sort sort order
+     * @return APIResponse containing a list of BookResponse objects
+     */
+    private APIResponse<List<BookResponse>> getVisibleBooksSorted(Sort sort) {
+        List<BookResponse> bookResponses = bookRepository.findByVisibleTrue(sort).stream()
+                .map(this::mapToBookResponse)
+                .collect(Collectors.toList());
 
         if (bookResponses.isEmpty()) {
             throw new AppException(ErrorCode.NO_BOOKS_STORED);
         }
 
-        // filtering: get only book that has sub-category active = true and sup-category active = true
-        bookResponses = bookResponses.stream()
-            .filter(bookResponse -> {
-                Book book = bookRepository.findById(bookResponse.getId())
-                    .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
-                SubCategory subCategory = book.getCategory();
-                SupCategory supCategory = subCategory.getSupCategory();
-                return subCategory.getActive() && supCategory.getActive();
-            })
-            .collect(Collectors.toList());
-
         APIResponse<List<BookResponse>> response = new APIResponse<>();
         response.setResult(bookResponses);
         return response;
@@ -620,6 +605,7 @@ public class BookService {
                 .publishedDate(request.getPublishedDate())
                 .image(request.getImage())
                 .active(request.getActive())
+                .reviewCount(0)
                 .build();
     }
 
@@ -634,17 +620,22 @@ public class BookService {
                 .title(book.getTitle())
                 .description(book.getDescription())
                 .price(book.getPrice())
+                .effectivePrice(pricingEngine.effectivePrice(book))
                 .authorId(book.getAuthor().getId())
                 .publisherId(book.getPublisher().getId())
                 .categoryId(book.getCategory().getId())
                 .stockQuantity(book.getStockQuantity())
                 .publishedDate(book.getPublishedDate())
                 .image(book.getImage())
+                .thumbnail(imageStorageService.listingThumbnail(book.getImage()))
                 .active(book.getActive())
+                .reviewCount(book.getReviewCount() == null ? 0 : book.getReviewCount())
+                .lastReviewedAt(book.getLastReviewedAt())
                 .build();
     }
 
 
+    @Transactional(readOnly = true)
     public APIResponse<List<BookResponse>> searchActiveBooksByTitle(String title) {
         List<BookResponse> bookResponses = bookRepository.findAll().stream()
             .filter(book -> book.getActive() && book.getTitle().toLowerCase().contains(title.toLowerCase()))
@@ -664,6 +655,7 @@ public class BookService {
      * Get a list of top-selling active books.
      * @return
      */
+    @Transactional(readOnly = true)
     public APIResponse<List<BookResponse>> getTopSellingActiveBooks() {
         // Get a list of book IDs sorted by total sold quantity in descending order
         List<Long> topSellingBookIds = orderRepository.findTopSellingBookIds();
@@ -3,11 +3,13 @@ package com.swp391.bookverse.service;
 import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
 import com.swp391.bookverse.dto.request.NotificationCreationRequest;
 import com.swp391.bookverse.dto.request.NotificationUpdateRequest;
+import com.swp391.bookverse.dto.response.NotificationInboxResponse;
 import com.swp391.bookverse.dto.response.NotificationResponse;
 import com.swp391.bookverse.dto.response.NotificationResponseWithID;
 import com.swp391.bookverse.dto.response.UserResponse;
 import com.swp391.bookverse.entity.Notification;
 import com.swp391.bookverse.entity.User;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.enums.Role;
 import com.swp391.bookverse.exception.AppException;
@@ -16,16 +18,26 @@ import com.swp391.bookverse.mapper.NotificationMapper;
 import com.swp391.bookverse.mapper.UserMapper;
 import com.swp391.bookverse.repository.NotificationRepository;
 import com.swp391.bookverse.repository.UserRepository;
+import com.swp391.bookverse.service.notification.NotificationTemplateService;
+import com.swp391.bookverse.service.notification.UnreadCounterService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -38,6 +50,16 @@ public class NotificationService {
     UserRepository userRepository;
     NotificationMapper notificationMapper;
     UserMapper userMapper;
+    UnreadCounterService unreadCounterService;
+    NotificationTemplateService templateService;
+
+    @NonFinal
+    @Value("${bookverse.notification.inbox.default-size:20}")
+    int inboxDefaultSize;
+
+    @NonFinal
+    @Value("${bookverse.notification.inbox.max-size:100}")
+    int inboxMaxSize;
 
     // Admin APIs
 
@@ -65,15 +87,10 @@ public class NotificationService {
 
         List<User> targetUsers = userRepository.findAllByRolesContaining(targetRole);
 
-        List<NotificationCreationRequest> notifications = targetUsers.stream()
-                .map(user -> NotificationCreationRequest.builder()
-                        .targetUserId(user.getId())
-                        .content(request.getContent())
-                        .type(request.getType())
-                        .build())
-                .toList();
-
-        notifications.forEach(this::createNotification);
+        String params = templateService.encode(request.getParams());
+        targetUsers.forEach(user -> saveNotification(
+                user, request.getContent(), request.getTemplate(), params, request.getType()));
+        unreadCounterService.addOneForRole(targetRole.name(), targetUsers.stream().map(User::getUsername).toList());
 
         return targetUsers.stream()
                 .map(userMapper::toUserResponse)
@@ -94,7 +111,9 @@ public class NotificationService {
         createNotification(request);
 
         NotificationResponse response = NotificationResponse.builder()
-                .content(request.getContent())
+                .content(request.getTemplate() == null
+                        ? request.getContent()
+                        : templateService.render(request.getTemplate(), request.getParams()))
                 .type(request.getType())
                 .read(false)
                 .build();
@@ -113,30 +132,94 @@ public class NotificationService {
                 .toList();
     }
 
+    /**
+     * Served from UnreadCounterService: no database access while the count is cached.
+     */
     public long getUnreadCount() {
-        String userId = getCurrentUserId();
-        return notificationRepository.countUnreadByUserId(userId);
+        return unreadCounterService.unreadCount(getCurrentUsername());
     }
 
     public List<NotificationResponse> getFirst5Notifications() {
         String userId = getCurrentUserId();
-        Pageable firstFive = Pageable.ofSize(5);
-        Page<Notification> notificationsPage = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, firstFive);
-        return notificationsPage.stream()
+        // a plain limit: a Page would also count the whole inbox
+        return notificationRepository.findInboxLatest(userId, null, null, PageRequest.of(0, 5)).stream()
                 .map(notificationMapper::toNotificationResponse)
                 .toList();
     }
 
+    /**
+     * One page of the current user's inbox, newest first, using keyset pagination on (created_at, id):
+     * every page is an index seek, whatever the size of the inbox.
+     * @param before cursor from nextCursor, returns older notifications
+     * @param after cursor from prevCursor, returns newer notifications (e.g. when polling)
+     * @param read optional filter, true = read only, false = unread only
+     * @param type optional NotificationType name
+     * @param size page size, defaults to bookverse.notification.inbox.default-size, capped at max-size
+     * @return the page and the cursors around it
+     */
+    @Transactional(readOnly = true)
+    public NotificationInboxResponse getMyInbox(String before, String after, Boolean read, String type, Integer size) {
+        if (before != null && after != null) {
+            throw new AppException(ErrorCode.INVALID_NOTIFICATION_CURSOR);
+        }
+        NotificationType notificationType = null;
+        if (type != null && !type.isBlank()) {
+            try {
+                notificationType = NotificationType.valueOf(type);
+            } catch (IllegalArgumentException e) {
+                throw new AppException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+        int pageSize = size == null || size <= 0 ? inboxDefaultSize : Math.min(size, inboxMaxSize);
+        // one extra row tells whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        String userId = getCurrentUserId();
+
+        List<Notification> rows;
+        if (after != null) {
+            InboxCursor cursor = InboxCursor.decode(after);
+            rows = new ArrayList<>(notificationRepository.findInboxAfter(
+                    userId, read, notificationType, cursor.createdAt(), cursor.id(), limit));
+        } else if (before != null) {
+            InboxCursor cursor = InboxCursor.decode(before);
+            rows = notificationRepository.findInboxBefore(
+                    userId, read, notificationType, cursor.createdAt(), cursor.id(), limit);
+        } else {
+            rows = notificationRepository.findInboxLatest(userId, read, notificationType, limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Notification> page = hasMore ? rows.subList(0, pageSize) : rows;
+        if (after != null) {
+            Collections.reverse(page);
+        }
+
+        String nextCursor = null;
+        if (!page.isEmpty() && (after != null || hasMore)) {
+            nextCursor = InboxCursor.of(page.get(page.size() - 1)).encode();
+        }
+        String prevCursor = page.isEmpty() ? after : InboxCursor.of(page.get(0)).encode();
+
+        return NotificationInboxResponse.builder()
+                .items(page.stream().map(notificationMapper::toNotificationResponse).toList())
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Transactional
     public void markAsRead(Long notificationId) {
         String userId = getCurrentUserId();
-        notificationRepository.markAsReadByIdAndUserId(notificationId, userId);
+        int changed = notificationRepository.markAsReadByIdAndUserId(notificationId, userId);
+        unreadCounterService.add(userId, getCurrentUsername(), -changed);
     }
 
     @Transactional
     public void markAllAsRead() {
         String userId = getCurrentUserId();
-        notificationRepository.markAllAsReadByUserId(userId);
+        int changed = notificationRepository.markAllAsReadByUserId(userId);
+        unreadCounterService.add(userId, getCurrentUsername(), -changed);
     }
 
     // Helper methods
@@ -145,16 +228,57 @@ public class NotificationService {
         User user = userRepository.findById(request.getTargetUserId())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
+        saveNotification(user, request.getContent(), request.getTemplate(),
+                templateService.encode(request.getParams()), request.getType());
+        unreadCounterService.add(user.getId(), user.getUsername(), 1);
+    }
+
+    // new unread notification; the caller updates the unread counter
+    private void saveNotification(User user, String content, NotificationTemplate template, String params,
+                                  NotificationType type) {
         Notification notification = Notification.builder()
                 .user(user)
-                .content(request.getContent())
-                .type(request.getType())
+                // with a template only the id and parameters are stored, the text is rendered on read
+                .content(template == null ? content : null)
+                .templateId(template == null ? null : template.getId())
+                .params(template == null ? null : params)
+                .type(type)
                 .read(false)
                 .build();
 
         notificationRepository.save(notification);
     }
 
+    /**
+     * Position in the inbox: created_at and id of a notification, sent to clients as an opaque
+     * URL-safe Base64 string.
+     */
+    private record InboxCursor(LocalDateTime createdAt, Long id) {
+        static InboxCursor of(Notification notification) {
+            return new InboxCursor(notification.getCreatedAt(), notification.getId());
+        }
+
+        static InboxCursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('_');
+                return new InboxCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new AppException(ErrorCode.INVALID_NOTIFICATION_CURSOR);
+            }
+        }
+
+        String encode() {
+            String raw = createdAt + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String getCurrentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
     private String getCurrentUserId() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         return userRepository.findByUsername(username)
@@ -168,6 +292,8 @@ public class NotificationService {
                 .orElseThrow(() -> new AppException(ErrorCode.NOTIFICATION_NOT_FOUND));
 
         notification.setContent(request.getContent());
+        notification.setTemplateId(null);
+        notification.setParams(null);
         notification.setType(request.getType());
 
         Notification updatedNotification = notificationRepository.save(notification);
@@ -175,6 +301,7 @@ public class NotificationService {
         return notificationMapper.toNotificationResponse(updatedNotification);
     }
 
+    @Transactional
     public void deleteMyNotification(Long id) {
         String userId = getCurrentUserId();
         Notification notification = notificationRepository.findById(id)
@@ -186,40 +313,36 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        if (!notification.isRead()) {
+            unreadCounterService.add(userId, getCurrentUsername(), -1);
+        }
     }
 
+    @Transactional
     public void adminDeleteNotification(Long id) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.NOTIFICATION_NOT_FOUND));
 
         notificationRepository.delete(notification);
+        if (!notification.isRead()) {
+            User user = notification.getUser();
+            unreadCounterService.add(user.getId(), user.getUsername(), -1);
+        }
     }
 
     public List<NotificationResponseWithID> getAllNotifications() {
         List<Notification> notifications = notificationRepository.findAll();
-        List<NotificationResponse> notificationResponses = notifications.stream()
-                .map(notificationMapper::toNotificationResponse)
-                .toList();
-        // Map to NotificationResponseWithID including userId
-        List<NotificationResponseWithID> responseWithIDs = notifications.stream()
-                .map(notification -> {
-                    NotificationResponseWithID responseWithID = new NotificationResponseWithID();
-                    responseWithID.setId(notification.getId());
-                    responseWithID.setContent(notification.getContent());
-                    responseWithID.setType(notification.getType());
-                    responseWithID.setRead(notification.isRead());
-                    responseWithID.setCreatedAt(notification.getCreatedAt());
-                    responseWithID.setUserId(notification.getUser().getId());
-                    return responseWithID;
-                })
+        return notifications.stream()
+                .map(notificationMapper::toNotificationResponseWithID)
                 .toList();
-        return responseWithIDs;
 
     }
 
+    @Transactional
     public void markOneAsRead(Long id) {
         String userId = getCurrentUserId();
-        notificationRepository.markAsReadByIdAndUserId(id, userId);
+        int changed = notificationRepository.markAsReadByIdAndUserId(id, userId);
+        unreadCounterService.add(userId, getCurrentUsername(), -changed);
     }
 
     /**
@@ -238,18 +361,8 @@ public class NotificationService {
 
         List<Notification> notifications = notificationRepository.findAllByType(notificationType);
 
-        List<NotificationResponseWithID> responseWithIDs = notifications.stream()
-                .map(notification -> {
-                    NotificationResponseWithID responseWithID = new NotificationResponseWithID();
-                    responseWithID.setId(notification.getId());
-                    responseWithID.setContent(notification.getContent());
-                    responseWithID.setType(notification.getType());
-                    responseWithID.setRead(notification.isRead());
-                    responseWithID.setCreatedAt(notification.getCreatedAt());
-                    responseWithID.setUserId(notification.getUser().getId());
-                    return responseWithID;
-                })
+        return notifications.stream()
+                .map(notificationMapper::toNotificationResponseWithID)
                 .toList();
-        return responseWithIDs;
     }
 }
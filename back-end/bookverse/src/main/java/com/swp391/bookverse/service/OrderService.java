@@ -3,6 +3,7 @@ package com.swp391.bookverse.service;
 import com.swp391.bookverse.dto.request.*;
 import com.swp391.bookverse.dto.response.*;
 import com.swp391.bookverse.entity.*;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.enums.OrderStatus;
 import com.swp391.bookverse.enums.PaymentMethod;
@@ -10,18 +11,28 @@ import com.swp391.bookverse.enums.PaymentStatus;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.mapper.OrderMapper;
-import com.swp391.bookverse.mapper.UserMapper;
 import com.swp391.bookverse.repository.*;
+import com.swp391.bookverse.service.archive.ArchiveService;
+import com.swp391.bookverse.service.archive.OrderHistoryStatistics;
+import com.swp391.bookverse.service.catalog.AlsoBoughtEngine;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import com.swp391.bookverse.service.catalog.TrendingBooksEngine;
+import com.swp391.bookverse.service.notification.NotificationCoalescer;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,7 +47,13 @@ public class OrderService {
     OrderMapper orderMapper;
     PaymentRepository paymentRepository;
     NotificationService notificationService;
-    UserMapper userMapper;
+    NotificationCoalescer notificationCoalescer;
+    AlsoBoughtEngine alsoBoughtEngine;
+    TrendingBooksEngine trendingBooksEngine;
+    PricingEngine pricingEngine;
+    CustomerSummaryRepository customerSummaryRepository;
+    ArchiveService archiveService;
+    OrderHistoryStatistics orderHistoryStatistics;
 
     /**
      * Create order from current user's cart
@@ -80,22 +97,26 @@ public class OrderService {
                 throw new AppException(ErrorCode.INSUFFICIENT_STOCK);
             }
 
-            // Create order item
+            // Create order item, charged at the price after promotions
+            double price = pricingEngine.effectivePrice(book);
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .book(book)
                     .quantity(cartItem.getQuantity())
-                    .price(book.getPrice())
+                    .price(price)
                     .build();
 
             order.getOrderItems().add(orderItem);
-            totalAmount += book.getPrice() * cartItem.getQuantity();
+            totalAmount += price * cartItem.getQuantity();
         }
 
         order.setTotalAmount(totalAmount);
 
         // Save order
         Order savedOrder = orderRepository.save(order);
+        reportToTrending(savedOrder, true);
+        customerSummaryRepository.recordOrderPlaced(user.getId(),
+                savedOrder.getCreatedAt() != null ? savedOrder.getCreatedAt() : LocalDateTime.now());
 
         // Clear current user's cart
         cart.getCartItems().clear();
@@ -104,14 +125,14 @@ public class OrderService {
         // send notification to all staffs about new order
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("New order placed by " + user.getUsername() + ". Order ID: " + savedOrder.getId())
+                .template(NotificationTemplate.ORDER_PLACED, user.getUsername(), savedOrder.getId())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification to all admins about new order
         NotificationBroadCastCreationRequest adminNotificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("New order placed by " + user.getUsername() + ". Order ID: " + savedOrder.getId())
+                .template(NotificationTemplate.ORDER_PLACED, user.getUsername(), savedOrder.getId())
                 .build();
         notificationService.createBroadcastNotification(adminNotificationRequest);
 
@@ -119,7 +140,7 @@ public class OrderService {
         NotificationCreationRequest customerNotificationRequest = NotificationCreationRequest.builder()
                 .targetUserId(user.getId())
                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                .content("Your order (ID: " + savedOrder.getId() + ") has been created and is now pending for confirmation.")
+                .template(NotificationTemplate.ORDER_CREATED, savedOrder.getId())
                 .build();
         notificationService.createPersonalNotification(customerNotificationRequest);
 
@@ -127,6 +148,29 @@ public class OrderService {
         return orderMapper.toOrderResponse(savedOrder);
     }
 
+    /**
+     * Report the items of a placed (or cancelled) order to the trending-books counters.
+     * @param order order with its items
+     * @param placed true when the order was created, false when it was cancelled
+     */
+    private void reportToTrending(Order order, boolean placed) {
+        List<Long> bookIds = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            bookIds.add(item.getBook().getId());
+            quantities.add(item.getQuantity());
+        }
+        if (placed) {
+            trendingBooksEngine.recordPlaced(order.getId(), order.getCreatedAt(), bookIds, quantities);
+        } else {
+            trendingBooksEngine.recordCancelled(order.getId(), order.getCreatedAt(), bookIds, quantities);
+        }
+    }
+
+    private long countItems(Order order) {
+        return order.getOrderItems().stream().mapToLong(OrderItem::getQuantity).sum();
+    }
+
     /**
      * Get order by id
      * @param id
@@ -139,9 +183,10 @@ public class OrderService {
     }
 
     public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAllActiveOrders().stream()
+        List<OrderResponse> orders = orderRepository.findAllActiveOrders().stream()
                 .map(orderMapper::toOrderResponse)
                 .collect(Collectors.toList());
+        return withArchived(orders, archiveService.findArchivedOrders(null));
     }
 
     public List<OrderResponse> getMyOrders() {
@@ -149,15 +194,58 @@ public class OrderService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
-        return orderRepository.findByUserId(user.getId()).stream()
+        List<OrderResponse> orders = orderRepository.findByUserIdWithItems(user.getId()).stream()
                 .map(orderMapper::toOrderResponse)
                 .collect(Collectors.toList());
+        return withArchived(orders, archiveService.findArchivedOrders(user.getId(), user.getUsername()));
+    }
+
+    /**
+     * Add the old orders moved out of the order table by ArchiveService, listed as if they were never moved.
+     * @param orders live orders, newest first
+     * @param archived archived orders
+     * @return all orders, newest first
+     */
+    private List<OrderResponse> withArchived(List<OrderResponse> orders, List<OrderResponse> archived) {
+        if (!archived.isEmpty()) {
+            orders.addAll(archived);
+            orders.sort(Comparator.comparing(OrderResponse::getCreatedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+        }
+        return orders;
+    }
+
+    /**
+     * Order summary of the current customer (spend, delivered orders, items, last order date).
+     * Single primary-key lookup on customer_summary.
+     * @return CustomerSummaryResponse, all zeros for a customer without orders
+     */
+    public CustomerSummaryResponse getMySummary() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+
+        return customerSummaryRepository.findById(user.getId())
+                .map(summary -> CustomerSummaryResponse.builder()
+                        .userId(summary.getUserId())
+                        .totalSpent(summary.getTotalSpent())
+                        .orderCount(summary.getOrderCount())
+                        .lifetimeItems(summary.getLifetimeItems())
+                        .lastOrderAt(summary.getLastOrderAt())
+                        .build())
+                .orElseGet(() -> CustomerSummaryResponse.builder()
+                        .userId(user.getId())
+                        .totalSpent(0.0)
+                        .orderCount(0)
+                        .lifetimeItems(0L)
+                        .build());
     }
 
     public List<OrderResponse> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status).stream()
+        List<OrderResponse> orders = orderRepository.findByStatus(status).stream()
                 .map(orderMapper::toOrderResponse)
                 .collect(Collectors.toList());
+        return withArchived(orders, archiveService.findArchivedOrders(status));
     }
 
     /**
@@ -188,7 +276,7 @@ public class OrderService {
                         NotificationCreationRequest notificationRequest = NotificationCreationRequest.builder()
                                 .targetUserId(order.getUser().getId())
                                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                                .content("Your order (ID: " + order.getId() + ") has been confirmed.")
+                                .template(NotificationTemplate.ORDER_CONFIRMED, order.getId())
                                 .build();
                         notificationService.createPersonalNotification(notificationRequest);
                     }
@@ -200,7 +288,7 @@ public class OrderService {
                         NotificationCreationRequest notificationRequest = NotificationCreationRequest.builder()
                                 .targetUserId(order.getUser().getId())
                                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                                .content("Your order (ID: " + order.getId() + ") is being processed.")
+                                .template(NotificationTemplate.ORDER_PROCESSING, order.getId())
                                 .build();
                         notificationService.createPersonalNotification(notificationRequest);
                     }
@@ -222,7 +310,7 @@ public class OrderService {
                             NotificationCreationRequest notificationRequest = NotificationCreationRequest.builder()
                                     .targetUserId(order.getUser().getId())
                                     .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                                    .content("Your order (ID: " + order.getId() + ") is out for delivery (DELIVERING) and cannot be cancelled now.")
+                                    .template(NotificationTemplate.ORDER_DELIVERING, order.getId())
                                     .build();
                             notificationService.createPersonalNotification(notificationRequest);
                         }
@@ -243,9 +331,17 @@ public class OrderService {
                         NotificationCreationRequest notificationRequest = NotificationCreationRequest.builder()
                                 .targetUserId(order.getUser().getId())
                                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                                .content("Your order (ID: " + order.getId() + ") has been delivered by shipper.")
+                                .template(NotificationTemplate.ORDER_DELIVERED, order.getId())
                                 .build();
                         notificationService.createPersonalNotification(notificationRequest);
+
+                        customerSummaryRepository.addDelivered(order.getUser().getId(),
+                                order.getTotalAmount(), 1, countItems(order));
+
+                        // feed the co-purchase counts behind /api/books/{id}/also-bought
+                        alsoBoughtEngine.recordDelivered(order.getId(), order.getOrderItems().stream()
+                                .map(item -> item.getBook().getId())
+                                .collect(Collectors.toList()));
                     }
                     break;
 //                case DELIVERED:
@@ -300,6 +396,7 @@ public class OrderService {
         order.setStatus(OrderStatus.CANCELLED);
 
         Order updatedOrder = orderRepository.save(order);
+        reportToTrending(updatedOrder, false);
 
         // chek if the order has payment status = SUCCESS
         // if so, notify staffs and admin to process refund
@@ -339,7 +436,7 @@ public class OrderService {
         NotificationCreationRequest customerNotificationRequest = NotificationCreationRequest.builder()
                 .targetUserId(user.getId())
                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                .content("Your order (ID: " + order.getId() + ") has been cancelled successfully.")
+                .template(NotificationTemplate.ORDER_CANCELLED, order.getId())
                 .build();
         notificationService.createPersonalNotification(customerNotificationRequest);
 
@@ -352,6 +449,7 @@ public class OrderService {
         // Find order with items
         Order order = orderRepository.findByIdWithItems(id)
                 .orElseThrow(() -> new AppException(ErrorCode.ORDER_NOT_FOUND));
+        OrderStatus previousStatus = order.getStatus();
 
 //        // check if the order status is in PENDING_PAYMENT/PENDING/CONFIRMED/PROCESSING/DELIVERING
 //        if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CONFIRMED &&
@@ -362,6 +460,14 @@ public class OrderService {
         order.setStatus(OrderStatus.CANCELLED);
 
         Order updatedOrder = orderRepository.save(order);
+        if (previousStatus != OrderStatus.CANCELLED) {
+            reportToTrending(updatedOrder, false);
+        }
+        // a delivered order no longer counts towards the customer's spend
+        if (previousStatus == OrderStatus.DELIVERED) {
+            customerSummaryRepository.addDelivered(order.getUser().getId(),
+                    -order.getTotalAmount(), -1, -countItems(order));
+        }
 
         // chek if the order has payment status = SUCCESS
         // if so, notify staffs and admin to process refund
@@ -375,6 +481,60 @@ public class OrderService {
         return orderMapper.toOrderResponse(updatedOrder);
     }
 
+    /**
+     * Cancel an order whose online payment expired unpaid (see PaymentExpiryHandler).
+     * Only an order still in PENDING_PAYMENT is cancelled; it goes through the same steps as any other
+     * cancellation: trending counters, refund of a successful payment, notifications.
+     * @param id order id
+     */
+    @Transactional
+    public void cancelUnpaidOrder(Long id) {
+        Order order = orderRepository.findByIdWithItems(id)
+                .orElseThrow(() -> new AppException(ErrorCode.ORDER_NOT_FOUND));
+        if (order.getStatus() != OrderStatus.PENDING_PAYMENT) {
+            return;
+        }
+
+        order.setStatus(OrderStatus.CANCELLED);
+
+        Order updatedOrder = orderRepository.save(order);
+        reportToTrending(updatedOrder, false);
+
+        // a payment that succeeded after all must be refunded
+        Payment payment = paymentRepository.findByOrderId(order.getId());
+        if (payment != null && payment.getStatus() == PaymentStatus.SUCCESS) {
+            payment.setStatus(PaymentStatus.REFUNDING);
+            paymentRepository.save(payment);
+        }
+
+        String contentNotification = "Order ID: " + order.getId() + " has been cancelled because its payment expired.";
+        if (payment != null && payment.getStatus() == PaymentStatus.REFUNDING) {
+            contentNotification += " The order had a successful payment, please process the refund.";
+        }
+
+        // send notification to all staffs about order cancellation
+        NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
+                .type(NotificationType.FOR_STAFFS)
+                .content(contentNotification)
+                .build();
+        notificationService.createBroadcastNotification(notificationRequest);
+
+        // send notification to all admins about order cancellation
+        NotificationBroadCastCreationRequest adminNotificationRequest = NotificationBroadCastCreationRequest.builder()
+                .type(NotificationType.FOR_ADMINS)
+                .content(contentNotification)
+                .build();
+        notificationService.createBroadcastNotification(adminNotificationRequest);
+
+        // send notification to the customer about order cancellation
+        NotificationCreationRequest customerNotificationRequest = NotificationCreationRequest.builder()
+                .targetUserId(order.getUser().getId())
+                .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
+                .template(NotificationTemplate.ORDER_CANCELLED, order.getId())
+                .build();
+        notificationService.createPersonalNotification(customerNotificationRequest);
+    }
+
 
     /**
      * Change address of current user's order. Only allowed if order status is PENDING.
@@ -409,22 +569,22 @@ public class OrderService {
         // send notification to all staffs about order address change
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Order ID: " + order.getId() + " address has been changed by the customer " + user.getUsername())
+                .template(NotificationTemplate.ORDER_ADDRESS_CHANGED, order.getId(), user.getUsername())
                 .build();
-        notificationService.createBroadcastNotification(notificationRequest);
+        notificationCoalescer.broadcast(notificationRequest, order.getId(), NotificationTemplate.ORDERS_ADDRESS_CHANGED);
 
         // send notification to all admins about order address change
         NotificationBroadCastCreationRequest adminNotificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Order ID: " + order.getId() + " address has been changed by the customer " + user.getUsername())
+                .template(NotificationTemplate.ORDER_ADDRESS_CHANGED, order.getId(), user.getUsername())
                 .build();
-        notificationService.createBroadcastNotification(adminNotificationRequest);
+        notificationCoalescer.broadcast(adminNotificationRequest, order.getId(), NotificationTemplate.ORDERS_ADDRESS_CHANGED);
 
         // send notification to current customer about order address change
         NotificationCreationRequest customerNotificationRequest = NotificationCreationRequest.builder()
                 .targetUserId(user.getId())
                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
-                .content("Your order (ID: " + order.getId() + ") address has been changed successfully.")
+                .template(NotificationTemplate.ORDER_ADDRESS_CHANGE_CONFIRMED, order.getId())
                 .build();
         notificationService.createPersonalNotification(customerNotificationRequest);
 
@@ -437,28 +597,29 @@ public class OrderService {
      * Get top 5 customers who have the highest total spending on orders
      * @return List<UserResponse>
      */
+    @Transactional(readOnly = true)
     public List<StatisticUserResponse> getTop5Customers() {
-        // find id of top 5 customers by total spending on orders
-        List<String> topCustomerIds = orderRepository.findTop5CustomerIdsByTotalSpending();
-
-        // fetch user details for each id
-        List<UserResponse> topCustomers = new ArrayList<>();
-        for (String userId : topCustomerIds) {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-            topCustomers.add(userMapper.toUserResponse(user));
-        }
+        // top 5 customers by total spending, read from the customer_summary leaderboard index
+        List<CustomerSummary> topSummaries = customerSummaryRepository.findTopBySpending(PageRequest.of(0, 5));
+
+        // fetch user details of all 5 customers in one query
+        Map<String, User> users = userRepository.findAllById(topSummaries.stream().map(CustomerSummary::getUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
 
-        // map to StatisticUserResponse with totalSpent
+        // map to StatisticUserResponse with totalSpent, keeping the leaderboard order
         List<StatisticUserResponse> statisticTopCustomers = new ArrayList<>();
-        for (UserResponse userResponse : topCustomers) {
-            Double totalSpent = orderRepository.findTotalSpentByUserId(userResponse.getId());
+        for (CustomerSummary summary : topSummaries) {
+            User user = users.get(summary.getUserId());
+            if (user == null) {
+                throw new AppException(ErrorCode.USER_NOT_FOUND);
+            }
             StatisticUserResponse statisticUserResponse = StatisticUserResponse.builder()
-                    .id(userResponse.getId())
-                    .username(userResponse.getUsername())
-                    .name(userResponse.getName())
-                    .image(userResponse.getImage())
-                    .totalSpent(totalSpent != null ? totalSpent : 0.0)
+                    .id(user.getId())
+                    .username(user.getUsername())
+                    .name(user.getName())
+                    .image(user.getImage())
+                    .totalSpent(summary.getTotalSpent())
                     .build();
             statisticTopCustomers.add(statisticUserResponse);
         }
@@ -471,9 +632,11 @@ public class OrderService {
      * Get top 5 best-selling books
      * @return List<StatisticBookResponse>
      */
+    @Transactional(readOnly = true)
     public List<StatisticBookResponse> getTop5Books() {
         // find id of top-selling books
         List<Long> topBookIds = orderRepository.findTopSellingBookIds();
+        Map<Long, Long> unitsSold = orderHistoryStatistics.unitsSoldPerBook();
 
         // fetch book details for each id
         List<StatisticBookResponse> statisticTopBooks = new ArrayList<>();
@@ -483,18 +646,8 @@ public class OrderService {
             Book book = bookRepository.findById(bookId)
                     .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
 
-            // calculate total sold for the book
-            Long totalSold = 0L;
-            List<Order> deliveredOrders = orderRepository.findAllActiveOrders().stream()
-                    .filter(o -> o.getStatus() == OrderStatus.DELIVERED)
-                    .toList();
-            for (Order order : deliveredOrders) {
-                for (OrderItem item : order.getOrderItems()) {
-                    if (item.getBook().getId().equals(bookId)) {
-                        totalSold += item.getQuantity();
-                    }
-                }
-            }
+            // total sold for the book
+            Long totalSold = unitsSold.getOrDefault(bookId, 0L);
 
             StatisticBookResponse statisticBookResponse = StatisticBookResponse.builder()
                     .id(book.getId())
@@ -514,6 +667,7 @@ public class OrderService {
      * Get total number of user who have role = CUSTOMER
      * @return Long
      */
+    @Transactional(readOnly = true)
     public Long getTotalCustomers() {
         // throw exception if there are no user entity store in DB
         if (userRepository.count() == 0) {
@@ -542,69 +696,47 @@ public class OrderService {
      * Get total number of orders
      * @return Long
      */
+    @Transactional(readOnly = true)
     public Long getTotalOrders() {
-        return orderRepository.count();
+        return orderHistoryStatistics.countOrders();
     }
 
     /**
      * Get total revenue from all orders with status = DELIVERED
      * @return Double
      */
+    @Transactional(readOnly = true)
     public Double getTotalRevenue() {
         // check if there are no orders
-        if (orderRepository.count() == 0) {
+        if (orderHistoryStatistics.countOrders() == 0) {
             throw new AppException(ErrorCode.NO_ORDERS_STORED);
         }
 
-        // fetch all delivered orders
-        List<Order> deliveredOrders = orderRepository.findAllActiveOrders().stream()
-                .filter(o -> o.getStatus() == OrderStatus.DELIVERED)
-                .toList();
-
-        Double totalRevenue = 0.0;
-        for (Order order : deliveredOrders) {
-            totalRevenue += order.getTotalAmount();
-        }
-
-        return totalRevenue;
+        // sum of all delivered orders, live and archived
+        return orderHistoryStatistics.deliveredRevenue();
     }
 
     /**
      * Get sales over time (total sales each day)
      * @return
      */
+    @Transactional(readOnly = true)
     public List<StatisticSalesOverTimeResponse> getSalesOverTime() {
         // check if there are no orders
-        if (orderRepository.count() == 0) {
+        if (orderHistoryStatistics.countOrders() == 0) {
             throw new AppException(ErrorCode.NO_ORDERS_STORED);
         }
 
-        // fetch all delivered orders
-        List<Order> deliveredOrders = orderRepository.findAllActiveOrders().stream()
-                .filter(o -> o.getStatus() == OrderStatus.DELIVERED)
-                .toList();
-
-        // map of date string to total sales
-        java.util.Map<String, Double> salesMap = new java.util.HashMap<>();
-
-        for (Order order : deliveredOrders) {
-            String dateStr = order.getCreatedAt().toLocalDate().toString();
-            salesMap.put(dateStr, salesMap.getOrDefault(dateStr, 0.0) + order.getTotalAmount());
-        }
-
-        // convert map to list of StatisticSalesOverTimeResponse
+        // total sales of delivered orders per day, date ascending
         List<StatisticSalesOverTimeResponse> salesOverTimeList = new ArrayList<>();
-        for (java.util.Map.Entry<String, Double> entry : salesMap.entrySet()) {
+        for (Map.Entry<LocalDate, Double> entry : orderHistoryStatistics.deliveredSalesPerDay().entrySet()) {
             StatisticSalesOverTimeResponse response = StatisticSalesOverTimeResponse.builder()
-                    .date(LocalDate.parse(entry.getKey()))
+                    .date(entry.getKey())
                     .totalSales(Math.round(entry.getValue()))
                     .build();
             salesOverTimeList.add(response);
         }
 
-        // sort list by date ascending
-        salesOverTimeList.sort((a, b) -> a.getDate().compareTo(b.getDate()));
-
         return salesOverTimeList;
     }
 
@@ -612,30 +744,18 @@ public class OrderService {
      * Get orders over time (total number of orders each day)
      * @return List<StatisticSalesOverTimeResponse>
      */
+    @Transactional(readOnly = true)
     public List<StatisticSalesOverTimeResponse> getOrdersOverTime() {
-        List<Order> allOrders = orderRepository.findAllActiveOrders();
-
-        // map of date string to total orders
-        java.util.Map<String, Long> ordersMap = new java.util.HashMap<>();
-
-        for (Order order : allOrders) {
-            String dateStr = order.getCreatedAt().toLocalDate().toString();
-            ordersMap.put(dateStr, ordersMap.getOrDefault(dateStr, 0L) + 1);
-        }
-
-        // convert map to list of StatisticSalesOverTimeResponse
+        // number of orders per day, date ascending
         List<StatisticSalesOverTimeResponse> ordersOverTimeList = new ArrayList<>();
-        for (java.util.Map.Entry<String, Long> entry : ordersMap.entrySet()) {
+        for (Map.Entry<LocalDate, Long> entry : orderHistoryStatistics.ordersPerDay().entrySet()) {
             StatisticSalesOverTimeResponse response = StatisticSalesOverTimeResponse.builder()
-                    .date(LocalDate.parse(entry.getKey()))
+                    .date(entry.getKey())
                     .totalSales(entry.getValue())
                     .build();
             ordersOverTimeList.add(response);
         }
 
-        // sort list by date ascending
-        ordersOverTimeList.sort((a, b) -> a.getDate().compareTo(b.getDate()));
-
         return ordersOverTimeList;
     }
 
@@ -644,40 +764,16 @@ public class OrderService {
      * Get total of each status
      * @return
      */
+    @Transactional(readOnly = true)
     public StatisticOrderStatusResponse getOrdersStatus() {
-        List<Order> allOrders = orderRepository.findAllActiveOrders();
-
-        Long pending = 0L;
-        Long confirmed = 0L;
-        Long processing = 0L;
-        Long delivering = 0L;
-        Long delivered = 0L;
-        Long cancelled = 0L;
+        Map<OrderStatus, Long> counts = orderHistoryStatistics.ordersPerStatus();
 
-        for (Order order : allOrders) {
-            switch (order.getStatus()) {
-                case PENDING, PENDING_PAYMENT:
-                    pending++;
-                    break;
-                case CONFIRMED:
-                    confirmed++;
-                    break;
-                case PROCESSING:
-                    processing++;
-                    break;
-                case DELIVERING:
-                    delivering++;
-                    break;
-                case DELIVERED:
-                    delivered++;
-                    break;
-                case CANCELLED:
-                    cancelled++;
-                    break;
-                default:
-                    // do nothing for other statuses
-            }
-        }
+        Long pending = counts.getOrDefault(OrderStatus.PENDING, 0L) + counts.getOrDefault(OrderStatus.PENDING_PAYMENT, 0L);
+        Long confirmed = counts.getOrDefault(OrderStatus.CONFIRMED, 0L);
+        Long processing = counts.getOrDefault(OrderStatus.PROCESSING, 0L);
+        Long delivering = counts.getOrDefault(OrderStatus.DELIVERING, 0L);
+        Long delivered = counts.getOrDefault(OrderStatus.DELIVERED, 0L);
+        Long cancelled = counts.getOrDefault(OrderStatus.CANCELLED, 0L);
 
         return StatisticOrderStatusResponse.builder()
                 .pending(pending)
@@ -693,25 +789,11 @@ public class OrderService {
      * Get total sold of each book. Sort by total sold descending
      * @return
      */
+    @Transactional(readOnly = true)
     public List<StatisticTotalSoldResponse> getTotalBooksSold() {
-        // fetch all delivered orders
-        List<Order> deliveredOrders = orderRepository.findAllActiveOrders().stream()
-                .filter(o -> o.getStatus() == OrderStatus.DELIVERED)
-                .toList();
-
-        // map of bookId to total sold
-        java.util.Map<Long, Long> totalSoldMap = new java.util.HashMap<>();
-
-        for (Order order : deliveredOrders) {
-            for (OrderItem item : order.getOrderItems()) {
-                Long bookId = item.getBook().getId();
-                totalSoldMap.put(bookId, totalSoldMap.getOrDefault(bookId, 0L) + item.getQuantity());
-            }
-        }
-
-        // convert map to list of StatisticTotalSoldResponse
+        // units sold per book in delivered orders, total sold descending
         List<StatisticTotalSoldResponse> totalSoldList = new ArrayList<>();
-        for (java.util.Map.Entry<Long, Long> entry : totalSoldMap.entrySet()) {
+        for (Map.Entry<Long, Long> entry : orderHistoryStatistics.unitsSoldPerBook().entrySet()) {
             StatisticTotalSoldResponse response = StatisticTotalSoldResponse.builder()
                     .bookId(entry.getKey())
                     .totalSold(entry.getValue())
@@ -719,9 +801,6 @@ public class OrderService {
             totalSoldList.add(response);
         }
 
-        // sort list by total sold descending
-        totalSoldList.sort((a, b) -> b.getTotalSold().compareTo(a.getTotalSold()));
-
         return totalSoldList;
     }
 }
@@ -7,6 +7,7 @@ import com.swp391.bookverse.dto.response.PaymentResponse;
 import com.swp391.bookverse.dto.response.VNPayURLResponse;
 import com.swp391.bookverse.entity.Order;
 import com.swp391.bookverse.entity.Payment;
+import com.swp391.bookverse.enums.DelayedTaskType;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.enums.OrderStatus;
 import com.swp391.bookverse.enums.PaymentMethod;
@@ -17,10 +18,13 @@ import com.swp391.bookverse.mapper.PaymentMapper;
 import com.swp391.bookverse.repository.OrderRepository;
 import com.swp391.bookverse.repository.PaymentRepository;
 import com.swp391.bookverse.repository.UserRepository;
+import com.swp391.bookverse.service.task.DelayedTaskScheduler;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +42,11 @@ public class PaymentService {
     UserRepository userRepository;
     PaymentMapper paymentMapper;
     NotificationService notificationService;
+    DelayedTaskScheduler delayedTaskScheduler;
+
+    @NonFinal
+    @Value("${bookverse.payment.expiry-minutes:30}")
+    long expiryMinutes;
 
     /**
      * Create payment record for an order. Only the current user can create payment for their own order.
@@ -94,6 +103,12 @@ public class PaymentService {
         Payment savedPayment = paymentRepository.save(payment);
         orderRepository.save(order);
 
+        // an online payment not completed in time is given up (PaymentExpiryHandler)
+        if (savedPayment.getMethod() != PaymentMethod.COD) {
+            delayedTaskScheduler.schedule(DelayedTaskType.PAYMENT_EXPIRY, String.valueOf(order.getId()),
+                    savedPayment.getCreatedAt().plusMinutes(expiryMinutes));
+        }
+
         log.info("Payment created for order {}: {} - {}", request.getOrderId(), payment.getMethod(), payment.getStatus());
 
         return PaymentResponse.builder()
@@ -118,6 +133,9 @@ public class PaymentService {
         if (status == PaymentStatus.SUCCESS) {
             payment.setPaidAt(LocalDateTime.now());
         }
+        if (status != PaymentStatus.PENDING) {
+            delayedTaskScheduler.cancel(DelayedTaskType.PAYMENT_EXPIRY, String.valueOf(orderId));
+        }
 
         Payment updatedPayment = paymentRepository.save(payment);
         log.info("Payment status updated for order {}: {}", orderId, status);
@@ -232,6 +250,7 @@ public class PaymentService {
         payment.setStatus(PaymentStatus.SUCCESS);
         payment.setPaidAt(LocalDateTime.now());
         Payment updatedPayment = paymentRepository.save(payment);
+        delayedTaskScheduler.cancel(DelayedTaskType.PAYMENT_EXPIRY, String.valueOf(payment.getOrder().getId()));
 
         // send notification to user of the order
         String userId = updatedPayment.getOrder().getUser().getId();
@@ -7,12 +7,16 @@ import com.swp391.bookverse.dto.response.PromotionResponse;
 import com.swp391.bookverse.dto.response.SubCategoryResponse;
 import com.swp391.bookverse.entity.Promotion;
 import com.swp391.bookverse.entity.SubCategory;
+import com.swp391.bookverse.enums.DelayedTaskType;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.mapper.PromotionMapper;
 import com.swp391.bookverse.repository.PromotionRepository;
 import com.swp391.bookverse.repository.SubCategoryRepository;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import com.swp391.bookverse.service.task.DelayedTaskScheduler;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -32,6 +36,8 @@ public class PromotionService {
     PromotionMapper promotionMapper;
     SubCategoryRepository subCategoryRepository;
     NotificationService notificationService;
+    PricingEngine pricingEngine;
+    DelayedTaskScheduler delayedTaskScheduler;
 
     /**
      * Create a new promotion. Only admins can perform this action.
@@ -56,11 +62,13 @@ public class PromotionService {
         // send notification to all admins
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("New promotion created: " + promotion.getContent())
+                .template(NotificationTemplate.PROMOTION_ADDED, promotion.getContent())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
-        return promotionMapper.toPromotionResponse(promotionRepository.save(promotion));
+        Promotion savedPromotion = promotionRepository.save(promotion);
+        scheduleBoundaries(savedPromotion);
+        return promotionMapper.toPromotionResponse(savedPromotion);
     }
 
     public PromotionResponse getPromotionById(Long id) {
@@ -121,11 +129,14 @@ public class PromotionService {
         // send notification to all admins
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Promotion updated: " + existingPromotion.getContent())
+                .template(NotificationTemplate.PROMOTION_UPDATED, existingPromotion.getContent())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
-        return promotionMapper.toPromotionResponse(promotionRepository.save(existingPromotion));
+        PromotionResponse response = promotionMapper.toPromotionResponse(promotionRepository.save(existingPromotion));
+        pricingEngine.promotionChanged(id);
+        scheduleBoundaries(existingPromotion);
+        return response;
     }
 
     @Transactional
@@ -134,6 +145,7 @@ public class PromotionService {
             throw new AppException(ErrorCode.PROMOTION_NOT_FOUND);
         }
         promotionRepository.deleteById(id);
+        pricingEngine.promotionChanged(id);
     }
 
     /**
@@ -152,18 +164,20 @@ public class PromotionService {
         String status = b ? "active" : "inactive";
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Promotion " + status + ": " + promotion.getContent())
+                .template(NotificationTemplate.PROMOTION_STATUS_CHANGED, status, promotion.getContent())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification to all staffs
         NotificationBroadCastCreationRequest staffNotificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Promotion " + status + ": " + promotion.getContent())
+                .template(NotificationTemplate.PROMOTION_STATUS_CHANGED, status, promotion.getContent())
                 .build();
         notificationService.createBroadcastNotification(staffNotificationRequest);
 
-        return promotionMapper.toPromotionResponse(promotionRepository.save(promotion));
+        PromotionResponse response = promotionMapper.toPromotionResponse(promotionRepository.save(promotion));
+        pricingEngine.promotionChanged(id);
+        return response;
     }
 
 
@@ -186,4 +200,21 @@ public class PromotionService {
                 .map(promotionMapper::toSubCategoryResponse)
                 .toList();
     }
+
+    /**
+     * Recompute prices when the promotion starts and the day after it ends.
+     * Tasks left over from earlier dates still fire, which only recomputes the same prices.
+     */
+    private void scheduleBoundaries(Promotion promotion) {
+        LocalDate today = LocalDate.now();
+        LocalDate afterEnd = promotion.getEndDate().plusDays(1);
+        if (promotion.getStartDate().isAfter(today)) {
+            delayedTaskScheduler.schedule(DelayedTaskType.PROMOTION_BOUNDARY,
+                    promotion.getId() + ":" + promotion.getStartDate(), promotion.getStartDate().atStartOfDay());
+        }
+        if (afterEnd.isAfter(today)) {
+            delayedTaskScheduler.schedule(DelayedTaskType.PROMOTION_BOUNDARY,
+                    promotion.getId() + ":" + afterEnd, afterEnd.atStartOfDay());
+        }
+    }
 }
@@ -7,6 +7,7 @@ import com.swp391.bookverse.dto.request.PublisherUpdateRequest;
 import com.swp391.bookverse.dto.response.PublisherResponse;
 import com.swp391.bookverse.dto.response.PublisherActiveResponse;
 import com.swp391.bookverse.entity.Publisher;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
@@ -41,14 +42,14 @@ public class PublisherService {
         // send notification to all admins
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("New publisher created: " + publisher.getName())
+                .template(NotificationTemplate.PUBLISHER_ADDED, publisher.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification to all staffs
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("New publisher created: " + publisher.getName())
+                .template(NotificationTemplate.PUBLISHER_ADDED, publisher.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
@@ -93,14 +94,14 @@ public class PublisherService {
         // send notification to all admins
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Publisher updated: " + updatedPublisher.getName())
+                .template(NotificationTemplate.PUBLISHER_UPDATED, updatedPublisher.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification to all staffs
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Publisher updated: " + updatedPublisher.getName())
+                .template(NotificationTemplate.PUBLISHER_UPDATED, updatedPublisher.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
@@ -123,14 +124,14 @@ public class PublisherService {
         // send notification to all admins
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Publisher " + (isActive ? "active: " : "inactive: ") + existingPublisher.getName())
+                .template(NotificationTemplate.PUBLISHER_STATUS_CHANGED, isActive ? "active" : "inactive", existingPublisher.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification to all staffs
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Publisher " + (isActive ? "active: " : "inactive: ") + existingPublisher.getName())
+                .template(NotificationTemplate.PUBLISHER_STATUS_CHANGED, isActive ? "active" : "inactive", existingPublisher.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
         
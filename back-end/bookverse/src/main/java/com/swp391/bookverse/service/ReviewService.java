@@ -7,6 +7,7 @@ import com.swp391.bookverse.dto.response.ReviewResponse;
 import com.swp391.bookverse.entity.Book;
 import com.swp391.bookverse.entity.Review;
 import com.swp391.bookverse.entity.User;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
@@ -17,11 +18,19 @@ import com.swp391.bookverse.repository.UserRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @Author huangdat
@@ -43,6 +52,7 @@ public class ReviewService {
      * @return ReviewResponse
      */
     @PreAuthorize("hasAuthority('SCOPE_CUSTOMER')")
+    @Transactional
     public ReviewResponse createReview(ReviewCreationRequest request) {
         // Get current authenticated user
         User user = userRepository.findByUsername(
@@ -67,9 +77,14 @@ public class ReviewService {
 
         // Save the review
         Review savedReview = reviewRepository.save(review);
+        bookRepository.incrementReviewCount(book.getId(),
+                savedReview.getCreatedAt() != null ? savedReview.getCreatedAt() : LocalDateTime.now());
 
         // Map and return response
-        return reviewMapper.toReviewResponse(savedReview);
+        ReviewResponse response = reviewMapper.toReviewResponse(savedReview);
+        response.setUsername(user.getUsername());
+        response.setName(user.getName());
+        return response;
     }
 
     /**
@@ -77,51 +92,52 @@ public class ReviewService {
      * @param bookId
      * @return List of ReviewResponse
      */
+    @Transactional(readOnly = true)
     public List<ReviewResponse> getReviewsByBookId(Long bookId) {
+        return getReviewsByBookId(bookId, null, null);
+    }
+
+    /**
+     * Get one page of reviews for a specific book, newest first.
+     * Reviews and reviewer names are loaded with a single join query.
+     * @param bookId
+     * @param page zero-based page index, defaults to 0
+     * @param size page size, null returns every review
+     * @return List of ReviewResponse
+     */
+    @Transactional(readOnly = true)
+    public List<ReviewResponse> getReviewsByBookId(Long bookId, Integer page, Integer size) {
         // Verify the book exists
         if (!bookRepository.existsById(bookId)) {
             throw new AppException(ErrorCode.BOOK_NOT_FOUND);
         }
 
-        // Retrieve reviews for the book
-        List<Review> reviews = reviewRepository.findByBookId(bookId);
-
-        // Map and return responses
-        List<ReviewResponse> listReviewResponse = reviewMapper.toReviewResponseList(reviews);
-        // also map username and name for each review
-        for (ReviewResponse reviewResponse : listReviewResponse) {
-            User user = userRepository.findById(reviewResponse.getUserId())
-                    .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-            reviewResponse.setUsername(user.getUsername());
-            reviewResponse.setName(user.getName());
-        }
-        return listReviewResponse;
+        Pageable pageable = size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page == null ? 0 : Math.max(page, 0), Math.max(size, 1));
+        return reviewRepository.findResponsesByBookId(bookId, pageable);
     }
 
     /**
      * Get all reviews in the system.
+     * Uses two queries in total (books, reviews joined with users) regardless of how many reviews exist.
      * @return List of ReviewOfBookResponse
      */
+    @Transactional(readOnly = true)
     public List<ReviewOfBookResponse> getAllReviews() {
         List<Book> books = bookRepository.findAll();
-        return books.stream().map(book -> {
-            List<Review> reviews = reviewRepository.findByBookId(book.getId());
-            List<ReviewResponse> reviewResponses = reviewMapper.toReviewResponseList(reviews);
-            // also map username and name for each review
-            for (ReviewResponse reviewResponse : reviewResponses) {
-                User user = userRepository.findById(reviewResponse.getUserId())
-                        .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-                reviewResponse.setUsername(user.getUsername());
-                reviewResponse.setName(user.getName());
-            }
-            return ReviewOfBookResponse.builder()
-                    .bookId(book.getId())
-                    .bookTitle(book.getTitle())
-                    .reviews(reviewResponses)
-                    .build();
-        }).toList();
+        List<ReviewResponse> reviews = reviewRepository.findAllResponses();
+        Map<Long, List<ReviewResponse>> reviewsByBook = reviews.stream()
+                .collect(Collectors.groupingBy(ReviewResponse::getBookId, LinkedHashMap::new, Collectors.toList()));
+
+        return books.stream().map(book -> ReviewOfBookResponse.builder()
+                .bookId(book.getId())
+                .bookTitle(book.getTitle())
+                .reviews(reviewsByBook.getOrDefault(book.getId(), new ArrayList<>()))
+                .build()).toList();
     }
 
+    @Transactional
     public Boolean deleteReview(Long bookId) {
         // Get current authenticated user
         User user = userRepository.findByUsername(
@@ -136,10 +152,12 @@ public class ReviewService {
 
         // Delete the review
         reviewRepository.delete(review);
+        bookRepository.refreshReviewSummary(bookId);
         return true;
     }
 
     @PreAuthorize("hasAuthority('SCOPE_ADMIN') or hasAuthority('SCOPE_STAFF')")
+    @Transactional
     public Boolean deleteReviewByAdminStaff(ReviewDeletionRequest request, Long bookId) {
         // Find the review by user ID and book ID
         Review review = reviewRepository.findByUserId(request.getUserId()).stream()
@@ -149,12 +167,13 @@ public class ReviewService {
 
         // Delete the review
         reviewRepository.delete(review);
+        bookRepository.refreshReviewSummary(bookId);
 
         // send notification to the user whose review is deleted
         NotificationCreationRequest notificationRequest = NotificationCreationRequest.builder()
                 .type(NotificationType.FOR_CUSTOMERS_PERSONAL)
                 .targetUserId(request.getUserId())
-                .content("Your review for book ID " + bookId + " has been deleted by an admin/staff.")
+                .template(NotificationTemplate.REVIEW_DELETED, bookId)
                 .build();
         notificationService.createPersonalNotification(notificationRequest);
 
@@ -189,8 +208,7 @@ public class ReviewService {
         response.setUsername(user.getUsername());
         response.setName(user.getName());
 
-        // Map and return response
-        return reviewMapper.toReviewResponse(updatedReview);
+        return response;
     }
 
     public Boolean isBookReviewedByUser(Long bookId) {
@@ -1,5 +1,6 @@
 package com.swp391.bookverse.service;
 
+import com.swp391.bookverse.dto.request.BulkActiveRequest;
 import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
 import com.swp391.bookverse.dto.request.SubCategoryCreationRequest;
 import com.swp391.bookverse.dto.response.BookResponse;
@@ -7,6 +8,7 @@ import com.swp391.bookverse.dto.response.SubCategoryResponse;
 import com.swp391.bookverse.entity.Book;
 import com.swp391.bookverse.entity.SubCategory;
 import com.swp391.bookverse.entity.SupCategory;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
@@ -14,10 +16,14 @@ import com.swp391.bookverse.mapper.SubCategoryMapper;
 import com.swp391.bookverse.repository.BookRepository;
 import com.swp391.bookverse.repository.SubCategoryRepository;
 import com.swp391.bookverse.repository.SupCategoryRepository;
+import com.swp391.bookverse.service.catalog.BookSampler;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import com.swp391.bookverse.service.storage.ImageStorageService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -32,6 +38,9 @@ public class SubCategoryService {
     SubCategoryRepository subCategoryRepository;
     SupCategoryRepository supCategoryRepository;
     BookRepository bookRepository;
+    BookSampler bookSampler;
+    PricingEngine pricingEngine;
+    ImageStorageService imageStorageService;
     NotificationService notificationService;
 
     public SubCategoryResponse createSubCategory(SubCategoryCreationRequest request) {
@@ -47,21 +56,21 @@ public class SubCategoryService {
         // send notification to admins about new sub-category creation
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("New sub-category '" + subCategory.getName() + "' has been created.")
+                .template(NotificationTemplate.SUB_CATEGORY_ADDED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send nofitifcation to staffs about new sub-category creation
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("New sub-category '" + subCategory.getName() + "' has been created.")
+                .template(NotificationTemplate.SUB_CATEGORY_ADDED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification to customers about new sub-category creation
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_CUSTOMERS)
-                .content("Check out our new sub-category: '" + subCategory.getName() + "'. Explore exciting books now!")
+                .template(NotificationTemplate.SUB_CATEGORY_FEATURED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
@@ -93,13 +102,17 @@ public class SubCategoryService {
                         .title(book.getTitle())
                         .description(book.getDescription())
                         .price(book.getPrice())
+                        .effectivePrice(pricingEngine.effectivePrice(book))
                         .authorId(book.getAuthor() != null ? book.getAuthor().getId() : null)
                         .publisherId(book.getPublisher() != null ? book.getPublisher().getId() : null)
                         .categoryId(book.getCategory() != null ? book.getCategory().getId() : null)
                         .stockQuantity(book.getStockQuantity())
                         .publishedDate(book.getPublishedDate())
                         .image(book.getImage())
+                        .thumbnail(imageStorageService.listingThumbnail(book.getImage()))
                         .active(book.getActive())
+                        .reviewCount(book.getReviewCount() == null ? 0 : book.getReviewCount())
+                        .lastReviewedAt(book.getLastReviewedAt())
                         .build())
                 .toList();
     }
@@ -126,18 +139,20 @@ public class SubCategoryService {
         }
 
         subCategoryRepository.save(subCategory);
+        bookRepository.refreshVisibilityBySubCategoryIds(List.of(subCategory.getId()));
+        bookSampler.invalidate();
 
         // send notification to admins about sub-category update
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Sub-category '" + subCategory.getName() + "' has been updated.")
+                .template(NotificationTemplate.SUB_CATEGORY_UPDATED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send nofitifcation to staffs about sub-category update
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Sub-category '" + subCategory.getName() + "' has been updated.")
+                .template(NotificationTemplate.SUB_CATEGORY_UPDATED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
@@ -208,23 +223,44 @@ public class SubCategoryService {
                 .toList();
     }
 
+    /**
+     * Activate or deactivate many sub-categories with one UPDATE, then refresh book.visible for their books.
+     * @param request sub-category ids and the new active status
+     * @return number of sub-categories changed
+     */
+    @Transactional
+    public int bulkChangeActiveSubCategories(BulkActiveRequest request) {
+        int updated = subCategoryRepository.setActiveByIds(request.getIds(), request.getActive());
+        bookRepository.refreshVisibilityBySubCategoryIds(request.getIds());
+        bookSampler.invalidate();
+
+        String status = request.getActive() ? "activated" : "deactivated";
+        notificationService.createBroadcastNotification(NotificationBroadCastCreationRequest.builder()
+                .type(NotificationType.FOR_STAFFS)
+                .template(NotificationTemplate.SUB_CATEGORIES_STATUS_CHANGED, updated, status)
+                .build());
+        return updated;
+    }
+
     public SubCategoryResponse activateSubCategory(Integer subCategoryId) {
         SubCategory subCategory = subCategoryRepository.findById(Long.valueOf(subCategoryId))
                 .orElseThrow(() -> new AppException(ErrorCode.SUBCATEGORY_NOT_FOUND));
         subCategory.setActive(true);
         subCategoryRepository.save(subCategory);
+        bookRepository.refreshVisibilityBySubCategoryIds(List.of(subCategory.getId()));
+        bookSampler.invalidate();
 
         // send notification to admins about sub-category activation
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Sub-category '" + subCategory.getName() + "' has been activated.")
+                .template(NotificationTemplate.SUB_CATEGORY_ACTIVATED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send nofitifcation to staffs about sub-category activation
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Sub-category '" + subCategory.getName() + "' has been activated.")
+                .template(NotificationTemplate.SUB_CATEGORY_ACTIVATED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
@@ -236,18 +272,20 @@ public class SubCategoryService {
                 .orElseThrow(() -> new AppException(ErrorCode.SUBCATEGORY_NOT_FOUND));
         subCategory.setActive(false);
         subCategoryRepository.save(subCategory);
+        bookRepository.refreshVisibilityBySubCategoryIds(List.of(subCategory.getId()));
+        bookSampler.invalidate();
 
         // send notification to admins about sub-category deactivation
         NotificationBroadCastCreationRequest notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("Sub-category '" + subCategory.getName() + "' has been deactivated.")
+                .template(NotificationTemplate.SUB_CATEGORY_DEACTIVATED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send nofitifcation to staffs about sub-category deactivation
         notificationRequest = NotificationBroadCastCreationRequest.builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("Sub-category '" + subCategory.getName() + "' has been deactivated.")
+                .template(NotificationTemplate.SUB_CATEGORY_DEACTIVATED, subCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
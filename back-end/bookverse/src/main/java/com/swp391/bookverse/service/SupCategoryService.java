@@ -1,6 +1,7 @@
 package com.swp391.bookverse.service;
 
 
+import com.swp391.bookverse.dto.request.BulkActiveRequest;
 import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
 import com.swp391.bookverse.dto.request.NotificationCreationRequest;
 import com.swp391.bookverse.dto.request.SupCategoryCreationRequest;
@@ -8,16 +9,20 @@ import com.swp391.bookverse.dto.response.SubCategoryResponse;
 import com.swp391.bookverse.dto.response.SupCategoryResponse;
 import com.swp391.bookverse.entity.SubCategory;
 import com.swp391.bookverse.entity.SupCategory;
+import com.swp391.bookverse.enums.NotificationTemplate;
 import com.swp391.bookverse.enums.NotificationType;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.mapper.SupCategoryMapper;
+import com.swp391.bookverse.repository.BookRepository;
 import com.swp391.bookverse.repository.SubCategoryRepository;
 import com.swp391.bookverse.repository.SupCategoryRepository;
+import com.swp391.bookverse.service.catalog.BookSampler;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -31,6 +36,8 @@ public class SupCategoryService {
     SupCategoryRepository supCategoryRepository;
     SupCategoryMapper supCategoryMapper;
     SubCategoryRepository subCategoryRepository;
+    BookRepository bookRepository;
+    BookSampler bookSampler;
     NotificationService notificationService;
 
     public SupCategoryResponse createSupCategory(SupCategoryCreationRequest request) {
@@ -49,14 +56,14 @@ public class SupCategoryService {
         // send notification about new sup category for admins
         NotificationBroadCastCreationRequest notificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("A new sup category '" + savedSupCategory.getName() + "' has been created.")
+                .template(NotificationTemplate.SUP_CATEGORY_ADDED, savedSupCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification about new sup category for staffs
         NotificationBroadCastCreationRequest staffNotificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("A new sup category '" + savedSupCategory.getName() + "' has been created.")
+                .template(NotificationTemplate.SUP_CATEGORY_ADDED, savedSupCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(staffNotificationRequest);
 
@@ -119,19 +126,21 @@ public class SupCategoryService {
         // send notification about sup category update for admins
         NotificationBroadCastCreationRequest notificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("The sup category '" + supCategory.getName() + "' has been updated.")
+                .template(NotificationTemplate.SUP_CATEGORY_UPDATED, supCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification about sup category update for staffs
         NotificationBroadCastCreationRequest staffNotificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("The sup category '" + supCategory.getName() + "' has been updated.")
+                .template(NotificationTemplate.SUP_CATEGORY_UPDATED, supCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(staffNotificationRequest);
 
         // save updated sup category to repository
         SupCategory updatedSupCategory = supCategoryRepository.save(supCategory);
+        bookRepository.refreshVisibilityBySupCategoryIds(List.of(updatedSupCategory.getId()));
+        bookSampler.invalidate();
         return supCategoryMapper.toSupCategoryResponse(updatedSupCategory);
     }
 
@@ -163,6 +172,26 @@ public class SupCategoryService {
                 .toList();
     }
 
+    /**
+     * Activate or deactivate many sup categories with one UPDATE, then refresh book.visible for their books.
+     * @param request sup category ids and the new active status
+     * @return number of sup categories changed
+     */
+    @Transactional
+    public int bulkChangeActiveSupCategories(BulkActiveRequest request) {
+        List<Integer> ids = request.getIds().stream().map(Long::intValue).toList();
+        int updated = supCategoryRepository.setActiveByIds(ids, request.getActive());
+        bookRepository.refreshVisibilityBySupCategoryIds(ids);
+        bookSampler.invalidate();
+
+        String status = request.getActive() ? "active" : "inactive";
+        notificationService.createBroadcastNotification(NotificationBroadCastCreationRequest.builder()
+                .type(NotificationType.FOR_STAFFS)
+                .template(NotificationTemplate.SUP_CATEGORIES_STATUS_CHANGED, updated, status)
+                .build());
+        return updated;
+    }
+
     /**
      * Activate a sup category by its ID
      * @param supCategoryId
@@ -176,18 +205,20 @@ public class SupCategoryService {
         supCategory.setActive(true);
         // save activated sup category to repository
         SupCategory activatedSupCategory = supCategoryRepository.save(supCategory);
+        bookRepository.refreshVisibilityBySupCategoryIds(List.of(activatedSupCategory.getId()));
+        bookSampler.invalidate();
 
         // send notification about sup category activation for admins
         NotificationBroadCastCreationRequest notificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("The sup category '" + activatedSupCategory.getName() + "' active.")
+                .template(NotificationTemplate.SUP_CATEGORY_ACTIVATED, activatedSupCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification about sup category activation for staffs
         NotificationBroadCastCreationRequest staffNotificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("The sup category '" + activatedSupCategory.getName() + "' active.")
+                .template(NotificationTemplate.SUP_CATEGORY_ACTIVATED, activatedSupCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(staffNotificationRequest);
 
@@ -204,19 +235,21 @@ public class SupCategoryService {
         // send notification about sup category deactivation for admins
         NotificationBroadCastCreationRequest notificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_ADMINS)
-                .content("The sup category '" + supCategory.getName() + "' inactive.")
+                .template(NotificationTemplate.SUP_CATEGORY_DEACTIVATED, supCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(notificationRequest);
 
         // send notification about sup category deactivation for staffs
         NotificationBroadCastCreationRequest staffNotificationRequest = new NotificationBroadCastCreationRequest().builder()
                 .type(NotificationType.FOR_STAFFS)
-                .content("The sup category '" + supCategory.getName() + "' inactive.")
+                .template(NotificationTemplate.SUP_CATEGORY_DEACTIVATED, supCategory.getName())
                 .build();
         notificationService.createBroadcastNotification(staffNotificationRequest);
 
         // save deactivated sup category to repository
         SupCategory deactivatedSupCategory = supCategoryRepository.save(supCategory);
+        bookRepository.refreshVisibilityBySupCategoryIds(List.of(deactivatedSupCategory.getId()));
+        bookSampler.invalidate();
         return supCategoryMapper.toSupCategoryResponse(deactivatedSupCategory);
     }
 }
@@ -10,23 +10,18 @@ import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.mapper.UserMapper;
 import com.swp391.bookverse.repository.UserRepository;
+import com.swp391.bookverse.service.storage.ImageStorageService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -37,10 +32,12 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
 public class UserService {
     UserRepository userRepository;
     UserMapper userMapper;
-    PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+    PasswordHashingService passwordHashingService;
+    ImageStorageService imageStorageService;
 
     /**
      * Creates a new user in the system.
@@ -57,7 +54,7 @@ public class UserService {
 
         // Create a new User entity with encoded password
         User user = userMapper.toUser(request);
-        user.setPassword(passwordEncoder.encode((request.getPassword())));
+        user.setPassword(passwordHashingService.encode((request.getPassword())));
 
 
         // Set default role USER
@@ -104,7 +101,7 @@ public class UserService {
 
         // Create a new User entity with encoded password
         User user = userMapper.toUser(request);
-        user.setPassword(passwordEncoder.encode((request.getPassword())));
+        user.setPassword(passwordHashingService.encode((request.getPassword())));
         // Set default role USER
         HashSet<String> roles = new HashSet<>();
         roles.add(Role.CUSTOMER.name());
@@ -175,13 +172,13 @@ public class UserService {
         // Handle image upload or URL
         if (imageFile != null && !imageFile.isEmpty()) {
             // User uploaded a file - use same helper as updateUser()
-            String imagePath = handleImageUpload(imageFile, "avatar");
+            String imagePath = imageStorageService.store(imageFile, "avatar");
             existingUser.setImage(imagePath);
-            System.out.println("✅ Customer updated with uploaded file: " + imagePath);
+            log.debug("Customer updated with uploaded file: {}", imagePath);
         } else if (imageUrl != null && !imageUrl.isEmpty()) {
             // Use provided URL directly
             existingUser.setImage(imageUrl);
-            System.out.println("✅ Customer updated with image URL: " + imageUrl);
+            log.debug("Customer updated with image URL: {}", imageUrl);
         }
 
         return userMapper.toUserResponse(userRepository.save(existingUser));
@@ -201,7 +198,7 @@ public class UserService {
         userMapper.updateUser(request, existingUser);
 
         // encoding password
-        existingUser.setPassword(passwordEncoder.encode(existingUser.getPassword()));
+        existingUser.setPassword(passwordHashingService.encode(existingUser.getPassword()));
 
         return userMapper.toUserResponse(userRepository.save(existingUser));
     }
@@ -313,7 +310,7 @@ public class UserService {
         User existingUser = userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
         // Encode the new password
-        existingUser.setPassword(passwordEncoder.encode(newPassword));
+        existingUser.setPassword(passwordHashingService.encode(newPassword));
 
         return userMapper.toUserResponse(userRepository.save(existingUser));
     }
@@ -326,89 +323,20 @@ public class UserService {
         User existingUser = userRepository.findByUsername(contextName).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
         // Check if the old password matches
-        if (!passwordEncoder.matches(request.getOldPassword(), existingUser.getPassword())) {
+        if (!passwordHashingService.matches(request.getOldPassword(), existingUser.getPassword())) {
             throw new AppException(ErrorCode.INVALID_OLD_PASSWORD);
         }
 
         // check if the old password is the same as the new password
-        if (passwordEncoder.matches(request.getNewPassword(), existingUser.getPassword())) {
+        if (passwordHashingService.matches(request.getNewPassword(), existingUser.getPassword())) {
             throw new AppException(ErrorCode.SAME_OLD_NEW_PASSWORD);
         }
         // Encode the new password and update
-        existingUser.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        existingUser.setPassword(passwordHashingService.encode(request.getNewPassword()));
         userRepository.save(existingUser);
         return true;
     }
 
-    /**
-     * Handle image upload and save to file system
-     * @param imageFile the uploaded image file
-     * @param folder the folder to save in (avatar, book, author, etc.)
-     * @return the database path (/src/assets/img/folder/filename.jpg)
-     */
-    private String handleImageUpload(MultipartFile imageFile, String folder) {
-        System.out.println("🔍 handleImageUpload called - imageFile: " + 
-            (imageFile != null ? imageFile.getOriginalFilename() + " (" + imageFile.getSize() + " bytes)" : "null"));
-        
-        if (imageFile == null || imageFile.isEmpty()) {
-            System.out.println("⚠️ Image file is null or empty, skipping upload");
-            return null;
-        }
-
-        try {
-            // Validate file type
-            String contentType = imageFile.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new AppException(ErrorCode.INVALID_FILE_TYPE);
-            }
-
-            // Validate file size (max 5MB)
-            if (imageFile.getSize() > 5 * 1024 * 1024) {
-                throw new AppException(ErrorCode.FILE_TOO_LARGE);
-            }
-
-            // Generate unique filename
-            String originalFilename = imageFile.getOriginalFilename();
-            if (originalFilename == null || originalFilename.isEmpty()) {
-                throw new AppException(ErrorCode.INVALID_FILE_NAME);
-            }
-
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            String cleanFilename = originalFilename.toLowerCase()
-                    .replaceAll("[^a-z0-9.]", "-")
-                    .replaceAll("-+", "-");
-            String filename = timestamp + "-" + cleanFilename;
-
-            // Create upload directory if not exists
-            // Use absolute path to avoid creating nested folders
-            String projectRoot = System.getProperty("user.dir")
-                    .replace("\\back-end\\bookverse", "")  // Windows
-                    .replace("/back-end/bookverse", "");    // Linux/Mac
-            String uploadDir = projectRoot + "/front-end/public/img/" + folder;
-            Path uploadPath = Paths.get(uploadDir);
-            
-            System.out.println("📁 Upload directory: " + uploadPath.toAbsolutePath());
-            
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                System.out.println("✅ Created directory: " + uploadPath.toAbsolutePath());
-            }
-
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return DB path
-            String dbPath = "/img/" + folder + "/" + filename;
-            System.out.println("✅ Image uploaded: " + dbPath);
-            return dbPath;
-
-        } catch (IOException e) {
-            System.err.println("❌ Image upload failed: " + e.getMessage());
-            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
-        }
-    }
-
     /**
      * Creates a new user with image upload support
      */
@@ -431,18 +359,18 @@ public class UserService {
         String imagePath = null;
         if (imageFile != null && !imageFile.isEmpty()) {
             // User uploaded a file
-            imagePath = handleImageUpload(imageFile, "avatar");
-            System.out.println("✅ Created with uploaded file: " + imagePath);
+            imagePath = imageStorageService.store(imageFile, "avatar");
+            log.debug("Created user with uploaded file: {}", imagePath);
         } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             // User provided a URL/path
             imagePath = imageUrl.trim();
-            System.out.println("✅ Created with image URL: " + imageUrl);
+            log.debug("Created user with image URL: {}", imageUrl);
         }
 
         // Create new user
         User user = new User();
         user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashingService.encode(password));
         user.setEmail(email);
         user.setName(name);
         user.setPhone(phone);
@@ -480,13 +408,13 @@ public class UserService {
         // Handle image update
         if (imageFile != null && !imageFile.isEmpty()) {
             // User uploaded a file
-            String imagePath = handleImageUpload(imageFile, "avatar");
+            String imagePath = imageStorageService.store(imageFile, "avatar");
             existingUser.setImage(imagePath);
-            System.out.println("✅ Updated with uploaded file: " + imagePath);
+            log.debug("Updated user with uploaded file: {}", imagePath);
         } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
             // User provided a URL/path
             existingUser.setImage(imageUrl.trim());
-            System.out.println("✅ Updated with image URL: " + imageUrl);
+            log.debug("Updated user with image URL: {}", imageUrl);
         }
 
         return userMapper.toUserResponse(userRepository.save(existingUser));
@@ -0,0 +1,237 @@
+package com.swp391.bookverse.service.archive;
+
+import com.swp391.bookverse.dto.response.OrderResponse;
+import com.swp391.bookverse.enums.OrderStatus;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves cold rows out of the live tables:
+ * - orders that are DELIVERED or CANCELLED and older than "bookverse.archive.order-months", with their items
+ *   and payment, to order_archive / order_item_archive / payment_archive;
+ * - read notifications older than "bookverse.archive.notification-months" to notification_archive.
+ * Rows are moved in batches of "bookverse.archive.batch-size", each batch in its own transaction
+ * (copy, then delete), so locks stay short and a failure only rolls back one batch.
+ * Archived orders are still listed by OrderService (my orders and the admin listings) through
+ * findArchivedOrders(). Statistics, best sellers, also-bought and customer_summary rebuilds read the
+ * order_history / order_item_history views, which cover the live and the archive tables.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class ArchiveService {
+    static String COLD_ORDERS = """
+            SELECT id FROM `order`
+            WHERE status IN ('DELIVERED', 'CANCELLED') AND created_at < :cutoff
+            ORDER BY id LIMIT :limit FOR UPDATE""";
+    static String[] ARCHIVE_ORDERS = {
+            """
+            INSERT INTO order_archive (id, user_id, status, total_amount, address, created_at, cancel_reason, active)
+            SELECT id, user_id, status, total_amount, address, created_at, cancel_reason, active
+            FROM `order` WHERE id IN (:ids)""",
+            """
+            INSERT INTO order_item_archive (id, order_id, book_id, quantity, price)
+            SELECT id, order_id, book_id, quantity, price FROM order_item WHERE order_id IN (:ids)""",
+            """
+            INSERT INTO payment_archive (id, order_id, method, status, amount, paid_at, created_at)
+            SELECT id, order_id, method, status, amount, paid_at, created_at FROM payment WHERE order_id IN (:ids)""",
+            "DELETE FROM payment WHERE order_id IN (:ids)",
+            "DELETE FROM order_item WHERE order_id IN (:ids)",
+            "DELETE FROM `order` WHERE id IN (:ids)"
+    };
+
+    static String COLD_NOTIFICATIONS = """
+            SELECT id FROM notification
+            WHERE is_read = true AND created_at < :cutoff
+            ORDER BY created_at LIMIT :limit FOR UPDATE""";
+    static String[] ARCHIVE_NOTIFICATIONS = {
+            """
+            INSERT INTO notification_archive (id, user_id, content, template_id, params, type, is_read, created_at)
+            SELECT id, user_id, content, template_id, params, type, is_read, created_at
+            FROM notification WHERE created_at < :cutoff AND id IN (:ids)""",
+            "DELETE FROM notification WHERE created_at < :cutoff AND id IN (:ids)"
+    };
+
+    static String ARCHIVED_ORDERS_OF_USER = """
+            SELECT o.id, o.status, o.total_amount, o.address, o.created_at, o.active,
+                   p.id AS payment_id, p.method, p.status AS payment_status, p.amount, p.paid_at
+            FROM order_archive o
+            LEFT JOIN payment_archive p ON p.order_id = o.id
+            WHERE o.user_id = UUID_TO_BIN(:userId) AND o.active = true
+            ORDER BY o.created_at DESC""";
+    static String ARCHIVED_ORDERS = """
+            SELECT o.id, BIN_TO_UUID(o.user_id) AS user_id, u.username, o.status, o.total_amount, o.address,
+                   o.created_at, o.active,
+                   p.id AS payment_id, p.method, p.status AS payment_status, p.amount, p.paid_at
+            FROM order_archive o
+            LEFT JOIN `user` u ON u.id = o.user_id
+            LEFT JOIN payment_archive p ON p.order_id = o.id
+            WHERE o.active = true AND (:status IS NULL OR o.status = :status)
+            ORDER BY o.created_at DESC""";
+    static String ARCHIVED_ITEMS = """
+            SELECT oi.id, oi.order_id, oi.book_id, b.title, oi.quantity, oi.price
+            FROM order_item_archive oi
+            LEFT JOIN book b ON b.id = oi.book_id
+            WHERE oi.order_id IN (:ids)
+            ORDER BY oi.id""";
+
+    NamedParameterJdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    boolean enabled;
+    int orderMonths;
+    int notificationMonths;
+    int batchSize;
+
+    public ArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${bookverse.archive.enabled:false}") boolean enabled,
+                          @Value("${bookverse.archive.order-months:12}") int orderMonths,
+                          @Value("${bookverse.archive.notification-months:3}") int notificationMonths,
+                          @Value("${bookverse.archive.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.orderMonths = orderMonths;
+        this.notificationMonths = notificationMonths;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${bookverse.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            long orders = moveInBatches(COLD_ORDERS, ARCHIVE_ORDERS, now.minusMonths(orderMonths));
+            long notifications = moveInBatches(COLD_NOTIFICATIONS, ARCHIVE_NOTIFICATIONS, now.minusMonths(notificationMonths));
+            if (orders > 0 || notifications > 0) {
+                log.info("Archived {} orders and {} read notifications", orders, notifications);
+            }
+        } catch (DataAccessException e) {
+            log.error("Archiving failed, will retry on the next run", e);
+        }
+    }
+
+    /**
+     * Archived orders of a user, newest first, in the same shape as live orders.
+     * @param userId user id
+     * @param userName username, copied into every response
+     * @return archived active orders, empty if the user has none
+     */
+    public List<OrderResponse> findArchivedOrders(String userId, String userName) {
+        return findArchivedOrders(ARCHIVED_ORDERS_OF_USER, new MapSqlParameterSource("userId", userId),
+                rs -> userId, rs -> userName);
+    }
+
+    /**
+     * Archived orders of every user, newest first, in the same shape as live orders (admin listings).
+     * @param status only orders with this status, null for all
+     * @return archived active orders
+     */
+    public List<OrderResponse> findArchivedOrders(OrderStatus status) {
+        return findArchivedOrders(ARCHIVED_ORDERS,
+                new MapSqlParameterSource("status", status == null ? null : status.name()),
+                rs -> rs.getString("user_id"), rs -> rs.getString("username"));
+    }
+
+    private List<OrderResponse> findArchivedOrders(String sql, MapSqlParameterSource params,
+                                                   RowMapper<String> userId, RowMapper<String> userName) {
+        Map<Long, OrderResponse> orders = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            OrderResponse order = OrderResponse.builder()
+                    .id(rs.getLong("id"))
+                    .userId(userId.mapRow(rs, 0))
+                    .userName(userName.mapRow(rs, 0))
+                    .status(OrderStatus.valueOf(rs.getString("status")))
+                    .totalAmount(rs.getDouble("total_amount"))
+                    .address(rs.getString("address"))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .active(rs.getBoolean("active"))
+                    .orderItems(new ArrayList<>())
+                    .payment(toPayment(rs))
+                    .build();
+            orders.put(order.getId(), order);
+        });
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+
+        jdbcTemplate.query(ARCHIVED_ITEMS, new MapSqlParameterSource("ids", orders.keySet()), rs -> {
+            long bookId = rs.getLong("book_id");
+            orders.get(rs.getLong("order_id")).getOrderItems().add(OrderResponse.OrderItemResponse.builder()
+                    .id(rs.getLong("id"))
+                    .bookId(rs.wasNull() ? null : bookId)
+                    .bookTitle(rs.getString("title"))
+                    .quantity(rs.getInt("quantity"))
+                    .price(rs.getDouble("price"))
+                    .build());
+        });
+        return new ArrayList<>(orders.values());
+    }
+
+    /**
+     * Repeat: lock up to batch-size ids with selectIds, run the statements on them, commit; until a batch
+     * comes back short.
+     * @return number of rows moved
+     */
+    private long moveInBatches(String selectIds, String[] statements, LocalDateTime cutoff) {
+        long total = 0;
+        int moved;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                MapSqlParameterSource params = new MapSqlParameterSource()
+                        .addValue("cutoff", Timestamp.valueOf(cutoff))
+                        .addValue("limit", batchSize);
+                List<Long> ids = jdbcTemplate.queryForList(selectIds, params, Long.class);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                params.addValue("ids", ids);
+                for (String statement : statements) {
+                    jdbcTemplate.update(statement, params);
+                }
+                return ids.size();
+            });
+            moved = count == null ? 0 : count;
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private static OrderResponse.PaymentResponse toPayment(ResultSet rs) throws SQLException {
+        long paymentId = rs.getLong("payment_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        return OrderResponse.PaymentResponse.builder()
+                .id(paymentId)
+                .method(rs.getString("method"))
+                .status(rs.getString("payment_status"))
+                .amount(rs.getDouble("amount"))
+                .paidAt(toLocalDateTime(rs.getTimestamp("paid_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
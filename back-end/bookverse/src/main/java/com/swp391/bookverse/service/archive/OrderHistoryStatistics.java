@@ -0,0 +1,114 @@
+package com.swp391.bookverse.service.archive;
+
+import com.swp391.bookverse.enums.OrderStatus;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Order statistics aggregated in the database over live and archived orders (order_history and
+ * order_item_history views, see V11), so archiving old orders does not change any figure.
+ * Only active orders are counted, except by countOrders().
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OrderHistoryStatistics {
+    static String COUNT_ORDERS = "SELECT COUNT(*) FROM order_history";
+    static String DELIVERED_REVENUE = """
+            SELECT COALESCE(SUM(total_amount), 0) FROM order_history
+            WHERE status = 'DELIVERED' AND active = true""";
+    static String DELIVERED_SALES_PER_DAY = """
+            SELECT DATE(created_at) AS day, SUM(total_amount) FROM order_history
+            WHERE status = 'DELIVERED' AND active = true AND created_at IS NOT NULL
+            GROUP BY day ORDER BY day""";
+    static String ORDERS_PER_DAY = """
+            SELECT DATE(created_at) AS day, COUNT(*) FROM order_history
+            WHERE active = true AND created_at IS NOT NULL
+            GROUP BY day ORDER BY day""";
+    static String ORDERS_PER_STATUS = """
+            SELECT status, COUNT(*) FROM order_history
+            WHERE active = true AND status IS NOT NULL
+            GROUP BY status""";
+    static String UNITS_SOLD_PER_BOOK = """
+            SELECT oi.book_id, SUM(oi.quantity) AS sold
+            FROM order_item_history oi
+            JOIN order_history o ON o.id = oi.order_id
+            WHERE o.status = 'DELIVERED' AND o.active = true AND oi.book_id IS NOT NULL
+            GROUP BY oi.book_id ORDER BY sold DESC""";
+
+    JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return number of orders, active or not
+     */
+    public long countOrders() {
+        Long count = jdbcTemplate.queryForObject(COUNT_ORDERS, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return total amount of the DELIVERED orders
+     */
+    public double deliveredRevenue() {
+        Double revenue = jdbcTemplate.queryForObject(DELIVERED_REVENUE, Double.class);
+        return revenue == null ? 0 : revenue;
+    }
+
+    /**
+     * @return total amount of the DELIVERED orders per day of creation, oldest first
+     */
+    public Map<LocalDate, Double> deliveredSalesPerDay() {
+        Map<LocalDate, Double> sales = new LinkedHashMap<>();
+        jdbcTemplate.query(DELIVERED_SALES_PER_DAY, rs -> {
+            sales.put(rs.getDate(1).toLocalDate(), rs.getDouble(2));
+        });
+        return sales;
+    }
+
+    /**
+     * @return number of orders per day of creation, oldest first
+     */
+    public Map<LocalDate, Long> ordersPerDay() {
+        Map<LocalDate, Long> orders = new LinkedHashMap<>();
+        jdbcTemplate.query(ORDERS_PER_DAY, rs -> {
+            orders.put(rs.getDate(1).toLocalDate(), rs.getLong(2));
+        });
+        return orders;
+    }
+
+    /**
+     * @return number of orders per status; statuses without orders are left out
+     */
+    public Map<OrderStatus, Long> ordersPerStatus() {
+        Map<OrderStatus, Long> orders = new EnumMap<>(OrderStatus.class);
+        jdbcTemplate.query(ORDERS_PER_STATUS, rs -> {
+            String status = rs.getString(1);
+            // the column also allows statuses the application no longer uses (RETURNED)
+            for (OrderStatus known : OrderStatus.values()) {
+                if (known.name().equals(status)) {
+                    orders.put(known, rs.getLong(2));
+                }
+            }
+        });
+        return orders;
+    }
+
+    /**
+     * @return units sold (DELIVERED orders) per book id, best seller first
+     */
+    public Map<Long, Long> unitsSoldPerBook() {
+        Map<Long, Long> sold = new LinkedHashMap<>();
+        jdbcTemplate.query(UNITS_SOLD_PER_BOOK, rs -> {
+            sold.put(rs.getLong(1), rs.getLong(2));
+        });
+        return sold;
+    }
+}
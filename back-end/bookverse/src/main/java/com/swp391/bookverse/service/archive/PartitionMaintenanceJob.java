@@ -0,0 +1,80 @@
+package com.swp391.bookverse.service.archive;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the tables partitioned by created_at (see V5 migration) ahead of time.
+ * Each table has one partition per month named pYYYYMM plus a catch-all pmax; this job splits pmax so that
+ * partitions exist up to "bookverse.archive.partitions.months-ahead" months from now.
+ * pmax is normally empty, so the split only rewrites the table definition.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PartitionMaintenanceJob {
+    static List<String> TABLES = List.of("notification", "notification_archive", "order_archive");
+    static DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    static String PARTITION_NAMES = """
+            SELECT partition_name FROM information_schema.partitions
+            WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL""";
+
+    JdbcTemplate jdbcTemplate;
+    int monthsAhead;
+
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate,
+                                   @Value("${bookverse.archive.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(initialDelayString = "${bookverse.archive.partitions.initial-delay-ms:60000}",
+            fixedDelayString = "${bookverse.archive.partitions.interval-ms:86400000}")
+    public void addUpcomingPartitions() {
+        YearMonth until = YearMonth.now().plusMonths(monthsAhead);
+        for (String table : TABLES) {
+            try {
+                addPartitionsUntil(table, until);
+            } catch (DataAccessException e) {
+                log.error("Failed to add partitions to {}", table, e);
+            }
+        }
+    }
+
+    private void addPartitionsUntil(String table, YearMonth until) {
+        List<String> names = jdbcTemplate.queryForList(PARTITION_NAMES, String.class, table);
+        if (!names.contains("pmax")) {
+            log.warn("Table {} is not partitioned by month, skipping", table);
+            return;
+        }
+        YearMonth last = names.stream()
+                .filter(name -> name.matches("p\\d{6}"))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .max(Comparator.naturalOrder())
+                .orElse(YearMonth.now().minusMonths(1));
+        if (!last.isBefore(until)) {
+            return;
+        }
+
+        StringBuilder partitions = new StringBuilder();
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(until); month = month.plusMonths(1)) {
+            partitions.append("PARTITION ").append(month.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+        }
+        jdbcTemplate.execute("ALTER TABLE `" + table + "` REORGANIZE PARTITION pmax INTO ("
+                + partitions + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+        log.info("Added partitions to {} up to {}", table, until);
+    }
+}
@@ -0,0 +1,152 @@
+package com.swp391.bookverse.service.auth.otp;
+
+import com.swp391.bookverse.entity.auth.otp.OtpToken;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OtpStore that keeps tokens in memory only. Suitable for a single instance deployment.
+ * - Only the latest token per email / user id is kept (same as "find top ... order by createdAt desc").
+ * - Expired tokens are evicted by a hashed time wheel with one-second slots, so each tick only looks at
+ *   the tokens scheduled for that second instead of scanning everything.
+ * - Sending is rate limited with a token bucket per email: "send-burst" codes at once, then one code
+ *   every "send-refill-seconds".
+ */
+@Component
+@ConditionalOnProperty(name = "bookverse.otp.store", havingValue = "memory")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InMemoryOtpStore implements OtpStore {
+    static int WHEEL_SLOTS = 512;
+
+    ConcurrentHashMap<String, OtpToken> byEmail = new ConcurrentHashMap<>();
+    ConcurrentHashMap<String, OtpToken> byUserId = new ConcurrentHashMap<>();
+    ConcurrentHashMap<String, Bucket> sendBuckets = new ConcurrentHashMap<>();
+    AtomicLong ids = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    Queue<OtpToken>[] wheel = new Queue[WHEEL_SLOTS];
+
+    double sendBurst;
+    long refillMillis;
+
+    public InMemoryOtpStore(@Value("${bookverse.otp.send-burst:1}") int sendBurst,
+                            @Value("${bookverse.otp.resend-cooldown-seconds:45}") long refillSeconds) {
+        this.sendBurst = Math.max(1, sendBurst);
+        this.refillMillis = Math.max(1, refillSeconds) * 1000;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public OtpToken save(OtpToken token) {
+        if (token.getId() == null) {
+            token.setId(ids.incrementAndGet());
+        }
+        byEmail.put(token.getEmail(), token);
+        if (token.getUserId() != null) {
+            byUserId.put(token.getUserId(), token);
+        }
+        wheel[slotOf(token.getExpiresAt().getEpochSecond())].add(token);
+        return token;
+    }
+
+    @Override
+    public Optional<OtpToken> findLatestUnusedByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email)).filter(t -> !t.isUsed());
+    }
+
+    @Override
+    public Optional<OtpToken> findLatestUnusedByUserId(String userId) {
+        return Optional.ofNullable(byUserId.get(userId)).filter(t -> !t.isUsed());
+    }
+
+    @Override
+    public void markUsed(OtpToken token) {
+        token.setUsed(true);
+        evict(token);
+    }
+
+    @Override
+    public boolean tryAcquireSendPermit(String email, Instant now) {
+        long nowMs = now.toEpochMilli();
+        boolean[] granted = new boolean[1];
+        sendBuckets.compute(email, (key, bucket) -> {
+            if (bucket == null) {
+                bucket = new Bucket(sendBurst, nowMs);
+            } else {
+                bucket.refill(nowMs, sendBurst, refillMillis);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                granted[0] = true;
+            }
+            return bucket;
+        });
+        return granted[0];
+    }
+
+    /**
+     * Advance the time wheel by one slot: drop tokens that expired in this second and forget
+     * rate limit buckets that have been idle long enough to be full again.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        long nowSec = Instant.now().getEpochSecond();
+        Iterator<OtpToken> it = wheel[slotOf(nowSec)].iterator();
+        while (it.hasNext()) {
+            OtpToken token = it.next();
+            // tokens more than one wheel turn away stay in the slot until their round comes
+            if (token.getExpiresAt().getEpochSecond() <= nowSec) {
+                it.remove();
+                evict(token);
+            }
+        }
+
+        long nowMs = nowSec * 1000;
+        long idleMillis = (long) Math.ceil(sendBurst) * refillMillis;
+        sendBuckets.entrySet().removeIf(e -> nowMs - e.getValue().lastRefillMs >= idleMillis);
+    }
+
+    private void evict(OtpToken token) {
+        byEmail.remove(token.getEmail(), token);
+        if (token.getUserId() != null) {
+            byUserId.remove(token.getUserId(), token);
+        }
+    }
+
+    private static int slotOf(long epochSecond) {
+        return (int) Math.floorMod(epochSecond, (long) WHEEL_SLOTS);
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefillMs;
+
+        Bucket(double tokens, long lastRefillMs) {
+            this.tokens = tokens;
+            this.lastRefillMs = lastRefillMs;
+        }
+
+        void refill(long nowMs, double capacity, long refillMillis) {
+            long elapsed = nowMs - lastRefillMs;
+            if (elapsed <= 0) {
+                return;
+            }
+            tokens = Math.min(capacity, tokens + (double) elapsed / refillMillis);
+            lastRefillMs = nowMs;
+        }
+    }
+}
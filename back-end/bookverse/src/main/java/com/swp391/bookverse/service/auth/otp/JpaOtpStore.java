@@ -0,0 +1,58 @@
+package com.swp391.bookverse.service.auth.otp;
+
+import com.swp391.bookverse.entity.auth.otp.OtpToken;
+import com.swp391.bookverse.repository.auth.otp.OtpTokenRepository;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Default OtpStore backed by the otp_token table.
+ * The resend cooldown is enforced by looking at the creation time of the latest unused token.
+ */
+@Component
+@ConditionalOnProperty(name = "bookverse.otp.store", havingValue = "jpa", matchIfMissing = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JpaOtpStore implements OtpStore {
+    OtpTokenRepository repo;
+    long resendCooldownSec;
+
+    public JpaOtpStore(OtpTokenRepository repo,
+                       @Value("${bookverse.otp.resend-cooldown-seconds:45}") long resendCooldownSec) {
+        this.repo = repo;
+        this.resendCooldownSec = resendCooldownSec;
+    }
+
+    @Override
+    public OtpToken save(OtpToken token) {
+        return repo.save(token);
+    }
+
+    @Override
+    public Optional<OtpToken> findLatestUnusedByEmail(String email) {
+        return repo.findTopByEmailAndUsedFalseOrderByCreatedAtDesc(email);
+    }
+
+    @Override
+    public Optional<OtpToken> findLatestUnusedByUserId(String userId) {
+        return repo.findTopByUserIdAndUsedFalseOrderByCreatedAtDesc(userId);
+    }
+
+    @Override
+    public void markUsed(OtpToken token) {
+        token.setUsed(true);
+        repo.save(token);
+    }
+
+    @Override
+    public boolean tryAcquireSendPermit(String email, Instant now) {
+        return repo.findTopByEmailAndUsedFalseOrderByCreatedAtDesc(email)
+                .map(last -> !now.isBefore(last.getCreatedAt().plusSeconds(resendCooldownSec)))
+                .orElse(true);
+    }
+}
@@ -0,0 +1,44 @@
+package com.swp391.bookverse.service.auth.otp;
+
+import com.swp391.bookverse.repository.auth.otp.OtpTokenRepository;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes used and expired rows from otp_token so the lookup indexes stay small.
+ * Rows are removed in small batches, each in its own transaction, to avoid long locks on the table.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class OtpCompactionJob {
+    OtpTokenRepository repo;
+    int batchSize;
+
+    public OtpCompactionJob(OtpTokenRepository repo,
+                            @Value("${bookverse.otp.compaction.batch-size:1000}") int batchSize) {
+        this.repo = repo;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${bookverse.otp.compaction.interval-ms:600000}")
+    public void compact() {
+        Instant now = Instant.now();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = repo.deleteUsedOrExpiredBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Removed {} used or expired OTP tokens", total);
+        }
+    }
+}
@@ -9,17 +9,17 @@ import com.swp391.bookverse.entity.auth.otp.OtpToken;
 import com.swp391.bookverse.exception.AppException;
 import com.swp391.bookverse.exception.ErrorCode;
 import com.swp391.bookverse.repository.UserRepository;
-import com.swp391.bookverse.repository.auth.otp.OtpTokenRepository;
 import com.swp391.bookverse.service.UserService;
+import com.swp391.bookverse.service.mail.EmailQueueService;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
@@ -33,23 +33,20 @@ import java.util.Optional;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true) // Sets the default access level for fields to private and makes them final.
 @Service
 public class OtpService {
-    JavaMailSender mailSender;
-    OtpTokenRepository repo;
+    EmailQueueService emailQueueService;
+    OtpStore otpStore;
     SecureRandom rnd = new SecureRandom();
     Duration ttl = Duration.ofMinutes(5);
-    int resendCooldownSec = 45;
     UserRepository userRepo;
     UserService userService;
 
     @Transactional
     public APIResponse<?> sendOtpByEmail(SendByEmailRequest req) {
         String normEmail = req.getEmail().trim().toLowerCase();
-        // Check for existing unexpired OTP to enforce cooldown
-        repo.findTopByEmailAndUsedFalseOrderByCreatedAtDesc(normEmail).ifPresent(last -> {
-            if (Instant.now().isBefore(last.getCreatedAt().plusSeconds(resendCooldownSec))) {
-                throw new IllegalStateException("Please wait before requesting another code.");
-            }
-        });
+        // Enforce the resend cooldown for this email
+        if (!otpStore.tryAcquireSendPermit(normEmail, Instant.now())) {
+            throw new IllegalStateException("Please wait before requesting another code.");
+        }
         // Generate and save new OTP token
         String code = gen6Digit();
         OtpToken t = new OtpToken();
@@ -59,18 +56,14 @@ public class OtpService {
         t.setTokenType(req.getTokenType());
         t.setCreatedAt(Instant.now());
         t.setExpiresAt(t.getCreatedAt().plus(ttl));
-        repo.save(t);
+        otpStore.save(t);
 
-        try {
-            sendEmailVerify(normEmail, code, "Reset password with OTP","""
+        // Queued in this transaction and delivered asynchronously, so the request does not wait on SMTP
+        sendEmailVerify(normEmail, code, "Reset password with OTP","""
         Your verification code is: %s
 
         It expires in 5 minutes. If you didn't request this, you can ignore this email.
                     """);
-        } catch (Exception e) {
-            // Rollback if email sending fails
-            throw new AppException(ErrorCode.EMAIL_INVALID);
-        }
 
         return APIResponse.<Void>builder()
                 .code(200)
@@ -82,12 +75,10 @@ public class OtpService {
     @Transactional
     public APIResponse<?> sendOtpByEmailResetPassword(SendByEmailRequest req) {
         String normEmail = req.getEmail().trim().toLowerCase();
-        // Check for existing unexpired OTP to enforce cooldown
-        repo.findTopByEmailAndUsedFalseOrderByCreatedAtDesc(normEmail).ifPresent(last -> {
-            if (Instant.now().isBefore(last.getCreatedAt().plusSeconds(resendCooldownSec))) {
-                throw new IllegalStateException("Please wait before requesting another code.");
-            }
-        });
+        // Enforce the resend cooldown for this email
+        if (!otpStore.tryAcquireSendPermit(normEmail, Instant.now())) {
+            throw new IllegalStateException("Please wait before requesting another code.");
+        }
         // Generate and save new OTP token
         String code = gen6Digit();
         OtpToken t = new OtpToken();
@@ -97,18 +88,14 @@ public class OtpService {
         t.setTokenType(req.getTokenType());
         t.setCreatedAt(Instant.now());
         t.setExpiresAt(t.getCreatedAt().plus(ttl));
-        repo.save(t);
+        otpStore.save(t);
 
-        try {
-            sendEmailVerify(normEmail, code,"Your Bookverse verification code" ,"""
+        // Queued in this transaction and delivered asynchronously, so the request does not wait on SMTP
+        sendEmailVerify(normEmail, code,"Your Bookverse verification code" ,"""
         Your verification code to RESET PASSWORD: %s
 
         It expires in 5 minutes. If you didn't request this, you can ignore this email.
                     """);
-        } catch (Exception e) {
-            // Rollback if email sending fails
-            throw new AppException(ErrorCode.EMAIL_INVALID);
-        }
 
         return APIResponse.<Void>builder()
                 .code(200)
@@ -152,8 +139,8 @@ public class OtpService {
 
         // Fetch the token based on userId or email
         OtpToken token = (userIdOrNull != null && !userIdOrNull.isBlank())
-                ? repo.findTopByUserIdAndUsedFalseOrderByCreatedAtDesc(userIdOrNull).orElse(null)
-                : repo.findTopByEmailAndUsedFalseOrderByCreatedAtDesc(emailOrNull.trim().toLowerCase()).orElse(null);
+                ? otpStore.findLatestUnusedByUserId(userIdOrNull).orElse(null)
+                : otpStore.findLatestUnusedByEmail(emailOrNull.trim().toLowerCase()).orElse(null);
 
         // Check if token exists
         if (token == null) {
@@ -176,7 +163,7 @@ public class OtpService {
                     .message("OTP token has expired.")
                     .build();
         }
-        if (!token.getCode().equals(code)) {
+        if (!codeMatches(token.getCode(), code)) {
             return APIResponse.<Void>builder()
                     .code(400)
                     .message("Invalid OTP code.")
@@ -185,8 +172,7 @@ public class OtpService {
 
         // Mark token as used and save
         try {
-            token.setUsed(true);
-            repo.save(token);
+            otpStore.markUsed(token);
         } catch (Exception e) {
             return APIResponse.<Void>builder()
                     .code(500)
@@ -264,16 +250,25 @@ public class OtpService {
     }
 
     /**
-     * Send OTP code to email
+     * Compare OTP codes in constant time so response timing does not leak matching digits
+     * @param expected code stored for the token
+     * @param actual code submitted by the user
+     * @return boolean
+     */
+    private boolean codeMatches(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queue the OTP email for asynchronous delivery
      * @param to String
      * @param code String
      */
     private void sendEmailVerify(String to, String code, String msgSubject, String msgText) {
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setTo(to);
-        msg.setSubject(msgSubject);
-        msg.setText((msgText).formatted(code));
-        mailSender.send(msg);
+        emailQueueService.enqueue(to, msgSubject, (msgText).formatted(code));
     }
 
 
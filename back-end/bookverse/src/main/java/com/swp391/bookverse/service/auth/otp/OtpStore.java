@@ -0,0 +1,48 @@
+package com.swp391.bookverse.service.auth.otp;
+
+import com.swp391.bookverse.entity.auth.otp.OtpToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage for OTP tokens used by OtpService.
+ * Select the implementation with "bookverse.otp.store": "jpa" (default, MySQL table) or "memory".
+ */
+public interface OtpStore {
+
+    /**
+     * Persist a newly generated token.
+     * @param token the token to store
+     * @return the stored token
+     */
+    OtpToken save(OtpToken token);
+
+    /**
+     * Latest token that has not been used yet for an email (may be expired).
+     * @param email normalized email
+     * @return Optional of OtpToken
+     */
+    Optional<OtpToken> findLatestUnusedByEmail(String email);
+
+    /**
+     * Latest token that has not been used yet for a user id (may be expired).
+     * @param userId user id
+     * @return Optional of OtpToken
+     */
+    Optional<OtpToken> findLatestUnusedByUserId(String userId);
+
+    /**
+     * Mark a token as consumed so it cannot be verified again.
+     * @param token the token that was verified
+     */
+    void markUsed(OtpToken token);
+
+    /**
+     * Rate limit check for sending a new code to an email. Consumes a permit when allowed.
+     * @param email normalized email
+     * @param now current time
+     * @return true if a new code may be sent
+     */
+    boolean tryAcquireSendPermit(String email, Instant now);
+}
@@ -0,0 +1,232 @@
+package com.swp391.bookverse.service.catalog;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Customers also bought" recommendations from co-purchases in DELIVERED orders.
+ * For every book it keeps how often each other book appeared in the same order (a primitive long->int map)
+ * and the top-K of those neighbours, so a request is a single map lookup.
+ * - rebuild() recounts everything from order_item_history (live and archived orders); it runs right after
+ *   startup and then every
+ *   "bookverse.catalog.also-bought.rebuild-ms".
+ * - recordDelivered() adds one order incrementally when OrderService marks it DELIVERED (after commit).
+ * Orders with more than "max-items-per-order" distinct books are ignored: they are usually bulk purchases,
+ * add little signal and cost O(n^2) pairs.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class AlsoBoughtEngine {
+    static String DELIVERED_ITEMS = """
+            SELECT oi.order_id, oi.book_id
+            FROM order_item_history oi
+            JOIN order_history o ON o.id = oi.order_id
+            WHERE o.status = 'DELIVERED' AND o.active = true
+            ORDER BY oi.order_id""";
+
+    JdbcTemplate jdbcTemplate;
+    int topK;
+    int maxItemsPerOrder;
+
+    /** neighbour counts per book, guarded by this */
+    @NonFinal
+    Map<Long, LongIntHashMap> counts = new HashMap<>();
+    /** top-K neighbour ids per book, best first; read without locking */
+    @NonFinal
+    volatile Map<Long, long[]> neighbours = new ConcurrentHashMap<>();
+
+    /** deliveries recorded while a rebuild is reading order_item, guarded by this */
+    List<long[]> pendingDuringRebuild = new ArrayList<>();
+    @NonFinal
+    boolean rebuilding;
+
+    public AlsoBoughtEngine(JdbcTemplate jdbcTemplate,
+                            @Value("${bookverse.catalog.also-bought.top-k:20}") int topK,
+                            @Value("${bookverse.catalog.also-bought.max-items-per-order:50}") int maxItemsPerOrder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topK = topK;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+    }
+
+    /**
+     * Books most often bought together with bookId, best first.
+     * @param bookId book id
+     * @param limit maximum number of ids, capped at top-k
+     * @return neighbour ids, empty if the book has no co-purchases (or the first rebuild has not finished)
+     */
+    public List<Long> alsoBought(Long bookId, int limit) {
+        long[] ids = neighbours.get(bookId);
+        if (ids == null) {
+            return List.of();
+        }
+        int n = Math.min(limit, ids.length);
+        List<Long> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Count an order that has just been delivered.
+     * Inside a transaction the order is only counted once it commits.
+     * @param orderId order id
+     * @param bookIds ids of the books in the order
+     */
+    public void recordDelivered(Long orderId, Collection<Long> bookIds) {
+        long[] books = distinct(bookIds);
+        if (books.length < 2 || books.length > maxItemsPerOrder) {
+            return;
+        }
+        long[] entry = new long[books.length + 1];
+        entry[0] = orderId;
+        System.arraycopy(books, 0, entry, 1, books.length);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry);
+                }
+            });
+        } else {
+            apply(entry);
+        }
+    }
+
+    /**
+     * Recount all DELIVERED orders.
+     * order_item is read without holding the lock; deliveries recorded meanwhile are queued and replayed
+     * afterwards unless the query already saw them.
+     */
+    @Scheduled(initialDelayString = "${bookverse.catalog.also-bought.initial-delay-ms:0}",
+            fixedDelayString = "${bookverse.catalog.also-bought.rebuild-ms:86400000}")
+    public void rebuild() {
+        synchronized (this) {
+            if (rebuilding) {
+                return;
+            }
+            rebuilding = true;
+        }
+
+        Map<Long, LongIntHashMap> fresh = new HashMap<>();
+        OrderIdLog seenOrders = new OrderIdLog();
+        try {
+            long[] currentOrder = {0};
+            List<Long> currentBooks = new ArrayList<>();
+            jdbcTemplate.query(DELIVERED_ITEMS, rs -> {
+                long orderId = rs.getLong(1);
+                if (orderId != currentOrder[0]) {
+                    count(fresh, distinct(currentBooks));
+                    currentBooks.clear();
+                    currentOrder[0] = orderId;
+                    seenOrders.add(orderId);
+                }
+                currentBooks.add(rs.getLong(2));
+            });
+            count(fresh, distinct(currentBooks));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = false;
+                pendingDuringRebuild.forEach(this::applyLocked);
+                pendingDuringRebuild.clear();
+            }
+            log.error("Failed to rebuild also-bought recommendations", e);
+            return;
+        }
+
+        Map<Long, long[]> freshNeighbours = new ConcurrentHashMap<>(fresh.size() * 2);
+        fresh.forEach((bookId, bookCounts) -> freshNeighbours.put(bookId, bookCounts.topKeys(topK)));
+
+        synchronized (this) {
+            counts = fresh;
+            neighbours = freshNeighbours;
+            for (long[] entry : pendingDuringRebuild) {
+                if (!seenOrders.contains(entry[0])) {
+                    applyLocked(entry);
+                }
+            }
+            pendingDuringRebuild.clear();
+            rebuilding = false;
+        }
+        log.info("Rebuilt also-bought recommendations for {} books from {} orders", fresh.size(), seenOrders.size());
+    }
+
+    private synchronized void apply(long[] entry) {
+        if (rebuilding) {
+            pendingDuringRebuild.add(entry);
+        } else {
+            applyLocked(entry);
+        }
+    }
+
+    /**
+     * Add one order (entry[0] = order id, the rest = distinct book ids) and refresh the top-K of its books.
+     */
+    private void applyLocked(long[] entry) {
+        long[] books = Arrays.copyOfRange(entry, 1, entry.length);
+        count(counts, books);
+        for (long book : books) {
+            neighbours.put(book, counts.get(book).topKeys(topK));
+        }
+    }
+
+    private void count(Map<Long, LongIntHashMap> target, long[] books) {
+        if (books.length < 2 || books.length > maxItemsPerOrder) {
+            return;
+        }
+        for (long a : books) {
+            LongIntHashMap row = target.computeIfAbsent(a, id -> new LongIntHashMap());
+            for (long b : books) {
+                if (a != b) {
+                    row.addTo(b, 1);
+                }
+            }
+        }
+    }
+
+    private static long[] distinct(Collection<Long> bookIds) {
+        return bookIds.stream().mapToLong(Long::longValue).filter(id -> id > 0).distinct().toArray();
+    }
+
+    /**
+     * Order ids seen by a rebuild. The query is ordered by order id, so the ids arrive sorted and
+     * a lookup is a binary search.
+     */
+    private static final class OrderIdLog {
+        private long[] ids = new long[1024];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.swp391.bookverse.service.catalog;
+
+import com.swp391.bookverse.repository.BookRepository;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random samples of visible book ids, used by the featured / discover endpoints.
+ * Keeps the ids of all visible books in a sorted array that is reloaded when the catalog changes
+ * (see invalidate) or at the latest every "bookverse.catalog.sample.refresh-ms", so a request
+ * costs O(k) instead of loading the whole catalog.
+ * - Without a seed: k distinct ids chosen with Floyd's algorithm.
+ * - With a seed: page p of a fixed pseudo-random permutation of the catalog, so paging through a
+ *   "discover" feed with the same seed never repeats a book (as long as the catalog does not change).
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookSampler {
+    static int FEISTEL_ROUNDS = 4;
+
+    BookRepository bookRepository;
+    long refreshMillis;
+
+    @NonFinal
+    volatile long[] visibleIds;
+    @NonFinal
+    volatile long loadedAt;
+    @NonFinal
+    volatile boolean stale = true;
+
+    public BookSampler(BookRepository bookRepository,
+                       @Value("${bookverse.catalog.sample.refresh-ms:60000}") long refreshMillis) {
+        this.bookRepository = bookRepository;
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * Mark the cached ids as outdated; they are reloaded on the next sample.
+     * Call after anything that can change book.visible. Inside a transaction this happens once it commits,
+     * otherwise a sample taken in between would reload the old ids and keep them until the next refresh.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+        } else {
+            stale = true;
+        }
+    }
+
+    /**
+     * Number of visible books.
+     * @return catalog size
+     */
+    public int size() {
+        return ids().length;
+    }
+
+    /**
+     * Pick k distinct visible book ids in random order.
+     * @param k sample size
+     * @return up to k ids
+     */
+    public List<Long> sample(int k) {
+        long[] ids = ids();
+        int n = ids.length;
+        k = Math.min(k, n);
+
+        // Floyd: for j = n-k .. n-1 pick t in [0, j]; take t unless already taken, then take j
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        List<Long> result = new ArrayList<>(k);
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            int pick = chosen.add(t) ? t : j;
+            if (pick == j) {
+                chosen.add(j);
+            }
+            result.add(ids[pick]);
+        }
+        // Floyd picks a uniform set but not a uniform order
+        for (int i = result.size() - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            Long tmp = result.get(i);
+            result.set(i, result.get(swap));
+            result.set(swap, tmp);
+        }
+        return result;
+    }
+
+    /**
+     * Page of a deterministic permutation of the visible books.
+     * Position i of the permutation is a Feistel network keyed by the seed, applied to i over the smallest
+     * power of 4 >= n and repeated while the result is >= n (cycle walking, fewer than 4 passes on average),
+     * so the order looks random without storing it and any page costs O(k).
+     * @param seed client supplied seed
+     * @param page zero-based page
+     * @param k page size
+     * @return ids on that page, empty after the last page
+     */
+    public List<Long> sample(long seed, int page, int k) {
+        long[] ids = ids();
+        int n = ids.length;
+        long from = (long) page * k;
+        if (n == 0 || from >= n) {
+            return List.of();
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] roundKeys = new long[FEISTEL_ROUNDS];
+        for (int r = 0; r < roundKeys.length; r++) {
+            roundKeys[r] = random.nextLong();
+        }
+        // halves of equal width, so the domain is a power of 4 and less than 4n
+        int halfBits = Math.max(1, (64 - Long.numberOfLeadingZeros(n - 1) + 1) / 2);
+
+        int count = (int) Math.min(k, n - from);
+        List<Long> result = new ArrayList<>(count);
+        for (long i = from; i < from + count; i++) {
+            long index = i;
+            do {
+                index = feistel(index, halfBits, roundKeys);
+            } while (index >= n);
+            result.add(ids[(int) index]);
+        }
+        return result;
+    }
+
+    /**
+     * Bijection of [0, 4^halfBits): balanced Feistel network whose round function is a SplitMix64 finalizer.
+     */
+    private static long feistel(long value, int halfBits, long[] roundKeys) {
+        long mask = (1L << halfBits) - 1;
+        long left = value >>> halfBits;
+        long right = value & mask;
+        for (long key : roundKeys) {
+            long mixed = right ^ key;
+            mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+            mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+            mixed ^= mixed >>> 31;
+            long next = left ^ (mixed & mask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long[] ids() {
+        long[] current = visibleIds;
+        if (current == null || stale || System.currentTimeMillis() - loadedAt > refreshMillis) {
+            synchronized (this) {
+                current = visibleIds;
+                if (current == null || stale || System.currentTimeMillis() - loadedAt > refreshMillis) {
+                    stale = false;
+                    current = bookRepository.findVisibleIds().stream().mapToLong(Long::longValue).toArray();
+                    visibleIds = current;
+                    loadedAt = System.currentTimeMillis();
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,515 @@
+package com.swp391.bookverse.service.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
+import com.swp391.bookverse.dto.response.BookImportResponse;
+import com.swp391.bookverse.enums.NotificationTemplate;
+import com.swp391.bookverse.enums.NotificationType;
+import com.swp391.bookverse.exception.AppException;
+import com.swp391.bookverse.exception.ErrorCode;
+import com.swp391.bookverse.repository.BookRepository;
+import com.swp391.bookverse.service.NotificationService;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk import of books from CSV or JSON Lines.
+ * The file is parsed record by record and written in chunks: authors, publishers, categories and existing
+ * book titles are resolved from in-memory maps loaded once, new authors/publishers are created on the fly,
+ * and books are inserted or updated (matched by title, case-insensitive) with batched JDBC statements.
+ * Each chunk runs in its own transaction; a bad row is reported and skipped. When the database rejects a
+ * chunk, its rows are written again one per transaction so only the rows at fault are reported.
+ *
+ * Columns / JSON fields: title, description, price, author, publisher, category, stockQuantity,
+ * publishedDate (yyyy-MM-dd), image, active. author/publisher/category are names.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class CatalogImportService {
+    static int MAX_REPORTED_ERRORS = 1000;
+
+    static String INSERT_BOOK = "INSERT INTO book (title, description, price, author_id, publisher_id, category_id, " +
+            "stock_quantity, published_date, image, active, review_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    static String UPDATE_BOOK = "UPDATE book SET description = ?, price = ?, author_id = ?, publisher_id = ?, " +
+            "category_id = ?, stock_quantity = ?, published_date = ?, image = COALESCE(?, image), active = ? WHERE id = ?";
+
+    JdbcTemplate jdbcTemplate;
+    NamedParameterJdbcTemplate namedJdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    ObjectMapper objectMapper;
+    NotificationService notificationService;
+    BookRepository bookRepository;
+    BookSampler bookSampler;
+    PricingEngine pricingEngine;
+    int chunkSize;
+    long maxBytes;
+
+    public CatalogImportService(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                NotificationService notificationService,
+                                BookRepository bookRepository,
+                                BookSampler bookSampler,
+                                PricingEngine pricingEngine,
+                                @Value("${bookverse.catalog.import.chunk-size:500}") int chunkSize,
+                                @Value("${bookverse.catalog.import.max-bytes:209715200}") long maxBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.notificationService = notificationService;
+        this.bookRepository = bookRepository;
+        this.bookSampler = bookSampler;
+        this.pricingEngine = pricingEngine;
+        this.chunkSize = chunkSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Import books from a .csv (with header row) or .jsonl file, read as a stream of at most max-bytes.
+     * @param filename name of the file, its extension gives the format
+     * @param contentLength declared size in bytes, null if unknown (chunked upload)
+     * @param body file content
+     * @return BookImportResponse with counts and per-row errors
+     */
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN') or hasAuthority('SCOPE_STAFF')")
+    public BookImportResponse importBooks(String filename, Long contentLength, InputStream body) {
+        if (body == null || (contentLength != null && contentLength == 0)) {
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+        if (contentLength != null && contentLength > maxBytes) {
+            throw new AppException(ErrorCode.IMPORT_FILE_TOO_LARGE);
+        }
+        String name = Optional.ofNullable(filename).orElse("").toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        boolean jsonLines = name.endsWith(".jsonl") || name.endsWith(".ndjson");
+        if (!csv && !jsonLines) {
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+
+        ImportState state = new ImportState(loadLookups());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CappedInputStream(body, maxBytes), StandardCharsets.UTF_8))) {
+            if (csv) {
+                readCsv(reader, state);
+            } else {
+                readJsonLines(reader, state);
+            }
+            flush(state);
+        } catch (IOException e) {
+            log.error("Book import failed while reading {}", name, e);
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+
+        BookImportResponse summary = BookImportResponse.builder()
+                .totalRows(state.totalRows)
+                .created(state.created)
+                .updated(state.updated)
+                .failed(state.failed)
+                .authorsCreated(state.authorsCreated)
+                .publishersCreated(state.publishersCreated)
+                .errors(state.errors)
+                .build();
+
+        if (state.created + state.updated > 0) {
+            // prices and sub-categories of many books changed at once: one reload instead of per-book updates
+            pricingEngine.rebuild();
+            notificationService.createBroadcastNotification(NotificationBroadCastCreationRequest.builder()
+                    .type(NotificationType.FOR_STAFFS)
+                    .template(NotificationTemplate.BOOK_IMPORT_FINISHED, state.created, state.updated, state.failed)
+                    .build());
+            notificationService.createBroadcastNotification(NotificationBroadCastCreationRequest.builder()
+                    .type(NotificationType.FOR_ADMINS)
+                    .template(NotificationTemplate.BOOK_IMPORT_FINISHED, state.created, state.updated, state.failed)
+                    .build());
+        }
+        log.info("Book import {}: {} rows, {} created, {} updated, {} failed",
+                name, state.totalRows, state.created, state.updated, state.failed);
+        return summary;
+    }
+
+    private void readCsv(BufferedReader reader, ImportState state) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+
+        long row = 1;
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            row++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // blank line
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                values.put(columns.get(i), record.get(i));
+            }
+            accept(state, row, values);
+        }
+    }
+
+    private void readJsonLines(BufferedReader reader, ImportState state) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                node.fields().forEachRemaining(e -> values.put(e.getKey().toLowerCase(Locale.ROOT),
+                        e.getValue().isNull() ? null : e.getValue().asText()));
+            } catch (IOException e) {
+                state.fail(row, "Invalid JSON");
+                continue;
+            }
+            accept(state, row, values);
+        }
+    }
+
+    private void accept(ImportState state, long row, Map<String, String> values) {
+        state.totalRows++;
+        try {
+            state.pending.add(parse(row, values));
+        } catch (IllegalArgumentException e) {
+            state.fail(row, e.getMessage());
+        }
+        if (state.pending.size() >= chunkSize) {
+            flush(state);
+        }
+    }
+
+    private ImportRow parse(long row, Map<String, String> values) {
+        String title = text(values, "title");
+        if (title == null) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > 255) {
+            throw new IllegalArgumentException("Title is too long");
+        }
+        Double price = number(values, "price");
+        if (price == null || price <= 0) {
+            throw new IllegalArgumentException("Price must be greater than zero");
+        }
+        String author = text(values, "author");
+        String publisher = text(values, "publisher");
+        String category = text(values, "category");
+        if (author == null || publisher == null || category == null) {
+            throw new IllegalArgumentException("Author, publisher and category are required");
+        }
+        Double stock = number(values, "stockquantity");
+        if (stock != null && stock < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        LocalDate publishedDate = null;
+        String date = text(values, "publisheddate");
+        if (date != null) {
+            try {
+                publishedDate = LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Published date must be yyyy-MM-dd");
+            }
+        }
+        String active = text(values, "active");
+
+        return new ImportRow(row, title, text(values, "description"), price, author, publisher, category,
+                stock == null ? 0 : stock.intValue(), publishedDate, text(values, "image"),
+                active == null || Boolean.parseBoolean(active) || active.equals("1"));
+    }
+
+    /**
+     * Write the pending rows in one transaction, or row by row if the database rejects the chunk.
+     */
+    private void flush(ImportState state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        List<ImportRow> chunk = new ArrayList<>(state.pending);
+        state.pending.clear();
+
+        try {
+            write(chunk, state);
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                fail(chunk.get(0), state, e);
+                return;
+            }
+            log.warn("Book import chunk of {} rows failed, retrying row by row", chunk.size(), e);
+            for (ImportRow row : chunk) {
+                try {
+                    write(List.of(row), state);
+                } catch (DataAccessException rowError) {
+                    fail(row, state, rowError);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write rows in one transaction. New lookup entries are only kept if the transaction commits.
+     */
+    private void write(List<ImportRow> chunk, ImportState state) {
+        ChunkResult result = transactionTemplate.execute(status -> writeChunk(chunk, state));
+        if (result == null) {
+            return;
+        }
+        state.lookups.authors.putAll(result.newAuthors);
+        state.lookups.publishers.putAll(result.newPublishers);
+        state.lookups.books.putAll(result.newBooks);
+        state.authorsCreated += result.newAuthors.size();
+        state.publishersCreated += result.newPublishers.size();
+        state.created += result.created;
+        state.updated += result.updated;
+        bookSampler.invalidate();
+        result.rowErrors.forEach(state::fail);
+    }
+
+    private static void fail(ImportRow row, ImportState state, DataAccessException e) {
+        log.warn("Book import row {} failed", row.row(), e);
+        state.fail(row.row(), "Database error: " + e.getMostSpecificCause().getMessage());
+    }
+
+    private ChunkResult writeChunk(List<ImportRow> chunk, ImportState state) {
+        ChunkResult result = new ChunkResult();
+        Lookups lookups = state.lookups;
+
+        // last row wins when a title appears twice in the same chunk
+        Map<String, ImportRow> byTitle = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            String key = key(row.title());
+            ImportRow previous = byTitle.put(key, row);
+            if (previous != null) {
+                result.rowErrors.put(previous.row(), "Duplicate title, superseded by row " + row.row());
+            }
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<String> insertedTitles = new ArrayList<>();
+        Set<Long> touchedCategories = new HashSet<>();
+        for (ImportRow row : byTitle.values()) {
+            Long categoryId = lookups.categories.get(key(row.category()));
+            if (categoryId == null) {
+                result.rowErrors.put(row.row(), "Category not found: " + row.category());
+                continue;
+            }
+            Long authorId = resolveOrCreate(lookups.authors, result.newAuthors, row.author(),
+                    "INSERT INTO author (name, active) VALUES (?, b'1')");
+            Long publisherId = resolveOrCreate(lookups.publishers, result.newPublishers, row.publisher(),
+                    "INSERT INTO publisher (name, active) VALUES (?, b'1')");
+            Date published = row.publishedDate() == null ? null : Date.valueOf(row.publishedDate());
+            touchedCategories.add(categoryId);
+
+            Long bookId = lookups.books.get(key(row.title()));
+            if (bookId == null) {
+                inserts.add(new Object[]{row.title(), row.description(), row.price(), authorId, publisherId,
+                        categoryId, row.stockQuantity(), published, row.image(), row.active()});
+                insertedTitles.add(row.title());
+            } else {
+                updates.add(new Object[]{row.description(), row.price(), authorId, publisherId, categoryId,
+                        row.stockQuantity(), published, row.image(), row.active(), bookId});
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK, inserts, inserts.size(), (ps, args) -> setArgs(ps, args));
+            result.created = inserts.size();
+            // pick up generated ids so later chunks update these books instead of inserting them again
+            namedJdbcTemplate.query("SELECT id, title FROM book WHERE title IN (:titles)",
+                    Map.of("titles", insertedTitles),
+                    rs -> {
+                        result.newBooks.put(key(rs.getString("title")), rs.getLong("id"));
+                    });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_BOOK, updates, updates.size(), (ps, args) -> setArgs(ps, args));
+            result.updated = updates.size();
+        }
+        if (!touchedCategories.isEmpty()) {
+            bookRepository.refreshVisibilityBySubCategoryIds(touchedCategories);
+        }
+        return result;
+    }
+
+    private Long resolveOrCreate(Map<String, Long> committed, Map<String, Long> created, String name, String insertSql) {
+        String key = key(name);
+        Long id = committed.get(key);
+        if (id == null) {
+            id = created.get(key);
+        }
+        if (id != null) {
+            return id;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, name.trim());
+            return ps;
+        }, keyHolder);
+        id = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        created.put(key, id);
+        return id;
+    }
+
+    private static void setArgs(PreparedStatement ps, Object[] args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null) {
+                ps.setNull(i + 1, Types.NULL);
+            } else {
+                ps.setObject(i + 1, arg);
+            }
+        }
+    }
+
+    private Lookups loadLookups() {
+        Lookups lookups = new Lookups();
+        jdbcTemplate.query("SELECT id, name FROM author",
+                rs -> { lookups.authors.putIfAbsent(key(rs.getString("name")), rs.getLong("id")); });
+        jdbcTemplate.query("SELECT id, name FROM publisher",
+                rs -> { lookups.publishers.putIfAbsent(key(rs.getString("name")), rs.getLong("id")); });
+        jdbcTemplate.query("SELECT id, name FROM sub_category",
+                rs -> { lookups.categories.putIfAbsent(key(rs.getString("name")), rs.getLong("id")); });
+        jdbcTemplate.query("SELECT id, title FROM book",
+                rs -> { lookups.books.putIfAbsent(key(rs.getString("title")), rs.getLong("id")); });
+        return lookups;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String text(Map<String, String> values, String field) {
+        String value = values.get(field);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Double number(Map<String, String> values, String field) {
+        String value = text(values, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + field + ": " + value);
+        }
+    }
+
+    private record ImportRow(long row, String title, String description, double price, String author,
+                             String publisher, String category, int stockQuantity, LocalDate publishedDate,
+                             String image, boolean active) {
+    }
+
+    private static class Lookups {
+        Map<String, Long> authors = new HashMap<>();
+        Map<String, Long> publishers = new HashMap<>();
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> books = new HashMap<>();
+    }
+
+    private static class ChunkResult {
+        Map<String, Long> newAuthors = new HashMap<>();
+        Map<String, Long> newPublishers = new HashMap<>();
+        Map<String, Long> newBooks = new HashMap<>();
+        Map<Long, String> rowErrors = new TreeMap<>();
+        long created;
+        long updated;
+    }
+
+    /**
+     * Fails the import once more than maxBytes were read, for bodies sent without a Content-Length.
+     * Chunks already written stay committed.
+     */
+    private static class CappedInputStream extends FilterInputStream {
+        final long maxBytes;
+        long read;
+
+        CappedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            read += n;
+            if (read > maxBytes) {
+                throw new AppException(ErrorCode.IMPORT_FILE_TOO_LARGE);
+            }
+        }
+    }
+
+    private static class ImportState {
+        final Lookups lookups;
+        final List<ImportRow> pending = new ArrayList<>();
+        final List<BookImportResponse.RowError> errors = new ArrayList<>();
+        long totalRows;
+        long created;
+        long updated;
+        long failed;
+        long authorsCreated;
+        long publishersCreated;
+
+        ImportState(Lookups lookups) {
+            this.lookups = lookups;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportResponse.RowError(row, message));
+            }
+        }
+    }
+}
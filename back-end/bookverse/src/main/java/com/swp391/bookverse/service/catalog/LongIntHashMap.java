@@ -0,0 +1,145 @@
+package com.swp391.bookverse.service.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Small open-addressing hash map from long keys to int values.
+ * Used for co-occurrence counts, where a HashMap<Long, Integer> would cost roughly 5x the memory
+ * (entry object plus two boxed values per pair). Keys must not be 0, which is used to mark empty slots;
+ * book ids are generated by MySQL and start at 1.
+ * Not thread safe.
+ */
+final class LongIntHashMap {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap() {
+        this(8);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the value for key, or 0 if absent
+     */
+    int get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    /**
+     * Add delta to the value of key, inserting it with value delta if absent.
+     * @return the new value
+     */
+    int addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+        int slot = find(key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return values[slot];
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    void forEach(Entry consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * The k keys with the highest positive values, highest first, ties broken by lower key.
+     * Insertion into a small sorted buffer: O(size * k), meant for small k.
+     */
+    long[] topKeys(int k) {
+        long[] top = new long[Math.min(k, size)];
+        int[] topValues = new int[top.length];
+        int filled = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            int value = values[i];
+            if (key == 0 || value <= 0) {
+                continue;
+            }
+            int pos = filled;
+            while (pos > 0 && (topValues[pos - 1] < value || (topValues[pos - 1] == value && top[pos - 1] > key))) {
+                pos--;
+            }
+            if (pos >= top.length) {
+                continue;
+            }
+            int last = Math.min(filled, top.length - 1);
+            System.arraycopy(top, pos, top, pos + 1, last - pos);
+            System.arraycopy(topValues, pos, topValues, pos + 1, last - pos);
+            top[pos] = key;
+            topValues[pos] = value;
+            if (filled < top.length) {
+                filled++;
+            }
+        }
+        return filled == top.length ? top : Arrays.copyOf(top, filled);
+    }
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long key, int value);
+    }
+
+    /**
+     * Slot holding key, or the empty slot where it would be inserted (linear probing).
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        // sequential ids would cluster with a plain modulo, so spread the bits first (Fibonacci hashing)
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+}
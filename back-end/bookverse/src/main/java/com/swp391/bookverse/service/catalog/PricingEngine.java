@@ -0,0 +1,247 @@
+package com.swp391.bookverse.service.catalog;
+
+import com.swp391.bookverse.entity.Book;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.mapstruct.Named;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Effective (discounted) price of every book, kept in memory so checkout, cart and catalog responses
+ * never query promotions.
+ * A book gets the percentage of the promotion of its sub-category (sub_category.promotion_id) while that
+ * promotion is active and today is within [start_date, end_date]; otherwise its list price.
+ * - discounts: sub-category id -> percentage in effect today (only discounted sub-categories);
+ * - prices: book id -> list price, sub-category and effective price.
+ * Updated incrementally: bookChanged() for one book, promotionChanged() for the books of the sub-categories
+ * using that promotion, also when it starts or ends (PROMOTION_BOUNDARY delayed tasks). Everything is
+ * reloaded at midnight and every "bookverse.pricing.rebuild-ms" to pick up promotion_id assignments made
+ * directly in the database.
+ * A PROMOTION_BOUNDARY task runs on one instance of the cluster only, so the midnight reload is what starts
+ * and ends promotions on every other instance.
+ * Prices are loaded once before the application serves requests, so checkout never charges the list price
+ * while a promotion is running.
+ * Readers do not lock; writers are serialized on writeLock. It is a ReentrantLock rather than synchronized
+ * because writers query the database, and a virtual thread blocked inside a monitor pins its carrier thread.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PricingEngine {
+    static String BOOKS = "SELECT id, price, category_id FROM book";
+    static String CATEGORY_PROMOTIONS = "SELECT id, promotion_id FROM sub_category WHERE promotion_id IS NOT NULL";
+    static String RUNNING_PROMOTIONS = """
+            SELECT id, percentage FROM promotion
+            WHERE active = true AND percentage > 0 AND ? BETWEEN start_date AND end_date""";
+    static String PROMOTION_CATEGORIES = """
+            SELECT sc.id, p.percentage, p.active, p.start_date, p.end_date
+            FROM sub_category sc
+            LEFT JOIN promotion p ON p.id = sc.promotion_id
+            WHERE sc.promotion_id = ?""";
+
+    JdbcTemplate jdbcTemplate;
+
+    @NonFinal
+    volatile Map<Long, Integer> discounts = new ConcurrentHashMap<>();
+    @NonFinal
+    volatile Map<Long, BookPrice> prices = new ConcurrentHashMap<>();
+    /** promotion id of each sub-category that has one, so a deleted promotion can be taken off */
+    Map<Long, Long> categoryPromotion = new HashMap<>();
+    ReentrantLock writeLock = new ReentrantLock();
+
+    public PricingEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Price a customer pays for a book today.
+     * @param book the book; its own price is used as the list price, so a price change not applied yet
+     *             still gives the right amount
+     * @return the discounted price, or the list price without a running promotion
+     */
+    @Named("effectivePrice")
+    public double effectivePrice(Book book) {
+        if (book.getPrice() == null) {
+            return 0;
+        }
+        BookPrice price = prices.get(book.getId());
+        if (price != null && price.listPrice == book.getPrice()) {
+            return price.effectivePrice;
+        }
+        Long categoryId = book.getCategory() == null ? null : book.getCategory().getId();
+        return apply(book.getPrice(), categoryId == null ? null : discounts.get(categoryId));
+    }
+
+    /**
+     * A book was created or its price or sub-category changed.
+     * Inside a transaction the change is applied once it commits.
+     */
+    public void bookChanged(Book book) {
+        Long bookId = book.getId();
+        Double listPrice = book.getPrice();
+        Long categoryId = book.getCategory() == null ? null : book.getCategory().getId();
+        afterCommit(() -> putBook(bookId, listPrice, categoryId));
+    }
+
+    /**
+     * A promotion was updated, (de)activated or deleted: recompute the books of the sub-categories using it.
+     * Inside a transaction the change is applied once it commits.
+     */
+    public void promotionChanged(Long promotionId) {
+        afterCommit(() -> reloadPromotion(promotionId));
+    }
+
+    /**
+     * Reload books, sub-category promotions and running promotions.
+     * At midnight this starts and ends promotions on every instance (their dates have a one-day resolution).
+     */
+    @PostConstruct
+    @Scheduled(cron = "${bookverse.pricing.boundary-cron:0 0 0 * * *}")
+    @Scheduled(initialDelayString = "${bookverse.pricing.rebuild-ms:3600000}",
+            fixedDelayString = "${bookverse.pricing.rebuild-ms:3600000}")
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Map<Long, Integer> running = new HashMap<>();
+            jdbcTemplate.query(RUNNING_PROMOTIONS, rs -> {
+                running.put(rs.getLong(1), rs.getInt(2));
+            }, Date.valueOf(LocalDate.now()));
+
+            Map<Long, Long> freshCategoryPromotion = new HashMap<>();
+            Map<Long, Integer> freshDiscounts = new ConcurrentHashMap<>();
+            jdbcTemplate.query(CATEGORY_PROMOTIONS, rs -> {
+                long categoryId = rs.getLong(1);
+                long promotionId = rs.getLong(2);
+                freshCategoryPromotion.put(categoryId, promotionId);
+                Integer percentage = running.get(promotionId);
+                if (percentage != null) {
+                    freshDiscounts.put(categoryId, percentage);
+                }
+            });
+
+            Map<Long, BookPrice> freshPrices = new ConcurrentHashMap<>();
+            jdbcTemplate.query(BOOKS, rs -> {
+                double listPrice = rs.getDouble(2);
+                long categoryId = rs.getLong(3);
+                Long category = rs.wasNull() ? null : categoryId;
+                freshPrices.put(rs.getLong(1), price(listPrice, category, freshDiscounts));
+            });
+
+            categoryPromotion.clear();
+            categoryPromotion.putAll(freshCategoryPromotion);
+            discounts = freshDiscounts;
+            prices = freshPrices;
+            log.info("Priced {} books, {} sub-categories on promotion", freshPrices.size(), freshDiscounts.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild effective prices, keeping the previous ones", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void putBook(Long bookId, Double listPrice, Long categoryId) {
+        writeLock.lock();
+        try {
+            prices.put(bookId, price(listPrice == null ? 0 : listPrice, categoryId, discounts));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reloadPromotion(Long promotionId) {
+        writeLock.lock();
+        try {
+            reloadPromotionLocked(promotionId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reloadPromotionLocked(Long promotionId) {
+        LocalDate today = LocalDate.now();
+        Set<Long> changed = new HashSet<>();
+
+        // sub-categories still pointing at the promotion (none if it was deleted)
+        Set<Long> current = new HashSet<>();
+        jdbcTemplate.query(PROMOTION_CATEGORIES, rs -> {
+            long categoryId = rs.getLong(1);
+            current.add(categoryId);
+            categoryPromotion.put(categoryId, promotionId);
+            boolean running = rs.getBoolean(3)
+                    && !today.isBefore(rs.getDate(4).toLocalDate())
+                    && !today.isAfter(rs.getDate(5).toLocalDate());
+            int percentage = running ? rs.getInt(2) : 0;
+            Integer previous = percentage > 0 ? discounts.put(categoryId, percentage) : discounts.remove(categoryId);
+            if (!Objects.equals(previous, percentage > 0 ? percentage : null)) {
+                changed.add(categoryId);
+            }
+        }, promotionId);
+        List<Long> gone = categoryPromotion.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(promotionId) && !current.contains(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        for (Long categoryId : gone) {
+            categoryPromotion.remove(categoryId);
+            if (discounts.remove(categoryId) != null) {
+                changed.add(categoryId);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            prices.replaceAll((bookId, price) -> changed.contains(price.categoryId)
+                    ? price(price.listPrice, price.categoryId, discounts)
+                    : price);
+        }
+    }
+
+    private static BookPrice price(double listPrice, Long categoryId, Map<Long, Integer> discounts) {
+        Integer percentage = categoryId == null ? null : discounts.get(categoryId);
+        return new BookPrice(listPrice, categoryId, apply(listPrice, percentage));
+    }
+
+    private static double apply(double listPrice, Integer percentage) {
+        if (percentage == null || percentage <= 0) {
+            return listPrice;
+        }
+        return BigDecimal.valueOf(listPrice)
+                .multiply(BigDecimal.valueOf(100 - Math.min(percentage, 100)))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record BookPrice(double listPrice, Long categoryId, double effectivePrice) {
+    }
+}
@@ -0,0 +1,320 @@
+package com.swp391.bookverse.service.catalog;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trending books over sliding windows of 1h, 24h and 7d.
+ * Units ordered are added to time buckets ("bookverse.catalog.trending.bucket-ms", 5 minutes by default)
+ * kept in a ring that covers the longest window. Each window also keeps a running total per book:
+ * a new order adds to every window, and when a bucket falls out of a window its counts are subtracted.
+ * The top books of each window are recomputed in the background, so a request only copies k ids.
+ * - recordPlaced() is called when an order is created, recordCancelled() when it is cancelled
+ *   (only the buckets still inside the ring are corrected).
+ * - The last 7 days of non-cancelled orders are loaded once after startup.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class TrendingBooksEngine {
+    static String RECENT_ITEMS = """
+            SELECT o.id, o.created_at, oi.book_id, oi.quantity
+            FROM order_item oi
+            JOIN `order` o ON o.id = oi.order_id
+            WHERE o.created_at >= ? AND o.status <> 'CANCELLED' AND o.active = true""";
+
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public enum Window {
+        HOUR("1h", Duration.ofHours(1)),
+        DAY("24h", Duration.ofHours(24)),
+        WEEK("7d", Duration.ofDays(7));
+
+        String code;
+        Duration length;
+
+        /**
+         * @param code "1h", "24h" or "7d"
+         * @return the window, or null if the code is unknown
+         */
+        public static Window fromCode(String code) {
+            for (Window window : values()) {
+                if (window.code.equalsIgnoreCase(code)) {
+                    return window;
+                }
+            }
+            return null;
+        }
+    }
+
+    JdbcTemplate jdbcTemplate;
+    ZoneId zone = ZoneId.systemDefault();
+    Clock clock;
+    long bucketMillis;
+    int maxSize;
+
+    /** ring of per-bucket counts, slot = bucket index % length; guarded by this */
+    LongIntHashMap[] buckets;
+    long[] bucketIndex;
+    Map<Window, Integer> windowBuckets = new EnumMap<>(Window.class);
+    Map<Window, LongIntHashMap> totals = new EnumMap<>(Window.class);
+    @NonFinal
+    long currentBucket;
+    @NonFinal
+    boolean dirty = true;
+
+    /** precomputed top books per window, best first; replaced as a whole, read without locking */
+    @NonFinal
+    volatile Map<Window, long[]> top = new EnumMap<>(Window.class);
+
+    /** events recorded before the startup load finished, guarded by this */
+    List<OrderEvent> pendingBeforeLoad = new ArrayList<>();
+    @NonFinal
+    volatile boolean loaded;
+
+    @Autowired
+    public TrendingBooksEngine(JdbcTemplate jdbcTemplate,
+                               @Value("${bookverse.catalog.trending.bucket-ms:300000}") long bucketMillis,
+                               @Value("${bookverse.catalog.trending.max-size:50}") int maxSize) {
+        this(jdbcTemplate, bucketMillis, maxSize, Clock.systemDefaultZone());
+    }
+
+    TrendingBooksEngine(JdbcTemplate jdbcTemplate, long bucketMillis, int maxSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.bucketMillis = bucketMillis;
+        this.maxSize = maxSize;
+
+        for (Window window : Window.values()) {
+            windowBuckets.put(window, (int) Math.max(1, window.length.toMillis() / bucketMillis));
+            totals.put(window, new LongIntHashMap());
+        }
+        int ringSize = windowBuckets.get(Window.WEEK) + 1;
+        this.buckets = new LongIntHashMap[ringSize];
+        this.bucketIndex = new long[ringSize];
+        this.currentBucket = clock.millis() / bucketMillis;
+        for (int i = 0; i < ringSize; i++) {
+            buckets[i] = new LongIntHashMap();
+        }
+        claimRing();
+    }
+
+    /**
+     * Ids of the books with the most units ordered in the window, best first.
+     * @param window time window
+     * @param limit maximum number of ids, capped at max-size
+     * @return up to limit ids
+     */
+    public List<Long> trending(Window window, int limit) {
+        long[] ids = top.getOrDefault(window, new long[0]);
+        int n = Math.min(limit, ids.length);
+        List<Long> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Count the items of a newly placed order (after the surrounding transaction commits).
+     * @param orderId order id
+     * @param createdAt order creation time, null for now
+     * @param bookIds book of each item
+     * @param quantities quantity of each item, same order as bookIds
+     */
+    public void recordPlaced(Long orderId, LocalDateTime createdAt, List<Long> bookIds, List<Integer> quantities) {
+        afterCommit(new OrderEvent(orderId, toMillis(createdAt), bookIds, quantities, 1));
+    }
+
+    /**
+     * Take back the items of a cancelled order (after the surrounding transaction commits).
+     * @param orderId order id
+     * @param createdAt order creation time, used to find the bucket it was counted in
+     * @param bookIds book of each item
+     * @param quantities quantity of each item, same order as bookIds
+     */
+    public void recordCancelled(Long orderId, LocalDateTime createdAt, List<Long> bookIds, List<Integer> quantities) {
+        afterCommit(new OrderEvent(orderId, toMillis(createdAt), bookIds, quantities, -1));
+    }
+
+    /**
+     * Move the ring forward to the current bucket and recompute the top books of every window that changed.
+     * The first run also loads the orders of the last 7 days.
+     */
+    @Scheduled(fixedDelayString = "${bookverse.catalog.trending.refresh-ms:10000}")
+    public void refresh() {
+        if (!loaded) {
+            load();
+        }
+        synchronized (this) {
+            advance(clock.millis() / bucketMillis);
+            if (!dirty) {
+                return;
+            }
+            Map<Window, long[]> fresh = new EnumMap<>(Window.class);
+            for (Window window : Window.values()) {
+                fresh.put(window, totals.get(window).topKeys(maxSize));
+            }
+            top = fresh;
+            dirty = false;
+        }
+    }
+
+    /**
+     * Events that arrive while loading are queued; a placed order is replayed only if the query did not
+     * see it, a cancellation only if its order was counted.
+     */
+    private void load() {
+        long from = (clock.millis() / bucketMillis - windowBuckets.get(Window.WEEK) + 1) * bucketMillis;
+        List<OrderEvent> items = new ArrayList<>();
+        try {
+            jdbcTemplate.query(RECENT_ITEMS, rs -> {
+                Timestamp createdAt = rs.getTimestamp(2);
+                items.add(new OrderEvent(rs.getLong(1), createdAt == null ? from : createdAt.getTime(),
+                        List.of(rs.getLong(3)), List.of(rs.getInt(4)), 1));
+            }, new Timestamp(from));
+        } catch (RuntimeException e) {
+            log.error("Failed to load recent orders for trending books, starting empty", e);
+        }
+
+        synchronized (this) {
+            Set<Long> counted = new HashSet<>();
+            for (OrderEvent item : items) {
+                applyLocked(item);
+                counted.add(item.orderId);
+            }
+            for (OrderEvent event : pendingBeforeLoad) {
+                if (event.sign > 0 ? counted.add(event.orderId) : counted.contains(event.orderId)) {
+                    applyLocked(event);
+                }
+            }
+            pendingBeforeLoad.clear();
+            loaded = true;
+            log.info("Loaded {} order items for trending books", items.size());
+        }
+    }
+
+    private void afterCommit(OrderEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(event);
+                }
+            });
+        } else {
+            apply(event);
+        }
+    }
+
+    private synchronized void apply(OrderEvent event) {
+        if (loaded) {
+            applyLocked(event);
+        } else {
+            pendingBeforeLoad.add(event);
+        }
+    }
+
+    private void applyLocked(OrderEvent event) {
+        advance(clock.millis() / bucketMillis);
+        // clock skew between the app and the database should not put counts into the future
+        long bucket = Math.min(event.atMillis / bucketMillis, currentBucket);
+        if (bucket <= currentBucket - windowBuckets.get(Window.WEEK) || bucketIndex[slot(bucket)] != bucket) {
+            return; // already outside every window
+        }
+
+        LongIntHashMap target = buckets[slot(bucket)];
+        for (int i = 0; i < event.bookIds.size(); i++) {
+            long bookId = event.bookIds.get(i);
+            int units = event.sign * event.quantities.get(i);
+            target.addTo(bookId, units);
+            for (Window window : Window.values()) {
+                if (bucket > currentBucket - windowBuckets.get(window)) {
+                    totals.get(window).addTo(bookId, units);
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Step the ring to bucket now; for each step, subtract the bucket that leaves each window and clear
+     * the slot that is reused for the new bucket.
+     */
+    private void advance(long now) {
+        if (now <= currentBucket) {
+            return;
+        }
+        if (now - currentBucket >= buckets.length) {
+            // idle for longer than the longest window: nothing is left in any window
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongIntHashMap();
+            }
+            totals.replaceAll((window, counts) -> new LongIntHashMap());
+            currentBucket = now;
+            claimRing();
+            dirty = true;
+            return;
+        }
+
+        while (currentBucket < now) {
+            currentBucket++;
+            for (Window window : Window.values()) {
+                long leaving = currentBucket - windowBuckets.get(window);
+                if (leaving >= 0 && bucketIndex[slot(leaving)] == leaving) {
+                    LongIntHashMap total = totals.get(window);
+                    buckets[slot(leaving)].forEach((bookId, units) -> total.addTo(bookId, -units));
+                }
+            }
+            int slot = slot(currentBucket);
+            buckets[slot] = new LongIntHashMap();
+            bucketIndex[slot] = currentBucket;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Assign every slot to one of the buckets the ring covers up to currentBucket, so orders from any of
+     * them (e.g. loaded at startup) are counted.
+     */
+    private void claimRing() {
+        for (long bucket = currentBucket - buckets.length + 1; bucket <= currentBucket; bucket++) {
+            bucketIndex[slot(bucket)] = bucket;
+        }
+    }
+
+    private int slot(long bucket) {
+        return (int) (bucket % buckets.length);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time == null ? clock.millis() : time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private record OrderEvent(long orderId, long atMillis, List<Long> bookIds, List<Integer> quantities, int sign) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.swp391.bookverse.service.mail;
+
+import com.swp391.bookverse.entity.mail.OutboundEmail;
+import com.swp391.bookverse.enums.EmailStatus;
+import com.swp391.bookverse.repository.mail.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable outbound email queue.
+ * Callers only insert a row (inside their own transaction), so no request thread or DB connection
+ * waits on SMTP. A scheduled dispatcher claims due rows and hands them to the "mailExecutor" pool,
+ * where each worker sends its chunk over a single SMTP session. Failed messages are retried with
+ * exponential backoff until maxAttempts is reached.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class EmailQueueService {
+    OutboundEmailRepository outboundEmailRepository;
+    JavaMailSender mailSender;
+    TransactionTemplate transactionTemplate;
+    ThreadPoolTaskExecutor mailExecutor;
+
+    int batchSize;
+    int messagesPerSession;
+    int maxAttempts;
+    long baseBackoffMs;
+    long leaseMs;
+
+    AtomicLong pendingDepth = new AtomicLong();
+    Counter sentCounter;
+    Counter failedCounter;
+
+    public EmailQueueService(OutboundEmailRepository outboundEmailRepository,
+                             JavaMailSender mailSender,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier("mailExecutor") ThreadPoolTaskExecutor mailExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${bookverse.mail.batch-size:100}") int batchSize,
+                             @Value("${bookverse.mail.messages-per-session:20}") int messagesPerSession,
+                             @Value("${bookverse.mail.max-attempts:5}") int maxAttempts,
+                             @Value("${bookverse.mail.base-backoff-ms:10000}") long baseBackoffMs,
+                             @Value("${bookverse.mail.lease-ms:300000}") long leaseMs) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.mailExecutor = mailExecutor;
+        this.batchSize = batchSize;
+        this.messagesPerSession = messagesPerSession;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.leaseMs = leaseMs;
+
+        Gauge.builder("bookverse.mail.queue.depth", pendingDepth, AtomicLong::get)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("bookverse.mail.sent")
+                .description("Emails delivered to the SMTP server")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("bookverse.mail.failed")
+                .description("Emails dropped after exhausting all attempts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a plain-text email. Joins the caller's transaction, so the email is only sent if it commits.
+     * @param to recipient address
+     * @param subject subject line
+     * @param text plain-text body
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String text) {
+        Instant now = Instant.now();
+        OutboundEmail email = OutboundEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .status(EmailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        outboundEmailRepository.save(email);
+        pendingDepth.incrementAndGet();
+    }
+
+    /**
+     * Current number of queued emails (as of the last dispatch cycle plus local enqueues).
+     * @return queue depth
+     */
+    public long getQueueDepth() {
+        return pendingDepth.get();
+    }
+
+    /**
+     * Claim due emails and deliver them on the mail worker pool.
+     * Waits for the workers to finish so the next cycle never claims more than the pool can handle.
+     */
+    @Scheduled(fixedDelayString = "${bookverse.mail.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<OutboundEmail> claimed = transactionTemplate.execute(status -> claimDueEmails());
+        pendingDepth.set(outboundEmailRepository.countByStatus(EmailStatus.PENDING));
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += messagesPerSession) {
+            List<OutboundEmail> chunk = claimed.subList(from, Math.min(from + messagesPerSession, claimed.size()));
+            sessions.add(mailExecutor.submit(() -> sendSession(chunk)));
+        }
+
+        for (Future<?> session : sessions) {
+            try {
+                session.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // rows stay SENDING and are picked up again once their lease expires
+                log.error("Mail session failed unexpectedly", e.getCause());
+            }
+        }
+    }
+
+    private List<OutboundEmail> claimDueEmails() {
+        Instant now = Instant.now();
+        List<OutboundEmail> due = outboundEmailRepository.findDueForUpdate(
+                List.of(EmailStatus.PENDING, EmailStatus.SENDING), now, PageRequest.of(0, batchSize));
+        for (OutboundEmail email : due) {
+            email.setStatus(EmailStatus.SENDING);
+            email.setNextAttemptAt(now.plusMillis(leaseMs));
+        }
+        return outboundEmailRepository.saveAll(due);
+    }
+
+    /**
+     * Send a chunk of emails over one SMTP connection and record the outcome of each message.
+     */
+    private void sendSession(List<OutboundEmail> emails) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[emails.size()];
+        for (int i = 0; i < emails.size(); i++) {
+            OutboundEmail email = emails.get(i);
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setTo(email.getRecipient());
+            msg.setSubject(email.getSubject());
+            msg.setText(email.getBody());
+            messages[i] = msg;
+        }
+
+        Map<Object, Exception> failures = Collections.emptyMap();
+        MailException sessionError = null;
+        try {
+            // JavaMailSenderImpl sends the whole array over a single transport connection
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            sessionError = e;
+        } catch (MailException e) {
+            sessionError = e;
+        }
+
+        Instant now = Instant.now();
+        for (int i = 0; i < emails.size(); i++) {
+            OutboundEmail email = emails.get(i);
+            Exception error = failures.get(messages[i]);
+            if (error == null && sessionError != null && failures.isEmpty()) {
+                error = sessionError; // connection-level failure: nothing was sent
+            }
+
+            if (error == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                sentCounter.increment();
+            } else {
+                scheduleRetry(email, error, now);
+            }
+        }
+        outboundEmailRepository.saveAll(emails);
+    }
+
+    private void scheduleRetry(OutboundEmail email, Exception error, Instant now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        email.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            failedCounter.increment();
+            log.warn("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts);
+            return;
+        }
+
+        // exponential backoff: base, 2x base, 4x base, ...
+        long delay = baseBackoffMs << Math.min(attempts - 1, 10);
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(now.plusMillis(delay));
+    }
+}
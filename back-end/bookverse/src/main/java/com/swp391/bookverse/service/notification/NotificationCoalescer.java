@@ -0,0 +1,151 @@
+package com.swp391.bookverse.service.notification;
+
+import com.swp391.bookverse.dto.request.NotificationBroadCastCreationRequest;
+import com.swp391.bookverse.enums.NotificationTemplate;
+import com.swp391.bookverse.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Merges bursts of the same broadcast into one digest notification.
+ * The first event of a kind (broadcast type + template + digest parameters) opens a window of
+ * "bookverse.notification.coalesce.window-ms"; events of the same kind arriving in it only add their target
+ * (the book, order, ... they are about) to the window.
+ * When the window closes, if all events were about one target the latest one is sent as is, otherwise the
+ * digest template is sent with the number of distinct targets as {0} (e.g. "42 books updated.").
+ * Events are queued after the caller's transaction commits and are kept in memory only: the ones still in a
+ * window are sent on shutdown, but lost if the instance crashes.
+ * A window of 0 turns coalescing off, every event is broadcast right away in the caller's transaction.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class NotificationCoalescer {
+    NotificationService notificationService;
+    long windowMillis;
+
+    Map<Key, Window> windows = new ConcurrentHashMap<>();
+
+    public NotificationCoalescer(NotificationService notificationService,
+                                 @Value("${bookverse.notification.coalesce.window-ms:30000}") long windowMillis) {
+        this.notificationService = notificationService;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Broadcast a notification, merged with the same ones sent within the window.
+     * @param request the broadcast, built with a template
+     * @param target id of what the event is about (book id, order id, ...)
+     * @param digest template sent instead when events about several targets were merged; {0} is the number
+     *               of targets
+     * @param digestParams further parameters of the digest ({1}, ...), part of the kind: events only merge
+     *                     when these are equal
+     */
+    public void broadcast(NotificationBroadCastCreationRequest request, Object target, NotificationTemplate digest,
+                          Object... digestParams) {
+        if (windowMillis <= 0 || request.getTemplate() == null) {
+            notificationService.createBroadcastNotification(request);
+            return;
+        }
+        Key key = new Key(request.getType().name(), request.getTemplate(), digest,
+                Arrays.stream(digestParams).map(String::valueOf).toList());
+        String targetId = String.valueOf(target);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(key, targetId, request);
+                }
+            });
+        } else {
+            add(key, targetId, request);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bookverse.notification.coalesce.flush-interval-ms:1000}")
+    public void flushExpired() {
+        flush(System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(Long.MAX_VALUE);
+    }
+
+    /**
+     * A window is only changed inside compute() and taken out with computeIfPresent(), so an event is either
+     * added to a window before it is flushed or opens a new one.
+     */
+    private void add(Key key, String target, NotificationBroadCastCreationRequest request) {
+        long now = System.currentTimeMillis();
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                window = new Window(now + windowMillis);
+            }
+            window.targets.add(target);
+            window.latest = request;
+            return window;
+        });
+    }
+
+    private void flush(long now) {
+        List<Map.Entry<Key, Window>> closed = new ArrayList<>();
+        for (Key key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> {
+                if (window.closesAt > now) {
+                    return window;
+                }
+                closed.add(Map.entry(k, window));
+                return null;
+            });
+        }
+        closed.forEach(entry -> send(entry.getKey(), entry.getValue()));
+    }
+
+    private void send(Key key, Window window) {
+        NotificationBroadCastCreationRequest request = window.latest;
+        int targets = window.targets.size();
+        if (targets > 1) {
+            Object[] params = Stream.concat(Stream.of(targets), key.digestParams.stream()).toArray();
+            request = NotificationBroadCastCreationRequest.builder()
+                    .type(window.latest.getType())
+                    .template(key.digest, params)
+                    .build();
+        }
+        try {
+            notificationService.createBroadcastNotification(request);
+        } catch (RuntimeException e) {
+            log.error("Failed to send {} notification ({} targets)", key.template, targets, e);
+        }
+    }
+
+    private record Key(String type, NotificationTemplate template, NotificationTemplate digest,
+                       List<String> digestParams) {
+    }
+
+    private static class Window {
+        final long closesAt;
+        final Set<String> targets = new HashSet<>();
+        NotificationBroadCastCreationRequest latest;
+
+        Window(long closesAt) {
+            this.closesAt = closesAt;
+        }
+    }
+}
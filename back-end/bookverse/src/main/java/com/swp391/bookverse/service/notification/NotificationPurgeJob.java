@@ -0,0 +1,236 @@
+package com.swp391.bookverse.service.notification;
+
+import com.swp391.bookverse.configuration.NotificationRetentionProperties;
+import com.swp391.bookverse.enums.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes notifications past their retention (bookverse.notification.retention.policies, per type)
+ * from notification and notification_archive.
+ * Tables are walked by primary key range, "chunk-size" ids per DELETE and transaction, with a pause between
+ * chunks so locks stay short and replicas keep up. Ids follow insertion time, so the walk stops at the first
+ * chunk newer than every cutoff.
+ * Unread rows deleted from notification are taken off the users' unread counters in the same transaction.
+ * Metrics: bookverse.notification.purged (rows), bookverse.notification.purge.rate (rows/s of the last run),
+ * bookverse.notification.table.rows / .bytes (from information_schema, refreshed after each run).
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class NotificationPurgeJob {
+    static String LIVE_TABLE = "notification";
+    static List<String> TABLES = List.of(LIVE_TABLE, "notification_archive");
+    static String TABLE_SIZE = """
+            SELECT table_rows, data_length + index_length FROM information_schema.tables
+            WHERE table_schema = DATABASE() AND table_name = ?""";
+    static String DECREMENT_UNREAD = "UPDATE notification_counter SET unread = GREATEST(unread - ?, 0) WHERE user_id = ?";
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    NotificationRetentionProperties properties;
+    UnreadCounterService unreadCounterService;
+    MeterRegistry meterRegistry;
+
+    AtomicLong lastRunRowsPerSecond = new AtomicLong();
+    Map<String, AtomicLong> tableRows = new HashMap<>();
+    Map<String, AtomicLong> tableBytes = new HashMap<>();
+
+    public NotificationPurgeJob(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                NotificationRetentionProperties properties,
+                                UnreadCounterService unreadCounterService,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.unreadCounterService = unreadCounterService;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("bookverse.notification.purge.rate", lastRunRowsPerSecond, AtomicLong::get)
+                .description("Notifications deleted per second during the last purge run")
+                .register(meterRegistry);
+        for (String table : TABLES) {
+            tableRows.put(table, new AtomicLong());
+            tableBytes.put(table, new AtomicLong());
+            Gauge.builder("bookverse.notification.table.rows", tableRows.get(table), AtomicLong::get)
+                    .description("Approximate row count")
+                    .tag("table", table)
+                    .register(meterRegistry);
+            Gauge.builder("bookverse.notification.table.bytes", tableBytes.get(table), AtomicLong::get)
+                    .description("Data and index size")
+                    .tag("table", table)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(cron = "${bookverse.notification.retention.cron:0 0 4 * * *}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Rules rules = Rules.of(properties.getPolicies(), LocalDateTime.now());
+        if (rules.where.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        long total = 0;
+        for (String table : TABLES) {
+            try {
+                long purged = purgeTable(table, rules);
+                Counter.builder("bookverse.notification.purged")
+                        .description("Notifications deleted by the retention job")
+                        .tag("table", table)
+                        .register(meterRegistry)
+                        .increment(purged);
+                total += purged;
+            } catch (DataAccessException e) {
+                log.error("Purging {} failed, will retry on the next run", table, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+        lastRunRowsPerSecond.set(Math.round(total / seconds));
+        refreshTableSizes();
+        if (total > 0) {
+            log.info("Purged {} notifications in {}s", total, Math.round(seconds));
+        }
+    }
+
+    private long purgeTable(String table, Rules rules) throws InterruptedException {
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table, Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        String delete = "DELETE FROM " + table + " WHERE id >= ? AND id < ? AND (" + rules.where + ")";
+        String lockUnread = "SELECT user_id FROM " + table
+                + " WHERE id >= ? AND id < ? AND is_read = false AND (" + rules.where + ") FOR UPDATE";
+        String nextCreatedAt = "SELECT created_at FROM " + table + " WHERE id >= ? ORDER BY id LIMIT 1";
+        boolean countUnread = table.equals(LIVE_TABLE) && rules.deletesUnread;
+        long purged = 0;
+        boolean unreadDeleted = false;
+
+        for (long from = minId; from <= maxId; from += properties.getChunkSize()) {
+            Object[] params = rules.params(from, from + properties.getChunkSize());
+            Chunk chunk = transactionTemplate.execute(status -> {
+                Map<ByteBuffer, Integer> unreadByUser = new HashMap<>();
+                if (countUnread) {
+                    jdbcTemplate.query(lockUnread, rs -> {
+                        unreadByUser.merge(ByteBuffer.wrap(rs.getBytes(1)), 1, Integer::sum);
+                    }, params);
+                }
+                int deleted = jdbcTemplate.update(delete, params);
+                if (!unreadByUser.isEmpty()) {
+                    // counter rows in user id order, like the other counter writers
+                    List<Object[]> updates = new ArrayList<>();
+                    unreadByUser.entrySet().stream()
+                            .sorted((a, b) -> Arrays.compareUnsigned(a.getKey().array(), b.getKey().array()))
+                            .forEach(e -> updates.add(new Object[]{e.getValue(), e.getKey().array()}));
+                    jdbcTemplate.batchUpdate(DECREMENT_UNREAD, updates);
+                }
+                return new Chunk(deleted, !unreadByUser.isEmpty());
+            });
+            if (chunk != null) {
+                purged += chunk.deleted;
+                unreadDeleted |= chunk.unreadDeleted;
+            }
+
+            List<Timestamp> next = jdbcTemplate.queryForList(nextCreatedAt, Timestamp.class,
+                    from + properties.getChunkSize());
+            if (next.isEmpty() || next.get(0) == null || !next.get(0).toLocalDateTime().isBefore(rules.newestCutoff)) {
+                break;
+            }
+            if (chunk != null && chunk.deleted > 0 && properties.getPauseMs() > 0) {
+                Thread.sleep(properties.getPauseMs());
+            }
+        }
+
+        if (unreadDeleted) {
+            unreadCounterService.invalidateAll();
+        }
+        return purged;
+    }
+
+    private void refreshTableSizes() {
+        for (String table : TABLES) {
+            try {
+                jdbcTemplate.query(TABLE_SIZE, rs -> {
+                    tableRows.get(table).set(rs.getLong(1));
+                    tableBytes.get(table).set(rs.getLong(2));
+                }, table);
+            } catch (DataAccessException e) {
+                log.warn("Could not read the size of {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    private record Chunk(int deleted, boolean unreadDeleted) {
+    }
+
+    /**
+     * The retention policies as one SQL condition: per type, read rows older than readDays and any row older
+     * than unreadDays.
+     */
+    private record Rules(String where, List<Object> whereParams, boolean deletesUnread, LocalDateTime newestCutoff) {
+
+        static Rules of(Map<NotificationType, NotificationRetentionProperties.Policy> policies, LocalDateTime now) {
+            List<String> conditions = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            boolean deletesUnread = false;
+            LocalDateTime newestCutoff = LocalDateTime.MIN;
+
+            for (Map.Entry<NotificationType, NotificationRetentionProperties.Policy> entry : policies.entrySet()) {
+                NotificationRetentionProperties.Policy policy = entry.getValue();
+                if (policy.getReadDays() != null) {
+                    LocalDateTime cutoff = now.minusDays(policy.getReadDays());
+                    conditions.add("(type = ? AND is_read = true AND created_at < ?)");
+                    params.add(entry.getKey().name());
+                    params.add(Timestamp.valueOf(cutoff));
+                    newestCutoff = cutoff.isAfter(newestCutoff) ? cutoff : newestCutoff;
+                }
+                if (policy.getUnreadDays() != null) {
+                    LocalDateTime cutoff = now.minusDays(policy.getUnreadDays());
+                    conditions.add("(type = ? AND created_at < ?)");
+                    params.add(entry.getKey().name());
+                    params.add(Timestamp.valueOf(cutoff));
+                    newestCutoff = cutoff.isAfter(newestCutoff) ? cutoff : newestCutoff;
+                    deletesUnread = true;
+                }
+            }
+            return new Rules(String.join(" OR ", conditions), params, deletesUnread, newestCutoff);
+        }
+
+        Object[] params(long fromId, long toId) {
+            List<Object> all = new ArrayList<>(whereParams.size() + 2);
+            all.add(fromId);
+            all.add(toId);
+            all.addAll(whereParams);
+            return all.toArray();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.swp391.bookverse.service.notification;
+
+import com.swp391.bookverse.entity.Notification;
+import com.swp391.bookverse.enums.NotificationTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.mapstruct.Named;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the template id + parameters stored on a notification back into its text.
+ * Bodies come from notification_template for "bookverse.notification.templates.locale" (falling back to en),
+ * loaded at startup into memory and reloaded every "refresh-ms", so rendering never touches the database.
+ * Parameters are stored in one column, separated by the unit separator (U+001F).
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class NotificationTemplateService {
+    static String DEFAULT_LOCALE = "en";
+    static char SEPARATOR = '\u001F';
+    static String BODIES = "SELECT id, body FROM notification_template WHERE locale = ?";
+
+    JdbcTemplate jdbcTemplate;
+    String locale;
+
+    @NonFinal
+    volatile Map<Short, String> bodies = Map.of();
+
+    public NotificationTemplateService(JdbcTemplate jdbcTemplate,
+                                       @Value("${bookverse.notification.templates.locale:en}") String locale) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.locale = locale;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${bookverse.notification.templates.refresh-ms:600000}",
+            fixedDelayString = "${bookverse.notification.templates.refresh-ms:600000}")
+    public void refresh() {
+        try {
+            Map<Short, String> loaded = new HashMap<>(load(DEFAULT_LOCALE));
+            if (!DEFAULT_LOCALE.equals(locale)) {
+                loaded.putAll(load(locale));
+            }
+            bodies = Map.copyOf(loaded);
+        } catch (DataAccessException e) {
+            log.error("Could not load notification templates, keeping the previous ones", e);
+        }
+    }
+
+    /**
+     * @param params template parameters, in order
+     * @return the value of the params column, null when there are none
+     */
+    public String encode(List<String> params) {
+        if (params == null || params.isEmpty()) {
+            return null;
+        }
+        return params.stream()
+                .map(param -> param.replace(String.valueOf(SEPARATOR), ""))
+                .collect(Collectors.joining(String.valueOf(SEPARATOR)));
+    }
+
+    /**
+     * Text of a notification.
+     * @param templateId template id, null for free-text notifications
+     * @param params encoded parameters
+     * @param content free text, returned as is when there is no template
+     * @return the rendered text
+     */
+    public String render(Short templateId, String params, String content) {
+        if (templateId == null) {
+            return content;
+        }
+        String[] values = params == null ? new String[0] : params.split(String.valueOf(SEPARATOR), -1);
+        String body = bodies.get(templateId);
+        if (body == null) {
+            // unknown id (e.g. a template added by a newer version): still show something readable
+            return templateId + ": " + String.join(", ", values);
+        }
+        return substitute(body, values);
+    }
+
+    /**
+     * Replace each {i} of the body with values[i] in a single pass, so braces inside a value (e.g. a book
+     * titled "Sale {1}") are copied as is. MessageFormat would treat the apostrophes in the bodies as quotes.
+     * Placeholders without a value are left as they are.
+     */
+    static String substitute(String body, String[] values) {
+        StringBuilder text = new StringBuilder(body.length() + 32);
+        int i = 0;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            int close = c == '{' ? body.indexOf('}', i + 1) : -1;
+            int index = close > i + 1 ? placeholderIndex(body, i + 1, close) : -1;
+            if (index >= 0 && index < values.length) {
+                text.append(values[index]);
+                i = close + 1;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the number between from and to (exclusive), or -1 if it is not a small non-negative number
+     */
+    private static int placeholderIndex(String body, int from, int to) {
+        if (to - from > 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            char digit = body.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            index = index * 10 + (digit - '0');
+        }
+        return index;
+    }
+
+    public String render(NotificationTemplate template, List<String> params) {
+        return render(template.getId(), encode(params), null);
+    }
+
+    @Named("notificationContent")
+    public String content(Notification notification) {
+        return render(notification.getTemplateId(), notification.getParams(), notification.getContent());
+    }
+
+    private Map<Short, String> load(String locale) {
+        Map<Short, String> loaded = new HashMap<>();
+        jdbcTemplate.query(BODIES, rs -> {
+            loaded.put(rs.getShort(1), rs.getString(2));
+        }, locale);
+        return loaded;
+    }
+}
@@ -0,0 +1,224 @@
+package com.swp391.bookverse.service.notification;
+
+import com.swp391.bookverse.exception.AppException;
+import com.swp391.bookverse.exception.ErrorCode;
+import com.swp391.bookverse.repository.NotificationCounterRepository;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notification count per user, stored in notification_counter and cached in memory by username,
+ * so the bell poll is a map lookup on a cache hit.
+ * - add() changes the counter inside the caller's transaction (the same one that creates, reads or deletes
+ *   the notification) and drops the cached value once it commits.
+ * - Cached values expire after "bookverse.notification.unread.cache-ttl-ms", which also bounds how long
+ *   another instance can serve a stale count.
+ * - reconcile() recounts unread notifications for every user in batches and fixes counters that drifted.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class UnreadCounterService {
+    static String USERS_AFTER = "SELECT id, username FROM `user` WHERE id > ? ORDER BY id LIMIT ?";
+    static String CREATE_MISSING = "INSERT IGNORE INTO notification_counter (user_id, unread) VALUES (?, 0)";
+    static String LOCK_COUNTERS = "SELECT user_id, unread FROM notification_counter WHERE user_id IN (:ids) FOR UPDATE";
+    static String COUNT_UNREAD = """
+            SELECT user_id, COUNT(*) FROM notification
+            WHERE is_read = false AND user_id IN (:ids)
+            GROUP BY user_id""";
+    static String SET_UNREAD = "UPDATE notification_counter SET unread = ? WHERE user_id = ?";
+
+    NotificationCounterRepository counterRepository;
+    JdbcTemplate jdbcTemplate;
+    NamedParameterJdbcTemplate namedJdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    long cacheTtlMillis;
+    int cacheMaxEntries;
+    int reconcileBatchSize;
+
+    Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+    /** bumped on every invalidation, so a load that raced with a commit does not cache its old value */
+    AtomicLong invalidations = new AtomicLong();
+
+    public UnreadCounterService(NotificationCounterRepository counterRepository,
+                                JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${bookverse.notification.unread.cache-ttl-ms:300000}") long cacheTtlMillis,
+                                @Value("${bookverse.notification.unread.cache-max-entries:100000}") int cacheMaxEntries,
+                                @Value("${bookverse.notification.unread.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.counterRepository = counterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    /**
+     * @param username username of the user
+     * @return number of unread notifications
+     */
+    public long unreadCount(String username) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(username);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.unread;
+        }
+
+        long version = invalidations.get();
+        int unread = counterRepository.findUnreadByUsername(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+        if (cache.size() >= cacheMaxEntries) {
+            cache.clear();
+        }
+        if (invalidations.get() == version) {
+            cache.put(username, new CachedCount(unread, now + cacheTtlMillis));
+        }
+        return unread;
+    }
+
+    /**
+     * Change the unread counter of a user. Must run in the transaction that changes the notifications;
+     * the cached value is dropped after it commits.
+     * @param userId user id
+     * @param username username, the cache key
+     * @param delta +n for new unread notifications, -n for notifications read or deleted while unread
+     */
+    public void add(String userId, String username, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        counterRepository.add(userId, delta);
+        evictAfterCommit(List.of(username));
+    }
+
+    /**
+     * +1 for every user with the role, in one statement (a broadcast). Counter rows are locked in user id order,
+     * like reconcile(), so the two cannot deadlock.
+     * @param role role name as stored in user_role
+     * @param usernames usernames of those users, whose cached counts are dropped after commit
+     */
+    public void addOneForRole(String role, List<String> usernames) {
+        counterRepository.addOneForRole(role);
+        evictAfterCommit(usernames);
+    }
+
+    /**
+     * Drop every cached count, after counters were changed in bulk (e.g. by the retention purge).
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Recount unread notifications per user and fix the counters that differ.
+     * Each batch locks its counter rows first, so a notification committed concurrently is either in the
+     * count or applied to the counter after the batch, never lost.
+     */
+    @Scheduled(initialDelayString = "${bookverse.notification.unread.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${bookverse.notification.unread.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        byte[] lastId = new byte[16];
+        int fixed = 0;
+        try {
+            while (true) {
+                Map<ByteBuffer, String> users = new HashMap<>();
+                List<byte[]> ids = new ArrayList<>();
+                jdbcTemplate.query(USERS_AFTER, rs -> {
+                    byte[] id = rs.getBytes(1);
+                    ids.add(id);
+                    users.put(ByteBuffer.wrap(id), rs.getString(2));
+                }, lastId, reconcileBatchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                fixed += reconcileBatch(ids, users);
+                if (ids.size() < reconcileBatchSize) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+            }
+        } catch (DataAccessException e) {
+            log.error("Unread counter reconciliation failed, will retry on the next run", e);
+        }
+        if (fixed > 0) {
+            log.warn("Fixed {} unread notification counters that had drifted", fixed);
+        }
+    }
+
+    private int reconcileBatch(List<byte[]> ids, Map<ByteBuffer, String> users) {
+        List<String> fixedUsernames = new ArrayList<>();
+        Integer fixed = transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(CREATE_MISSING, ids.stream().map(id -> new Object[]{id}).toList());
+
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+            Map<ByteBuffer, Integer> stored = new HashMap<>();
+            namedJdbcTemplate.query(LOCK_COUNTERS, params,
+                    rs -> { stored.put(ByteBuffer.wrap(rs.getBytes(1)), rs.getInt(2)); });
+            // read after the locks are held, so the count includes every commit that touched these counters
+            Map<ByteBuffer, Integer> actual = new HashMap<>();
+            namedJdbcTemplate.query(COUNT_UNREAD, params,
+                    rs -> { actual.put(ByteBuffer.wrap(rs.getBytes(1)), rs.getInt(2)); });
+
+            List<Object[]> updates = new ArrayList<>();
+            stored.forEach((id, unread) -> {
+                int expected = actual.getOrDefault(id, 0);
+                if (unread != expected) {
+                    updates.add(new Object[]{expected, id.array()});
+                    fixedUsernames.add(users.get(id));
+                }
+            });
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(SET_UNREAD, updates);
+            }
+            return updates.size();
+        });
+        if (!fixedUsernames.isEmpty()) {
+            invalidate(fixedUsernames);
+        }
+        return fixed == null ? 0 : fixed;
+    }
+
+    private void evictAfterCommit(List<String> usernames) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(usernames);
+                }
+            });
+        } else {
+            invalidate(usernames);
+        }
+    }
+
+    private void invalidate(List<String> usernames) {
+        invalidations.incrementAndGet();
+        usernames.forEach(cache::remove);
+    }
+
+    private record CachedCount(long unread, long expiresAt) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.swp391.bookverse.service.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes stored images to the HTTP response.
+ * - Uses Tomcat's sendfile support when the connector offers it, so the kernel copies the file to the socket.
+ *   Otherwise the file is copied with FileChannel.transferTo.
+ * - Supports a single "Range: bytes=..." range (206, or 416 when it starts past the end of the file).
+ *   Multi-range requests and invalid ranges (last byte before the first) get the whole file.
+ * - Content-addressed files (named by their SHA-256) get a strong ETag and a one year immutable Cache-Control.
+ *   Older timestamp-named files and thumbnails (named after their original, but re-rendered when the
+ *   thumbnail settings change) get a weak ETag from size and modification time and a short max-age.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class ImageDeliveryService {
+    static Pattern CONTENT_HASH = Pattern.compile("^([0-9a-f]{64})\\.[a-z0-9]+$");
+    static Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d{0,18})-(\\d{0,18})$");
+    static String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    ImageStorageService imageStorageService;
+
+    /**
+     * Serve the image stored under a DB path.
+     * @param imagePath DB path, e.g. "/img/book/ab12...ef.jpg"
+     */
+    public void serve(String imagePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = imageStorageService.locate(imagePath).orElse(null);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        String fileName = file.getFileName().toString();
+        Matcher hash = CONTENT_HASH.matcher(fileName);
+        boolean contentAddressed = hash.matches() && !isThumbnail(file);
+        String etag = contentAddressed
+                ? "\"" + hash.group(1) + "\""
+                : "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed
+                ? "public, max-age=31536000, immutable"
+                : "public, max-age=3600");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .map(Object::toString)
+                .orElse("application/octet-stream"));
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // a weak ETag can never satisfy If-Range, so only honour Range for unchanged strong validators
+        boolean rangeAllowed = ifRange == null || (contentAddressed && ifRange.equals(etag));
+        if (range != null && rangeAllowed) {
+            Matcher m = SINGLE_RANGE.matcher(range.trim());
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty()) && isValidRange(m)) {
+                if (m.group(1).isEmpty()) {
+                    // suffix range: last N bytes
+                    long suffix = Long.parseLong(m.group(2));
+                    start = Math.max(0, length - suffix);
+                } else {
+                    start = Long.parseLong(m.group(1));
+                    if (!m.group(2).isEmpty()) {
+                        end = Math.min(Long.parseLong(m.group(2)), length - 1);
+                    }
+                }
+                if (start >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file with sendfile once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = in.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * A range whose last byte is before its first is invalid, so the Range header is ignored (RFC 9110 14.2).
+     */
+    private static boolean isValidRange(Matcher range) {
+        return range.group(1).isEmpty() || range.group(2).isEmpty()
+                || Long.parseLong(range.group(2)) >= Long.parseLong(range.group(1));
+    }
+
+    /**
+     * Thumbnails live in "img/{folder}/thumb/{width}/".
+     */
+    private static boolean isThumbnail(Path file) {
+        Path widthDir = file.getParent();
+        Path thumbDir = widthDir == null ? null : widthDir.getParent();
+        return thumbDir != null && thumbDir.getFileName() != null && thumbDir.getFileName().toString().equals("thumb");
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses weak comparison
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
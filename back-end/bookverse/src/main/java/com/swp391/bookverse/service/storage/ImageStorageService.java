@@ -0,0 +1,38 @@
+package com.swp391.bookverse.service.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Stores uploaded images (book covers, author photos, avatars) and their resized variants.
+ * Paths returned by this service are what gets saved in the DB, e.g. "/img/book/ab12...ef.jpg".
+ */
+public interface ImageStorageService {
+
+    /**
+     * Validate and store an uploaded image. Identical files are stored only once.
+     * Thumbnails are generated in the background.
+     * @param imageFile the multipart file to upload
+     * @param folder the folder to save the image in (e.g., "author", "book", "avatar")
+     * @return the DB path of the stored image, or null if the file is empty
+     */
+    String store(MultipartFile imageFile, String folder);
+
+    /**
+     * DB path of the smallest thumbnail of an image, for listing grids.
+     * @param imagePath DB path returned by store (other values, e.g. external URLs, have no thumbnail)
+     * @return DB path of the thumbnail, or null if there is none: not generated yet, or the image was
+     *         stored before thumbnails existed
+     */
+    String listingThumbnail(String imagePath);
+
+    /**
+     * Find the file behind a DB path, e.g. "/img/book/ab12...ef.jpg".
+     * Paths that point outside the image directory are rejected.
+     * @param imagePath DB path of an image or thumbnail
+     * @return the file if it exists
+     */
+    Optional<Path> locate(String imagePath);
+}
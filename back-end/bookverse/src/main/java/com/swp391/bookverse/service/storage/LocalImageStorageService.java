@@ -0,0 +1,299 @@
+package com.swp391.bookverse.service.storage;
+
+import com.swp391.bookverse.exception.AppException;
+import com.swp391.bookverse.exception.ErrorCode;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * ImageStorageService that writes to the local filesystem under "bookverse.storage.local.root"
+ * (by default the front-end "public" folder, so "/img/..." paths are served as before).
+ * - Uploads are streamed to a temp file with FileChannel.transferFrom while computing their SHA-256,
+ *   then moved to "img/{folder}/{sha256}.{ext}". An identical upload reuses the existing file.
+ * - JPEG thumbnails are written to "img/{folder}/thumb/{width}/{sha256}.jpg" on the "imageProcessingExecutor" pool.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class LocalImageStorageService implements ImageStorageService {
+    static long MAX_SIZE = 5 * 1024 * 1024; // 5MB
+    static long TRANSFER_CHUNK = 64 * 1024;
+
+    Path root;
+    List<Integer> thumbnailWidths;
+    float thumbnailQuality;
+    ThreadPoolTaskExecutor imageExecutor;
+
+    public LocalImageStorageService(@Value("${bookverse.storage.local.root:}") String root,
+                                    @Value("${bookverse.storage.thumbnail-widths:200,400}") List<Integer> thumbnailWidths,
+                                    @Value("${bookverse.storage.thumbnail-quality:0.8}") float thumbnailQuality,
+                                    @Qualifier("imageProcessingExecutor") ThreadPoolTaskExecutor imageExecutor) {
+        this.root = root == null || root.isBlank() ? defaultRoot() : Paths.get(root).toAbsolutePath();
+        this.thumbnailWidths = List.copyOf(thumbnailWidths);
+        this.thumbnailQuality = thumbnailQuality;
+        this.imageExecutor = imageExecutor;
+    }
+
+    @Override
+    public String store(MultipartFile imageFile, String folder) {
+        if (imageFile == null || imageFile.isEmpty()) {
+            return null;
+        }
+
+        // Validate file type
+        String contentType = imageFile.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new AppException(ErrorCode.INVALID_FILE_TYPE);
+        }
+
+        // Validate file size
+        if (imageFile.getSize() > MAX_SIZE) {
+            throw new AppException(ErrorCode.FILE_TOO_LARGE);
+        }
+
+        String originalFilename = imageFile.getOriginalFilename();
+        if (originalFilename == null || originalFilename.isEmpty()) {
+            throw new AppException(ErrorCode.INVALID_FILE_NAME);
+        }
+
+        Path folderPath = root.resolve("img").resolve(folder);
+        Path temp = null;
+        try {
+            Files.createDirectories(folderPath);
+            temp = Files.createTempFile(folderPath, ".upload-", ".tmp");
+
+            String hash = streamToFile(imageFile, temp);
+            String filename = hash + extensionOf(contentType, originalFilename);
+            Path target = folderPath.resolve(filename);
+
+            if (Files.exists(target)) {
+                // same content already stored, keep the existing file
+                Files.delete(temp);
+                log.debug("Reusing stored image {}", target);
+            } else {
+                moveIntoPlace(temp, target);
+            }
+            temp = null;
+
+            scheduleThumbnails(target, folderPath, hash);
+            return "/img/" + folder + "/" + filename;
+
+        } catch (IOException e) {
+            log.error("Image upload failed", e);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete temp upload {}", temp);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String listingThumbnail(String imagePath) {
+        if (imagePath == null || !imagePath.startsWith("/img/") || thumbnailWidths.isEmpty()) {
+            return null;
+        }
+        String thumbnail = thumbnailPath(imagePath, Collections.min(thumbnailWidths));
+        return locate(thumbnail).isPresent() ? thumbnail : null;
+    }
+
+    /**
+     * "/img/{folder}/{name}.{ext}" -> "/img/{folder}/thumb/{width}/{name}.jpg"
+     */
+    private static String thumbnailPath(String imagePath, int width) {
+        int slash = imagePath.lastIndexOf('/');
+        String dir = imagePath.substring(0, slash);
+        String name = imagePath.substring(slash + 1);
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return dir + "/thumb/" + width + "/" + base + ".jpg";
+    }
+
+    @Override
+    public Optional<Path> locate(String imagePath) {
+        if (imagePath == null || !imagePath.startsWith("/img/")) {
+            return Optional.empty();
+        }
+        Path imageRoot = root.resolve("img").normalize();
+        Path file = imageRoot.resolve(imagePath.substring("/img/".length())).normalize();
+        if (!file.startsWith(imageRoot) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        // uploads and thumbnails being written (.upload-*.tmp, .thumb-*.tmp) are not served
+        if (file.getFileName().toString().startsWith(".")) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Copy the upload into the temp file through a FileChannel and return its SHA-256 in hex.
+     */
+    private String streamToFile(MultipartFile imageFile, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(imageFile.getInputStream(), digest);
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+                if (position > MAX_SIZE) {
+                    throw new AppException(ErrorCode.FILE_TOO_LARGE);
+                }
+            }
+            out.force(false);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // a concurrent upload of the same file won the race
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void scheduleThumbnails(Path original, Path folderPath, String hash) {
+        try {
+            imageExecutor.execute(() -> generateThumbnails(original, folderPath, hash));
+        } catch (TaskRejectedException e) {
+            // the original is stored, thumbnails are only an optimization
+            log.warn("Thumbnail pool saturated, skipping thumbnails for {}", original);
+        }
+    }
+
+    private void generateThumbnails(Path original, Path folderPath, String hash) {
+        BufferedImage source = null;
+        for (int width : thumbnailWidths) {
+            Path target = folderPath.resolve("thumb").resolve(String.valueOf(width)).resolve(hash + ".jpg");
+            if (Files.exists(target)) {
+                continue;
+            }
+            try {
+                if (source == null) {
+                    source = ImageIO.read(original.toFile());
+                    if (source == null) {
+                        log.warn("Unsupported image format, no thumbnails for {}", original);
+                        return;
+                    }
+                }
+                Files.createDirectories(target.getParent());
+                Path temp = Files.createTempFile(target.getParent(), ".thumb-", ".tmp");
+                writeJpeg(resize(source, width), temp);
+                moveIntoPlace(temp, target);
+            } catch (IOException e) {
+                log.warn("Could not create {}px thumbnail for {}", width, original, e);
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE); // flatten transparent PNGs onto white
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(thumbnailQuality);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String extensionOf(String contentType, String originalFilename) {
+        return switch (contentType.toLowerCase(Locale.ROOT)) {
+            case "image/jpeg", "image/jpg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/webp" -> ".webp";
+            case "image/gif" -> ".gif";
+            default -> {
+                int dot = originalFilename.lastIndexOf('.');
+                String ext = dot > 0 ? originalFilename.substring(dot).toLowerCase(Locale.ROOT) : "";
+                yield ext.matches("\\.[a-z0-9]{1,5}") ? ext : "";
+            }
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Same location the services used before: "{project root}/front-end/public".
+     */
+    private static Path defaultRoot() {
+        String projectRoot = System.getProperty("user.dir")
+                .replace("\\back-end\\bookverse", "")  // Windows
+                .replace("/back-end/bookverse", "");    // Linux/Mac
+        return Paths.get(projectRoot, "front-end", "public").toAbsolutePath();
+    }
+}
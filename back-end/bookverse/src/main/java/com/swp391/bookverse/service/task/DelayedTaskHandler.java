@@ -0,0 +1,18 @@
+package com.swp391.bookverse.service.task;
+
+import com.swp391.bookverse.enums.DelayedTaskType;
+
+/**
+ * Runs the delayed tasks of one type.
+ * Execution is at least once: a task can run again after a crash or a lost lease, so handle() must be
+ * idempotent (check the current state instead of assuming the task has not run yet).
+ * Throwing makes the scheduler retry the task with backoff.
+ */
+public interface DelayedTaskHandler {
+    DelayedTaskType type();
+
+    /**
+     * @param key task key given to DelayedTaskScheduler.schedule()
+     */
+    void handle(String key);
+}
@@ -0,0 +1,331 @@
+package com.swp391.bookverse.service.task;
+
+import com.swp391.bookverse.enums.DelayedTaskType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable "do X at time T" tasks.
+ * - schedule() writes the task to scheduled_task in the caller's transaction, so it exists exactly when the
+ *   change that needs it was committed.
+ * - Tasks due within "bookverse.tasks.load-ahead-ms" are also held in a hierarchical TimingWheel; the loader
+ *   reads each next slice of due_at once (index range on status, due_at), so tasks further ahead cost only
+ *   their row, whatever their number, and nothing polls the whole table.
+ * - When a task fires it is claimed with a conditional UPDATE (PENDING -> RUNNING with a lease), handled by
+ *   the DelayedTaskHandler of its type on the "delayedTaskExecutor" pool and deleted. A failure is retried
+ *   with exponential backoff until max-attempts, then the row is kept as FAILED.
+ * - Execution is at least once: if an instance dies, the recovery sweep resets expired leases and
+ *   reloads overdue tasks, which may run a task a second time.
+ * Several instances can run side by side; the claim makes sure only one of them handles a task at a time.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class DelayedTaskScheduler {
+    static String UPSERT = """
+            INSERT INTO scheduled_task (type, task_key, due_at, status, attempts, created_at)
+            VALUES (?, ?, ?, 'PENDING', 0, ?)
+            ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), due_at = VALUES(due_at), status = 'PENDING',
+                attempts = 0, locked_until = NULL, last_error = NULL""";
+    static String CANCEL = "DELETE FROM scheduled_task WHERE type = ? AND task_key = ? AND status = 'PENDING'";
+    static String DUE_BETWEEN = """
+            SELECT id, due_at FROM scheduled_task
+            WHERE status = 'PENDING' AND due_at >= ? AND due_at < ? AND id > ?
+            ORDER BY id LIMIT ?""";
+    static String OVERDUE = """
+            SELECT id, due_at FROM scheduled_task
+            WHERE status = 'PENDING' AND due_at < ? AND id > ?
+            ORDER BY id LIMIT ?""";
+    static String RELEASE_EXPIRED_LEASES = """
+            UPDATE scheduled_task SET status = 'PENDING', locked_until = NULL
+            WHERE status = 'RUNNING' AND locked_until < ?""";
+    static String CLAIM = """
+            UPDATE scheduled_task SET status = 'RUNNING', attempts = attempts + 1, locked_until = ?
+            WHERE id = ? AND status = 'PENDING' AND due_at <= ?""";
+    static String CLAIMED = "SELECT type, task_key, attempts FROM scheduled_task WHERE id = ?";
+    static String DONE = "DELETE FROM scheduled_task WHERE id = ? AND status = 'RUNNING'";
+    static String RETRY = """
+            UPDATE scheduled_task SET status = 'PENDING', due_at = ?, locked_until = NULL, last_error = ?
+            WHERE id = ? AND status = 'RUNNING'""";
+    static String FAIL = """
+            UPDATE scheduled_task SET status = 'FAILED', locked_until = NULL, last_error = ?
+            WHERE id = ? AND status = 'RUNNING'""";
+
+    JdbcTemplate jdbcTemplate;
+    ThreadPoolTaskExecutor executor;
+    Map<DelayedTaskType, DelayedTaskHandler> handlers = new EnumMap<>(DelayedTaskType.class);
+    TimingWheel wheel;
+    long loadAheadMillis;
+    long leaseMillis;
+    long baseBackoffMillis;
+    int maxAttempts;
+    int batchSize;
+
+    /** tasks due before this are in the wheel (or picked up by the recovery sweep); guarded by wheel */
+    @NonFinal
+    long loadedUntil;
+
+    Counter completedCounter;
+    Counter failedCounter;
+    AtomicLong wheelSize = new AtomicLong();
+
+    public DelayedTaskScheduler(JdbcTemplate jdbcTemplate,
+                                @Qualifier("delayedTaskExecutor") ThreadPoolTaskExecutor executor,
+                                List<DelayedTaskHandler> handlers,
+                                MeterRegistry meterRegistry,
+                                @Value("${bookverse.tasks.tick-ms:1000}") long tickMillis,
+                                @Value("${bookverse.tasks.wheel-levels:4}") int wheelLevels,
+                                @Value("${bookverse.tasks.load-ahead-ms:3600000}") long loadAheadMillis,
+                                @Value("${bookverse.tasks.lease-ms:300000}") long leaseMillis,
+                                @Value("${bookverse.tasks.base-backoff-ms:10000}") long baseBackoffMillis,
+                                @Value("${bookverse.tasks.max-attempts:10}") int maxAttempts,
+                                @Value("${bookverse.tasks.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+        this.wheel = new TimingWheel(tickMillis, wheelLevels, System.currentTimeMillis());
+        this.loadAheadMillis = Math.min(loadAheadMillis, wheel.horizonMillis());
+        this.leaseMillis = leaseMillis;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.batchSize = batchSize;
+
+        completedCounter = Counter.builder("bookverse.tasks.completed")
+                .description("Delayed tasks handled successfully")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("bookverse.tasks.failed")
+                .description("Delayed tasks given up after max-attempts")
+                .register(meterRegistry);
+        Gauge.builder("bookverse.tasks.wheel.size", wheelSize, AtomicLong::get)
+                .description("Delayed tasks waiting in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a task at dueAt (or right away if it is in the past). Scheduling the same type and key again moves
+     * the task to the new time. Joins the caller's transaction: nothing is scheduled if it rolls back.
+     * @param type task type, handled by the DelayedTaskHandler of that type
+     * @param key what the task is about, e.g. an order id
+     * @param dueAt when to run it
+     */
+    public void schedule(DelayedTaskType type, String key, LocalDateTime dueAt) {
+        Timestamp due = Timestamp.valueOf(dueAt);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPSERT, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, type.name());
+            ps.setString(2, key);
+            ps.setTimestamp(3, due);
+            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            return ps;
+        }, keyHolder);
+        Number id = keyHolder.getKey();
+        if (id == null) {
+            return;
+        }
+        long taskId = id.longValue();
+        long dueMillis = due.getTime();
+        afterCommit(() -> enqueue(taskId, dueMillis));
+    }
+
+    /**
+     * Drop a task that is not needed anymore. Optional when the handler checks the state anyway,
+     * but keeps the table small. A task already running is not affected.
+     */
+    public void cancel(DelayedTaskType type, String key) {
+        jdbcTemplate.update(CANCEL, type.name(), key);
+    }
+
+    @Scheduled(fixedRateString = "${bookverse.tasks.tick-ms:1000}")
+    public void tick() {
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+            wheelSize.set(wheel.size());
+        }
+        due.forEach(this::submit);
+    }
+
+    /**
+     * Move the next slice of upcoming tasks from the table into the wheel.
+     * The bound is raised before reading, so a task committed meanwhile is either added by schedule()
+     * or found by the query (or both, which is harmless).
+     */
+    @Scheduled(initialDelayString = "${bookverse.tasks.initial-delay-ms:10000}",
+            fixedDelayString = "${bookverse.tasks.load-interval-ms:60000}")
+    public void loadUpcoming() {
+        long from;
+        long until = System.currentTimeMillis() + loadAheadMillis;
+        synchronized (wheel) {
+            from = loadedUntil;
+            if (until <= from) {
+                return;
+            }
+            loadedUntil = until;
+        }
+        try {
+            load(DUE_BETWEEN, new Timestamp(from), new Timestamp(until));
+        } catch (DataAccessException e) {
+            synchronized (wheel) {
+                loadedUntil = Math.min(loadedUntil, from);
+            }
+            log.error("Failed to load upcoming delayed tasks, will retry", e);
+        }
+    }
+
+    /**
+     * Safety net for at-least-once execution: release tasks whose lease expired (the instance running them
+     * died) and queue every task that is overdue, e.g. scheduled by an instance that went down before
+     * running it. Normally both find nothing.
+     */
+    @Scheduled(initialDelayString = "${bookverse.tasks.recovery-interval-ms:300000}",
+            fixedDelayString = "${bookverse.tasks.recovery-interval-ms:300000}")
+    public void recover() {
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            int released = jdbcTemplate.update(RELEASE_EXPIRED_LEASES, now);
+            if (released > 0) {
+                log.warn("Released {} delayed tasks whose lease expired", released);
+            }
+            load(OVERDUE, now);
+        } catch (DataAccessException e) {
+            log.error("Delayed task recovery failed, will retry on the next run", e);
+        }
+    }
+
+    private void load(String query, Object... range) {
+        long lastId = 0;
+        int read;
+        do {
+            Object[] params = new Object[range.length + 2];
+            System.arraycopy(range, 0, params, 0, range.length);
+            params[range.length] = lastId;
+            params[range.length + 1] = batchSize;
+
+            List<long[]> tasks = jdbcTemplate.query(query,
+                    (rs, i) -> new long[]{rs.getLong(1), rs.getTimestamp(2).getTime()}, params);
+            tasks.forEach(task -> enqueue(task[0], task[1]));
+            read = tasks.size();
+            if (read > 0) {
+                lastId = tasks.get(read - 1)[0];
+            }
+        } while (read == batchSize);
+    }
+
+    private void enqueue(long taskId, long dueMillis) {
+        boolean waiting;
+        synchronized (wheel) {
+            if (dueMillis >= loadedUntil) {
+                // the loader will read it with its slice
+                return;
+            }
+            waiting = wheel.add(taskId, dueMillis);
+            wheelSize.set(wheel.size());
+        }
+        if (!waiting) {
+            submit(taskId);
+        }
+    }
+
+    private void submit(long taskId) {
+        executor.execute(() -> run(taskId));
+    }
+
+    private void run(long taskId) {
+        long now = System.currentTimeMillis();
+        Claimed task;
+        try {
+            int claimed = jdbcTemplate.update(CLAIM, new Timestamp(now + leaseMillis), taskId, new Timestamp(now));
+            if (claimed == 0) {
+                // done, cancelled, moved to a later time or taken by another instance
+                return;
+            }
+            task = jdbcTemplate.queryForObject(CLAIMED,
+                    (rs, i) -> new Claimed(rs.getString(1), rs.getString(2), rs.getInt(3)), taskId);
+        } catch (DataAccessException e) {
+            log.warn("Could not claim delayed task {}, the recovery sweep will pick it up: {}", taskId, e.getMessage());
+            return;
+        }
+
+        DelayedTaskHandler handler = handler(task.type);
+        if (handler == null) {
+            jdbcTemplate.update(FAIL, "No handler for type " + task.type, taskId);
+            failedCounter.increment();
+            log.error("No handler for delayed task {} of type {}", taskId, task.type);
+            return;
+        }
+        try {
+            handler.handle(task.key);
+            jdbcTemplate.update(DONE, taskId);
+            completedCounter.increment();
+        } catch (RuntimeException e) {
+            String error = truncate(String.valueOf(e.getMessage()));
+            if (task.attempts >= maxAttempts) {
+                jdbcTemplate.update(FAIL, error, taskId);
+                failedCounter.increment();
+                log.error("Delayed task {} {}:{} failed {} times, giving up", taskId, task.type, task.key,
+                        task.attempts, e);
+                return;
+            }
+            long retryAt = System.currentTimeMillis() + (baseBackoffMillis << Math.min(task.attempts - 1, 16));
+            jdbcTemplate.update(RETRY, new Timestamp(retryAt), error, taskId);
+            enqueue(taskId, retryAt);
+            log.warn("Delayed task {} {}:{} failed (attempt {}), retrying: {}", taskId, task.type, task.key,
+                    task.attempts, e.getMessage());
+        }
+    }
+
+    private DelayedTaskHandler handler(String type) {
+        try {
+            return handlers.get(DelayedTaskType.valueOf(type));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Claimed(String type, String key, int attempts) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.swp391.bookverse.service.task;
+
+import com.swp391.bookverse.entity.Payment;
+import com.swp391.bookverse.enums.DelayedTaskType;
+import com.swp391.bookverse.enums.PaymentStatus;
+import com.swp391.bookverse.repository.PaymentRepository;
+import com.swp391.bookverse.service.OrderService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * An online payment was not completed in time: mark it FAILED, and cancel its order if the order was
+ * still waiting for that payment (PENDING_PAYMENT), through OrderService like any other cancellation.
+ * Only acts on a payment that is still PENDING, so a payment completed meanwhile or a second run is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PaymentExpiryHandler implements DelayedTaskHandler {
+    PaymentRepository paymentRepository;
+    OrderService orderService;
+
+    @Override
+    public DelayedTaskType type() {
+        return DelayedTaskType.PAYMENT_EXPIRY;
+    }
+
+    /**
+     * @param key order id
+     */
+    @Override
+    @Transactional
+    public void handle(String key) {
+        Payment payment = paymentRepository.findByOrderId(Long.parseLong(key));
+        if (payment == null || payment.getStatus() != PaymentStatus.PENDING) {
+            return;
+        }
+        payment.setStatus(PaymentStatus.FAILED);
+        orderService.cancelUnpaidOrder(payment.getOrder().getId());
+        log.info("Payment for order {} expired unpaid", key);
+    }
+}
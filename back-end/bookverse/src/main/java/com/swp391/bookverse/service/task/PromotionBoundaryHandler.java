@@ -0,0 +1,34 @@
+package com.swp391.bookverse.service.task;
+
+import com.swp391.bookverse.enums.DelayedTaskType;
+import com.swp391.bookverse.service.catalog.PricingEngine;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+/**
+ * A promotion starts or ends: recompute the effective prices of its books.
+ * Recomputing reads the promotion as it is now, so running twice (or after the dates moved) is harmless.
+ * Only the instance that claims the task re-prices right away; the others catch up with the midnight
+ * PricingEngine.rebuild().
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PromotionBoundaryHandler implements DelayedTaskHandler {
+    PricingEngine pricingEngine;
+
+    @Override
+    public DelayedTaskType type() {
+        return DelayedTaskType.PROMOTION_BOUNDARY;
+    }
+
+    /**
+     * @param key "promotionId:date"
+     */
+    @Override
+    public void handle(String key) {
+        pricingEngine.promotionChanged(Long.parseLong(key.substring(0, key.indexOf(':'))));
+    }
+}
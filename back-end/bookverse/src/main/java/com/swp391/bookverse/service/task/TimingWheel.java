@@ -0,0 +1,114 @@
+package com.swp391.bookverse.service.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of task ids.
+ * Level l has 64 slots of 64^l ticks each, so with "levels" levels it covers 64^levels ticks ahead.
+ * A task goes to the lowest level whose span covers its delay; when time reaches its slot on a higher level
+ * the slot is emptied and its tasks move down, until they fire from level 0.
+ * add() and each tick cost O(1) per task, however many tasks are waiting.
+ * Not thread safe, DelayedTaskScheduler serializes access.
+ */
+class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<Entry>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = new List[levels][SLOTS];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * @return how far ahead of now a task can be added, in milliseconds
+     */
+    long horizonMillis() {
+        return (1L << (BITS * levels)) * tickMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param taskId task id
+     * @param dueMillis due time, epoch millis
+     * @return false if the task is already due (the caller runs it) or beyond the horizon (not kept)
+     */
+    boolean add(long taskId, long dueMillis) {
+        long dueTick = Math.floorDiv(dueMillis + tickMillis - 1, tickMillis);
+        long delay = dueTick - currentTick;
+        if (delay <= 0) {
+            return false;
+        }
+        for (int level = 0; level < levels; level++) {
+            if (delay < 1L << (BITS * (level + 1))) {
+                int slot = (int) ((dueTick >>> (BITS * level)) & MASK);
+                List<Entry> bucket = slots[level][slot];
+                if (bucket == null) {
+                    bucket = slots[level][slot] = new ArrayList<>();
+                }
+                bucket.add(new Entry(taskId, dueMillis));
+                size++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move time forward to nowMillis, one tick at a time.
+     * @param due receives the id of every task that became due
+     */
+    void advance(long nowMillis, LongConsumer due) {
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (BITS * level)) & MASK), due);
+                }
+            }
+            List<Entry> bucket = take(0, (int) (currentTick & MASK));
+            if (bucket != null) {
+                bucket.forEach(entry -> due.accept(entry.taskId));
+            }
+        }
+    }
+
+    private void cascade(int level, int slot, LongConsumer due) {
+        List<Entry> bucket = take(level, slot);
+        if (bucket == null) {
+            return;
+        }
+        for (Entry entry : bucket) {
+            if (!add(entry.taskId, entry.dueMillis)) {
+                due.accept(entry.taskId);
+            }
+        }
+    }
+
+    private List<Entry> take(int level, int slot) {
+        List<Entry> bucket = slots[level][slot];
+        if (bucket != null) {
+            slots[level][slot] = null;
+            size -= bucket.size();
+        }
+        return bucket;
+    }
+
+    private record Entry(long taskId, long dueMillis) {
+    }
+}
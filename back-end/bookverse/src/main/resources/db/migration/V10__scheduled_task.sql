@@ -0,0 +1,28 @@
+-- Durable delayed tasks ("do X at time T") run by DelayedTaskScheduler.
+-- (type, task_key) is unique: scheduling the same task again moves it instead of adding a second one.
+-- Rows are deleted once their handler succeeded; FAILED rows stay for inspection.
+
+CREATE TABLE IF NOT EXISTS `scheduled_task` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `type` varchar(40) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `task_key` varchar(100) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `due_at` datetime(6) NOT NULL,
+  `status` enum('PENDING','RUNNING','FAILED') COLLATE utf8mb4_unicode_ci NOT NULL,
+  `attempts` int NOT NULL DEFAULT 0,
+  `locked_until` datetime(6) DEFAULT NULL,
+  `last_error` varchar(500) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_scheduled_task_type_key` (`type`, `task_key`),
+  KEY `idx_scheduled_task_status_due` (`status`, `due_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- start and end of the promotions that are still ahead (PromotionService schedules new ones)
+INSERT IGNORE INTO `scheduled_task` (`type`, `task_key`, `due_at`, `status`, `attempts`, `created_at`)
+SELECT 'PROMOTION_BOUNDARY', CONCAT(`id`, ':', `start_date`), `start_date`, 'PENDING', 0, NOW(6)
+FROM `promotion` WHERE `start_date` > CURDATE();
+
+INSERT IGNORE INTO `scheduled_task` (`type`, `task_key`, `due_at`, `status`, `attempts`, `created_at`)
+SELECT 'PROMOTION_BOUNDARY', CONCAT(`id`, ':', DATE_ADD(`end_date`, INTERVAL 1 DAY)), DATE_ADD(`end_date`, INTERVAL 1 DAY),
+       'PENDING', 0, NOW(6)
+FROM `promotion` WHERE `end_date` >= CURDATE();
@@ -0,0 +1,13 @@
+-- Live and archived orders as one set, for everything that reports on order history (statistics,
+-- best sellers, also-bought, customer_summary rebuilds). ArchiveService copies and deletes a batch in one
+-- transaction, so a statement reading a view sees every order exactly once.
+
+CREATE OR REPLACE VIEW `order_history` AS
+SELECT `id`, `user_id`, `status`, `total_amount`, `created_at`, `active` FROM `order`
+UNION ALL
+SELECT `id`, `user_id`, `status`, `total_amount`, `created_at`, `active` FROM `order_archive`;
+
+CREATE OR REPLACE VIEW `order_item_history` AS
+SELECT `id`, `order_id`, `book_id`, `quantity`, `price` FROM `order_item`
+UNION ALL
+SELECT `id`, `order_id`, `book_id`, `quantity`, `price` FROM `order_item_archive`;
@@ -0,0 +1,204 @@
+-- Baseline schema, taken from database/bookverse-dump.sql (structure only, no data).
+-- Databases that already have these tables are baselined at this version and skip this script
+-- (spring.flyway.baseline-on-migrate), so it only runs on an empty schema.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+CREATE TABLE IF NOT EXISTS `author` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `image` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `name` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `bio` longtext COLLATE utf8mb4_unicode_ci,
+  `active` bit(1) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `book` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `title` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `description` longtext COLLATE utf8mb4_unicode_ci,
+  `price` double NOT NULL,
+  `author_id` bigint DEFAULT NULL,
+  `publisher_id` bigint DEFAULT NULL,
+  `category_id` bigint DEFAULT NULL,
+  `stock_quantity` int DEFAULT '0',
+  `published_date` date DEFAULT NULL,
+  `image` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `active` bit(1) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `books_author_fk` (`author_id`),
+  KEY `books_publisher_fk` (`publisher_id`),
+  KEY `category_id` (`category_id`),
+  CONSTRAINT `book_ibfk_1` FOREIGN KEY (`category_id`) REFERENCES `sub_category` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `books_author_fk` FOREIGN KEY (`author_id`) REFERENCES `author` (`id`),
+  CONSTRAINT `books_publisher_fk` FOREIGN KEY (`publisher_id`) REFERENCES `publisher` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `cart` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `active` bit(1) NOT NULL,
+  `status` enum('ACTIVE','CHECKED_OUT') COLLATE utf8mb4_unicode_ci NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `carts_user_fk` (`user_id`),
+  CONSTRAINT `carts_user_fk` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `cart_item` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `cart_id` bigint NOT NULL,
+  `book_id` bigint DEFAULT NULL,
+  `quantity` int NOT NULL,
+  `subtotal` double NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `cart_items_cart_fk` (`cart_id`),
+  KEY `book_id` (`book_id`),
+  CONSTRAINT `cart_item_ibfk_2` FOREIGN KEY (`book_id`) REFERENCES `book` (`id`),
+  CONSTRAINT `cart_items_cart_fk` FOREIGN KEY (`cart_id`) REFERENCES `cart` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `notification` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `content` text COLLATE utf8mb4_unicode_ci NOT NULL,
+  `type` enum('FOR_STAFFS','FOR_ADMINS','FOR_CUSTOMERS','FOR_STAFFS_PERSONAL','FOR_ADMINS_PERSONAL','FOR_CUSTOMERS_PERSONAL') COLLATE utf8mb4_unicode_ci NOT NULL,
+  `is_read` bit(1) NOT NULL DEFAULT b'0',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `notifications_user_fk` (`user_id`),
+  CONSTRAINT `notifications_user_fk` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `order` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci DEFAULT NULL,
+  `status` enum('PENDING_PAYMENT','PENDING','CONFIRMED','PROCESSING','DELIVERING','DELIVERED','CANCELLED','RETURNED') COLLATE utf8mb4_unicode_ci DEFAULT 'PENDING',
+  `total_amount` double NOT NULL,
+  `address` varchar(255) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `cancel_reason` varchar(500) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `active` bit(1) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `orders_ibfk_1` (`user_id`),
+  CONSTRAINT `order_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `order_item` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `order_id` bigint DEFAULT NULL,
+  `book_id` bigint DEFAULT NULL,
+  `quantity` int NOT NULL,
+  `price` double DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `book_id` (`book_id`),
+  KEY `order_id` (`order_id`),
+  CONSTRAINT `order_item_ibfk_1` FOREIGN KEY (`order_id`) REFERENCES `order` (`id`),
+  CONSTRAINT `order_item_ibfk_2` FOREIGN KEY (`book_id`) REFERENCES `book` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `otp_token` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `code` varchar(6) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `email` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  `token_type` varchar(30) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `used` bit(1) NOT NULL,
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDXeads5ru9yk3keyn0vn9s1vyui` (`email`),
+  KEY `IDXryp41v8x3qjb1dkv75fjkwu8u` (`email`,`used`,`expires_at`),
+  KEY `IDXoo1ko324ynywmil1wpq9oiyll` (`user_id`,`used`,`expires_at`),
+  KEY `idx_otp_user_id` (`user_id`),
+  CONSTRAINT `otp_token_user_id_fk` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `payment` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `order_id` bigint DEFAULT NULL,
+  `method` enum('COD','VNPAY') COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `status` enum('PENDING','SUCCESS','FAILED','REFUNDING','REFUNDED') COLLATE utf8mb4_unicode_ci DEFAULT 'PENDING',
+  `amount` double DEFAULT NULL,
+  `paid_at` timestamp NULL DEFAULT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `order_id` (`order_id`),
+  CONSTRAINT `payment_ibfk_1` FOREIGN KEY (`order_id`) REFERENCES `order` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `promotion` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `content` tinytext COLLATE utf8mb4_unicode_ci NOT NULL,
+  `percentage` int DEFAULT NULL,
+  `start_date` date NOT NULL,
+  `end_date` date NOT NULL,
+  `active` bit(1) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `publisher` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `name` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `active` bit(1) NOT NULL,
+  `address` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `image` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `review` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `book_id` bigint NOT NULL,
+  `comment` text COLLATE utf8mb4_unicode_ci NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'thay cho active',
+  PRIMARY KEY (`id`),
+  KEY `reviews_ibfk_1` (`user_id`),
+  KEY `book_id` (`book_id`),
+  CONSTRAINT `review_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`),
+  CONSTRAINT `review_ibfk_2` FOREIGN KEY (`book_id`) REFERENCES `book` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `sub_category` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `sup_cat_id` int DEFAULT NULL,
+  `name` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `description` longtext COLLATE utf8mb4_unicode_ci,
+  `promotion_id` bigint DEFAULT NULL,
+  `active` bit(1) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `sub_category_sup_category_id_fk` (`sup_cat_id`),
+  KEY `sub_category_promotion_id_fk` (`promotion_id`),
+  CONSTRAINT `sub_category_promotion_id_fk` FOREIGN KEY (`promotion_id`) REFERENCES `promotion` (`id`),
+  CONSTRAINT `sub_category_sup_category_id_fk` FOREIGN KEY (`sup_cat_id`) REFERENCES `sup_category` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `sup_category` (
+  `id` int NOT NULL AUTO_INCREMENT,
+  `name` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `active` bit(1) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `user` (
+  `id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `username` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `password` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `email` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `fullname` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `phone` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `address` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `image` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `active` tinyint(1) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `username` (`username`),
+  UNIQUE KEY `email` (`email`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `user_role` (
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `role` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  PRIMARY KEY (`user_id`,`role`),
+  CONSTRAINT `user_role_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+SET FOREIGN_KEY_CHECKS = 1;
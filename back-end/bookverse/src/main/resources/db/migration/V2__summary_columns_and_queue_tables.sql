@@ -0,0 +1,66 @@
+-- Schema added after the baseline dump: book review summary / visibility columns, the outbound mail queue
+-- and customer_summary. Databases that ran with ddl-auto=update may already have some of these,
+-- so every change is skipped when the column, index or table exists.
+
+DROP PROCEDURE IF EXISTS bv_add_column;
+DROP PROCEDURE IF EXISTS bv_add_index;
+
+DELIMITER $$
+CREATE PROCEDURE bv_add_column(IN tbl VARCHAR(64), IN col VARCHAR(64), IN definition VARCHAR(512))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = tbl AND column_name = col) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` ADD COLUMN `', col, '` ', definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+CREATE PROCEDURE bv_add_index(IN tbl VARCHAR(64), IN idx VARCHAR(64), IN definition VARCHAR(512))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = tbl AND index_name = idx) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` ADD ', definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+DELIMITER ;
+
+-- book: review summary (ReviewService) and visibility flag (BookService / bulk activation)
+CALL bv_add_column('book', 'review_count', 'int DEFAULT NULL');
+CALL bv_add_column('book', 'last_reviewed_at', 'datetime(6) DEFAULT NULL');
+CALL bv_add_column('book', 'visible', 'bit(1) DEFAULT NULL');
+CALL bv_add_index('book', 'idx_book_visible', 'INDEX `idx_book_visible` (`visible`)');
+
+-- durable outbound mail queue (EmailQueueService)
+CREATE TABLE IF NOT EXISTS `outbound_email` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `recipient` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `subject` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `body` text COLLATE utf8mb4_unicode_ci NOT NULL,
+  `status` enum('PENDING','SENDING','SENT','FAILED') COLLATE utf8mb4_unicode_ci NOT NULL,
+  `attempts` int NOT NULL,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `last_error` varchar(500) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `sent_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_outbound_email_status_next_attempt` (`status`,`next_attempt_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- per-customer order aggregates (OrderService)
+CREATE TABLE IF NOT EXISTS `customer_summary` (
+  `user_id` varchar(36) CHARACTER SET utf8mb3 COLLATE utf8mb3_general_ci NOT NULL,
+  `total_spent` double NOT NULL,
+  `order_count` int NOT NULL,
+  `lifetime_items` bigint NOT NULL,
+  `last_order_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`user_id`),
+  KEY `idx_customer_summary_total_spent` (`total_spent`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+DROP PROCEDURE bv_add_column;
+DROP PROCEDURE bv_add_index;
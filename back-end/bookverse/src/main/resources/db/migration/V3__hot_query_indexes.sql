@@ -0,0 +1,74 @@
+-- Secondary indexes for the hot queries (order history and statistics, notification inbox,
+-- reviews per book, active cart lookup, OTP checks, role lookups).
+-- Indexes that already exist under the same name are skipped.
+
+DROP PROCEDURE IF EXISTS bv_add_index;
+DROP PROCEDURE IF EXISTS bv_drop_index;
+
+DELIMITER $$
+CREATE PROCEDURE bv_add_index(IN tbl VARCHAR(64), IN idx VARCHAR(64), IN definition VARCHAR(512))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = tbl AND index_name = idx) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` ADD ', definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+CREATE PROCEDURE bv_drop_index(IN tbl VARCHAR(64), IN idx VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = tbl AND index_name = idx) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` DROP INDEX `', idx, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+DELIMITER ;
+
+-- order: "my orders" (user_id, active, newest first) and status filters / statistics over time
+CALL bv_add_index('order', 'idx_order_user_active_created', 'INDEX `idx_order_user_active_created` (`user_id`, `active`, `created_at`)');
+CALL bv_add_index('order', 'idx_order_status_created', 'INDEX `idx_order_status_created` (`status`, `created_at`)');
+
+-- notification: inbox listing and unread lookups per user
+CALL bv_add_index('notification', 'idx_notification_user_created', 'INDEX `idx_notification_user_created` (`user_id`, `created_at`)');
+CALL bv_add_index('notification', 'idx_notification_user_read', 'INDEX `idx_notification_user_read` (`user_id`, `is_read`)');
+
+-- review: paged reviews of a book (newest first); also covers plain lookups by book_id and the book
+-- foreign key, so the baseline single-column index is dropped
+CALL bv_add_index('review', 'idx_review_book_created', 'INDEX `idx_review_book_created` (`book_id`, `created_at`)');
+CALL bv_drop_index('review', 'book_id');
+
+-- review: one review per user and book. ReviewService already enforces it; drop duplicates left by
+-- concurrent requests (keeping the first review) so the unique index can be built.
+DELETE r FROM review r
+JOIN review older ON older.user_id = r.user_id AND older.book_id = r.book_id AND older.id < r.id;
+CALL bv_add_index('review', 'uq_review_user_book', 'UNIQUE INDEX `uq_review_user_book` (`user_id`, `book_id`)');
+
+-- cart: the active cart of a user
+CALL bv_add_index('cart', 'idx_cart_user_active', 'INDEX `idx_cart_user_active` (`user_id`, `active`)');
+
+-- cart_item: one line per book in a cart. Merge duplicate lines (quantity and subtotal) into the oldest one first.
+UPDATE cart_item keep_line
+JOIN (SELECT cart_id, book_id, MIN(id) AS keep_id, SUM(quantity) AS quantity, SUM(subtotal) AS subtotal
+      FROM cart_item
+      WHERE book_id IS NOT NULL
+      GROUP BY cart_id, book_id
+      HAVING COUNT(*) > 1) dup ON dup.keep_id = keep_line.id
+SET keep_line.quantity = dup.quantity,
+    keep_line.subtotal = dup.subtotal;
+DELETE c FROM cart_item c
+JOIN cart_item older ON older.cart_id = c.cart_id AND older.book_id = c.book_id AND older.id < c.id;
+CALL bv_add_index('cart_item', 'uq_cart_item_cart_book', 'UNIQUE INDEX `uq_cart_item_cart_book` (`cart_id`, `book_id`)');
+
+-- otp_token: resend cooldown and latest-unused lookups by email
+CALL bv_add_index('otp_token', 'idx_otp_email_used_created', 'INDEX `idx_otp_email_used_created` (`email`, `used`, `created_at`)');
+
+-- user_role: listing users by role (statistics, staff/admin broadcasts)
+CALL bv_add_index('user_role', 'idx_user_role_role', 'INDEX `idx_user_role_role` (`role`)');
+
+DROP PROCEDURE bv_add_index;
+DROP PROCEDURE bv_drop_index;
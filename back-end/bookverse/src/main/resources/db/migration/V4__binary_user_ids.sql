@@ -0,0 +1,81 @@
+-- User ids move from VARCHAR(36) text to BINARY(16). New ids are UUIDv7 (time ordered, see UuidV7Generator);
+-- existing v4 ids are converted with UUID_TO_BIN (no byte swap, matching UuidBinaryConverter) and keep
+-- their value. Every column holding a user id is converted, then the foreign keys are recreated.
+
+DROP PROCEDURE IF EXISTS bv_drop_user_fks;
+DROP PROCEDURE IF EXISTS bv_uuid_column_to_binary;
+
+DELIMITER $$
+CREATE PROCEDURE bv_drop_user_fks()
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE tbl VARCHAR(64);
+    DECLARE fk VARCHAR(64);
+    DECLARE fks CURSOR FOR
+        SELECT DISTINCT table_name, constraint_name FROM information_schema.key_column_usage
+        WHERE table_schema = DATABASE() AND referenced_table_name = 'user';
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+
+    OPEN fks;
+    drop_loop: LOOP
+        FETCH fks INTO tbl, fk;
+        IF done THEN
+            LEAVE drop_loop;
+        END IF;
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` DROP FOREIGN KEY `', fk, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE fks;
+END$$
+
+CREATE PROCEDURE bv_uuid_column_to_binary(IN tbl VARCHAR(64), IN col VARCHAR(64))
+BEGIN
+    DECLARE null_clause VARCHAR(10);
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = tbl AND column_name = col
+                 AND data_type IN ('varchar', 'char')) THEN
+        SELECT IF(is_nullable = 'YES', 'NULL', 'NOT NULL') INTO null_clause FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = tbl AND column_name = col;
+
+        -- text -> raw bytes of the same text, then text bytes -> 16 byte UUID
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` MODIFY `', col, '` VARBINARY(36) ', null_clause);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+
+        SET @ddl = CONCAT('UPDATE `', tbl, '` SET `', col, '` = UUID_TO_BIN(`', col, '`) WHERE LENGTH(`', col, '`) = 36');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` MODIFY `', col, '` BINARY(16) ', null_clause);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+DELIMITER ;
+
+CALL bv_drop_user_fks();
+
+CALL bv_uuid_column_to_binary('user', 'id');
+CALL bv_uuid_column_to_binary('user_role', 'user_id');
+CALL bv_uuid_column_to_binary('cart', 'user_id');
+CALL bv_uuid_column_to_binary('notification', 'user_id');
+CALL bv_uuid_column_to_binary('order', 'user_id');
+CALL bv_uuid_column_to_binary('otp_token', 'user_id');
+CALL bv_uuid_column_to_binary('review', 'user_id');
+CALL bv_uuid_column_to_binary('customer_summary', 'user_id');
+
+ALTER TABLE `user_role` ADD CONSTRAINT `fk_user_role_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`);
+ALTER TABLE `cart` ADD CONSTRAINT `fk_cart_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`);
+ALTER TABLE `notification` ADD CONSTRAINT `fk_notification_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`);
+ALTER TABLE `order` ADD CONSTRAINT `fk_order_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`);
+ALTER TABLE `otp_token` ADD CONSTRAINT `fk_otp_token_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+    ON DELETE CASCADE ON UPDATE CASCADE;
+ALTER TABLE `review` ADD CONSTRAINT `fk_review_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`);
+
+DROP PROCEDURE bv_drop_user_fks;
+DROP PROCEDURE bv_uuid_column_to_binary;
@@ -0,0 +1,103 @@
+-- Monthly range partitions on created_at and archive tables for cold orders and read notifications.
+--
+-- MySQL does not allow foreign keys on partitioned tables (neither referencing nor referenced), and the
+-- partitioning column has to be part of every unique key:
+-- - notification is partitioned; it loses its foreign key to user and its primary key becomes (id, created_at).
+-- - order stays unpartitioned because order_item and payment reference it. Cold orders are moved to
+--   order_archive instead (ArchiveService), which keeps the live table bounded.
+-- - notification_archive and order_archive are partitioned from the start.
+-- Partitions are named pYYYYMM; PartitionMaintenanceJob keeps adding months ahead by splitting pmax.
+
+DROP PROCEDURE IF EXISTS bv_partition_monthly;
+
+DELIMITER $$
+-- Partition tbl by month of created_at, from the month of since up to three months ahead.
+-- Older rows go to p_old, rows beyond the last month to pmax. Tables that are already partitioned are skipped.
+CREATE PROCEDURE bv_partition_monthly(IN tbl VARCHAR(64), IN since DATETIME)
+BEGIN
+    DECLARE month_start DATE;
+    DECLARE last_month DATE;
+    DECLARE parts TEXT;
+    IF NOT EXISTS (SELECT 1 FROM information_schema.partitions
+                   WHERE table_schema = DATABASE() AND table_name = tbl AND partition_name IS NOT NULL) THEN
+        SET month_start = DATE_FORMAT(LEAST(COALESCE(since, NOW()), NOW()), '%Y-%m-01');
+        SET last_month = DATE_FORMAT(NOW() + INTERVAL 3 MONTH, '%Y-%m-01');
+        SET parts = CONCAT('PARTITION p_old VALUES LESS THAN (''', month_start, ''')');
+        WHILE month_start <= last_month DO
+            SET parts = CONCAT(parts, ', PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                               ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, ''')');
+            SET month_start = month_start + INTERVAL 1 MONTH;
+        END WHILE;
+
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` PARTITION BY RANGE COLUMNS(`created_at`) (',
+                          parts, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+DELIMITER ;
+
+-- notification: created_at becomes a required DATETIME (RANGE COLUMNS does not accept TIMESTAMP)
+ALTER TABLE `notification` DROP FOREIGN KEY `fk_notification_user`;
+UPDATE `notification` SET `created_at` = CURRENT_TIMESTAMP WHERE `created_at` IS NULL;
+ALTER TABLE `notification`
+    MODIFY `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `created_at`);
+
+CREATE TABLE IF NOT EXISTS `notification_archive` (
+  `id` bigint NOT NULL,
+  `user_id` binary(16) NOT NULL,
+  `content` text COLLATE utf8mb4_unicode_ci NOT NULL,
+  `type` varchar(40) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `is_read` bit(1) NOT NULL,
+  `created_at` datetime NOT NULL,
+  `archived_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`, `created_at`),
+  KEY `idx_notification_archive_user_created` (`user_id`, `created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `order_archive` (
+  `id` bigint NOT NULL,
+  `user_id` binary(16) DEFAULT NULL,
+  `status` varchar(20) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `total_amount` double NOT NULL,
+  `address` varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `created_at` datetime NOT NULL,
+  `cancel_reason` varchar(500) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `active` bit(1) NOT NULL,
+  `archived_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`, `created_at`),
+  KEY `idx_order_archive_user_created` (`user_id`, `created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `order_item_archive` (
+  `id` bigint NOT NULL,
+  `order_id` bigint NOT NULL,
+  `book_id` bigint DEFAULT NULL,
+  `quantity` int NOT NULL,
+  `price` double DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_order_item_archive_order` (`order_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `payment_archive` (
+  `id` bigint NOT NULL,
+  `order_id` bigint NOT NULL,
+  `method` varchar(20) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `status` varchar(20) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+  `amount` double DEFAULT NULL,
+  `paid_at` datetime DEFAULT NULL,
+  `created_at` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uq_payment_archive_order` (`order_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+SET @first_notification = (SELECT MIN(`created_at`) FROM `notification`);
+SET @first_order = (SELECT MIN(`created_at`) FROM `order`);
+CALL bv_partition_monthly('notification', @first_notification);
+CALL bv_partition_monthly('notification_archive', @first_notification);
+CALL bv_partition_monthly('order_archive', @first_order);
+
+DROP PROCEDURE bv_partition_monthly;
@@ -0,0 +1,34 @@
+-- Indexes for the keyset inbox (NotificationRepository.findInbox*).
+-- idx_notification_inbox: seek on (user_id, created_at) and, within the page range, filter read/type from the
+-- index itself; id comes with the primary key, so rows are only read for the page that is returned.
+-- idx_notification_user_unread: unread-only pages and unread counts seek straight to (user_id, is_read).
+-- Both replace shorter V3 indexes that are now prefixes of them.
+
+DROP PROCEDURE IF EXISTS bv_replace_index;
+
+DELIMITER $$
+CREATE PROCEDURE bv_replace_index(IN tbl VARCHAR(64), IN old_idx VARCHAR(64), IN idx VARCHAR(64), IN definition VARCHAR(512))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = tbl AND index_name = idx) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` ADD ', definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = tbl AND index_name = old_idx) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` DROP INDEX `', old_idx, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+DELIMITER ;
+
+CALL bv_replace_index('notification', 'idx_notification_user_created', 'idx_notification_inbox',
+    'INDEX `idx_notification_inbox` (`user_id`, `created_at`, `is_read`, `type`)');
+CALL bv_replace_index('notification', 'idx_notification_user_read', 'idx_notification_user_unread',
+    'INDEX `idx_notification_user_unread` (`user_id`, `is_read`, `created_at`)');
+
+DROP PROCEDURE bv_replace_index;
@@ -0,0 +1,13 @@
+-- Unread notifications per user (NotificationCounter), filled from the current notifications.
+
+CREATE TABLE IF NOT EXISTS `notification_counter` (
+  `user_id` binary(16) NOT NULL,
+  `unread` int NOT NULL DEFAULT 0,
+  PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `notification_counter` (`user_id`, `unread`)
+SELECT c.user_id, c.unread FROM (
+  SELECT `user_id`, COUNT(*) AS unread FROM `notification` WHERE `is_read` = false GROUP BY `user_id`
+) c
+ON DUPLICATE KEY UPDATE `unread` = c.unread;
@@ -0,0 +1,58 @@
+-- Notification text as template id + parameters (NotificationTemplate) instead of the full text per row.
+-- notification_template holds the body of each template per locale; the ids match NotificationTemplate.
+-- content stays for free-text notifications (admin messages) and for rows written before this migration.
+
+CREATE TABLE IF NOT EXISTS `notification_template` (
+  `id` smallint NOT NULL,
+  `locale` varchar(8) COLLATE utf8mb4_unicode_ci NOT NULL DEFAULT 'en',
+  `code` varchar(64) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `body` varchar(500) COLLATE utf8mb4_unicode_ci NOT NULL,
+  PRIMARY KEY (`id`, `locale`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT IGNORE INTO `notification_template` (`id`, `locale`, `code`, `body`) VALUES
+(1, 'en', 'AUTHOR_ADDED', 'A new author named ''{0}'' has been added to the system.'),
+(2, 'en', 'AUTHOR_UPDATED', 'The author named ''{0}'' has been updated.'),
+(3, 'en', 'AUTHOR_STATUS_CHANGED', 'Author {0} : {1}.'),
+(4, 'en', 'BOOK_ADDED', 'New book added: {0}'),
+(5, 'en', 'BOOK_UPDATED', 'Book updated: {0}'),
+(6, 'en', 'BOOK_STATUS_CHANGED', 'Book {0}: {1}'),
+(7, 'en', 'BOOKS_STATUS_CHANGED', '{0} books {1}.'),
+(8, 'en', 'ORDER_PLACED', 'New order placed by {0}. Order ID: {1}'),
+(9, 'en', 'ORDER_CREATED', 'Your order (ID: {0}) has been created and is now pending for confirmation.'),
+(10, 'en', 'ORDER_CONFIRMED', 'Your order (ID: {0}) has been confirmed.'),
+(11, 'en', 'ORDER_PROCESSING', 'Your order (ID: {0}) is being processed.'),
+(12, 'en', 'ORDER_DELIVERING', 'Your order (ID: {0}) is out for delivery (DELIVERING) and cannot be cancelled now.'),
+(13, 'en', 'ORDER_DELIVERED', 'Your order (ID: {0}) has been delivered by shipper.'),
+(14, 'en', 'ORDER_CANCELLED', 'Your order (ID: {0}) has been cancelled successfully.'),
+(15, 'en', 'ORDER_ADDRESS_CHANGED', 'Order ID: {0} address has been changed by the customer {1}'),
+(16, 'en', 'ORDER_ADDRESS_CHANGE_CONFIRMED', 'Your order (ID: {0}) address has been changed successfully.'),
+(17, 'en', 'PROMOTION_ADDED', 'New promotion created: {0}'),
+(18, 'en', 'PROMOTION_UPDATED', 'Promotion updated: {0}'),
+(19, 'en', 'PROMOTION_STATUS_CHANGED', 'Promotion {0}: {1}'),
+(20, 'en', 'PUBLISHER_ADDED', 'New publisher created: {0}'),
+(21, 'en', 'PUBLISHER_UPDATED', 'Publisher updated: {0}'),
+(22, 'en', 'PUBLISHER_STATUS_CHANGED', 'Publisher {0}: {1}'),
+(23, 'en', 'REVIEW_DELETED', 'Your review for book ID {0} has been deleted by an admin/staff.'),
+(24, 'en', 'SUB_CATEGORY_ADDED', 'New sub-category ''{0}'' has been created.'),
+(25, 'en', 'SUB_CATEGORY_FEATURED', 'Check out our new sub-category: ''{0}''. Explore exciting books now!'),
+(26, 'en', 'SUB_CATEGORY_UPDATED', 'Sub-category ''{0}'' has been updated.'),
+(27, 'en', 'SUB_CATEGORIES_STATUS_CHANGED', '{0} sub-categories have been {1}.'),
+(28, 'en', 'SUB_CATEGORY_ACTIVATED', 'Sub-category ''{0}'' has been activated.'),
+(29, 'en', 'SUB_CATEGORY_DEACTIVATED', 'Sub-category ''{0}'' has been deactivated.'),
+(30, 'en', 'SUP_CATEGORY_ADDED', 'A new sup category ''{0}'' has been created.'),
+(31, 'en', 'SUP_CATEGORY_UPDATED', 'The sup category ''{0}'' has been updated.'),
+(32, 'en', 'SUP_CATEGORIES_STATUS_CHANGED', '{0} sup categories are now {1}.'),
+(33, 'en', 'SUP_CATEGORY_ACTIVATED', 'The sup category ''{0}'' active.'),
+(34, 'en', 'SUP_CATEGORY_DEACTIVATED', 'The sup category ''{0}'' inactive.'),
+(35, 'en', 'BOOK_IMPORT_FINISHED', 'Book import finished: {0} added, {1} updated, {2} failed.');
+
+ALTER TABLE `notification`
+    MODIFY `content` text COLLATE utf8mb4_unicode_ci NULL,
+    ADD COLUMN `template_id` smallint NULL AFTER `content`,
+    ADD COLUMN `params` varchar(512) COLLATE utf8mb4_unicode_ci NULL AFTER `template_id`;
+
+ALTER TABLE `notification_archive`
+    MODIFY `content` text COLLATE utf8mb4_unicode_ci NULL,
+    ADD COLUMN `template_id` smallint NULL AFTER `content`,
+    ADD COLUMN `params` varchar(512) COLLATE utf8mb4_unicode_ci NULL AFTER `template_id`;
@@ -0,0 +1,5 @@
+-- Digest templates sent by NotificationCoalescer when several events of the same kind are merged.
+
+INSERT IGNORE INTO `notification_template` (`id`, `locale`, `code`, `body`) VALUES
+(36, 'en', 'BOOKS_UPDATED', '{0} books updated.'),
+(37, 'en', 'ORDERS_ADDRESS_CHANGED', '{0} orders had their address changed by customers.');
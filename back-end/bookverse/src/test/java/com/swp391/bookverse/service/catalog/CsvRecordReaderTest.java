@@ -0,0 +1,76 @@
+package com.swp391.bookverse.service.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class CsvRecordReaderTest {
+
+	static Stream<Arguments> records() {
+		return Stream.of(
+				arguments("plain", "a,b,c\n", List.of(List.of("a", "b", "c"))),
+				arguments("no final newline", "a,b\nc,d", List.of(List.of("a", "b"), List.of("c", "d"))),
+				arguments("empty fields", "a,,\n", List.of(List.of("a", "", ""))),
+				arguments("empty line", "\n", List.of(List.of(""))),
+				arguments("empty input", "", List.of()),
+				arguments("quoted comma", "\"a,b\",c\n", List.of(List.of("a,b", "c"))),
+				arguments("empty quoted field", "\"\",x\n", List.of(List.of("", "x"))),
+				arguments("escaped quotes", "\"say \"\"hi\"\"\",x\n", List.of(List.of("say \"hi\"", "x"))),
+				arguments("only an escaped quote", "\"\"\"\"\n", List.of(List.of("\""))),
+				arguments("quote inside an unquoted field", "ab\"c\",d\n", List.of(List.of("ab\"c\"", "d"))),
+				arguments("text after the closing quote", "\"ab\"c,d\n", List.of(List.of("abc", "d"))),
+				arguments("embedded newline", "\"line1\nline2\",x\nnext\n",
+						List.of(List.of("line1\nline2", "x"), List.of("next"))),
+				arguments("CRLF", "a,b\r\nc,d\r\n", List.of(List.of("a", "b"), List.of("c", "d"))),
+				arguments("embedded CRLF", "\"x\r\ny\",z\r\n", List.of(List.of("x\r\ny", "z"))),
+				arguments("bare CR", "a\rb\r", List.of(List.of("a"), List.of("b"))),
+				arguments("BOM", "\uFEFFtitle,price\nDune,9\n", List.of(List.of("title", "price"), List.of("Dune", "9"))),
+				arguments("BOM only at the start", "\uFEFFa\n\uFEFFb\n", List.of(List.of("a"), List.of("\uFEFFb")))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("records")
+	void readsRecords(String name, String input, List<List<String>> expected) throws IOException {
+		assertEquals(expected, readAll(input));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"\"abc", "a,\"b\n", "a,\"b\"\"", "x\n\"unterminated,\nfield"})
+	void unterminatedQuoteIsAnError(String input) {
+		assertThrows(IOException.class, () -> readAll(input));
+	}
+
+	@Test
+	void lineNumberCountsEmbeddedNewlines() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("\"x\ny\",1\r\nz\n"));
+
+		assertEquals(1, reader.getLineNumber());
+		reader.next();
+		assertEquals(3, reader.getLineNumber());
+		reader.next();
+		assertEquals(4, reader.getLineNumber());
+		assertEquals(null, reader.next());
+	}
+
+	private static List<List<String>> readAll(String input) throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader(input));
+		List<List<String>> records = new ArrayList<>();
+		for (List<String> record = reader.next(); record != null; record = reader.next()) {
+			records.add(record);
+		}
+		return records;
+	}
+}
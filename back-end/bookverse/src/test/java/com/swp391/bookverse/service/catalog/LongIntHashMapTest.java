@@ -0,0 +1,103 @@
+package com.swp391.bookverse.service.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntHashMapTest {
+
+	@Test
+	void keepsEveryKeyThroughCollisionsAndResizes() {
+		LongIntHashMap map = new LongIntHashMap(2);
+		Map<Long, Integer> expected = new HashMap<>();
+		// sequential ids, plus ids sharing their low bits, so that many keys probe past each other
+		for (long key = 1; key <= 5_000; key++) {
+			map.addTo(key, (int) (key % 7) + 1);
+			expected.merge(key, (int) (key % 7) + 1, Integer::sum);
+			long strided = key << 20;
+			map.addTo(strided, 3);
+			expected.merge(strided, 3, Integer::sum);
+		}
+		for (long key = 1; key <= 5_000; key += 3) {
+			map.addTo(key, 10);
+			expected.merge(key, 10, Integer::sum);
+		}
+
+		assertEquals(expected.size(), map.size());
+		expected.forEach((key, value) -> assertEquals(value, map.get(key), "key " + key));
+		Map<Long, Integer> visited = new HashMap<>();
+		map.forEach(visited::put);
+		assertEquals(expected, visited);
+		assertEquals(0, map.get(5_001));
+		assertEquals(0, map.get(-1));
+	}
+
+	@Test
+	void addToReturnsTheNewValue() {
+		LongIntHashMap map = new LongIntHashMap();
+
+		assertEquals(4, map.addTo(42, 4));
+		assertEquals(1, map.addTo(42, -3));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void keyZeroIsRejected() {
+		LongIntHashMap map = new LongIntHashMap();
+
+		assertThrows(IllegalArgumentException.class, () -> map.addTo(0, 1));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void topKeysSkipsZeroAndNegativeValues() {
+		LongIntHashMap map = new LongIntHashMap();
+		map.addTo(1, 5);
+		map.addTo(2, -2);
+		map.addTo(3, 2);
+		map.addTo(3, -2);
+		map.addTo(4, 1);
+
+		assertArrayEquals(new long[] {1, 4}, map.topKeys(10));
+	}
+
+	@Test
+	void topKeysBreaksTiesByLowerKey() {
+		LongIntHashMap map = new LongIntHashMap();
+		for (long key : new long[] {9, 3, 7, 5, 1}) {
+			map.addTo(key, key == 7 ? 8 : 2);
+		}
+
+		assertArrayEquals(new long[] {7, 1, 3, 5, 9}, map.topKeys(5));
+		assertArrayEquals(new long[] {7, 1, 3}, map.topKeys(3));
+	}
+
+	@Test
+	void topKeysWithKGreaterThanSize() {
+		LongIntHashMap map = new LongIntHashMap();
+		map.addTo(10, 1);
+		map.addTo(20, 3);
+		map.addTo(30, 2);
+
+		assertArrayEquals(new long[] {20, 30, 10}, map.topKeys(50));
+		assertArrayEquals(new long[] {}, map.topKeys(0));
+		assertArrayEquals(new long[] {}, new LongIntHashMap().topKeys(5));
+	}
+
+	@Test
+	void topKeysOfALargeMap() {
+		LongIntHashMap map = new LongIntHashMap();
+		for (long key = 1; key <= 1_000; key++) {
+			map.addTo(key, (int) (key % 100));
+		}
+
+		// value 99: keys 99, 199, ..., 999; then value 98
+		assertArrayEquals(new long[] {99, 199, 299, 399, 499, 599, 699, 799, 899, 999, 98, 198},
+				map.topKeys(12));
+	}
+}
@@ -0,0 +1,143 @@
+package com.swp391.bookverse.service.catalog;
+
+import com.swp391.bookverse.service.catalog.TrendingBooksEngine.Window;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrendingBooksEngineTest {
+
+	static final long BUCKET_MILLIS = Duration.ofMinutes(5).toMillis();
+
+	MutableClock clock;
+	List<ResultSet> rows;
+	TrendingBooksEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(Instant.parse("2026-10-18T12:02:00Z"));
+		rows = new ArrayList<>();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+			@Override
+			public void query(String sql, RowCallbackHandler rch, Object... args) {
+				try {
+					for (ResultSet row : rows) {
+						rch.processRow(row);
+					}
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+		engine = new TrendingBooksEngine(jdbcTemplate, BUCKET_MILLIS, 10, clock);
+	}
+
+	@Test
+	void loadKeepsOrdersOfTheLastSevenDays() throws SQLException {
+		row(1, clock.instant().minus(Duration.ofHours(2)), 10, 2);
+		row(2, clock.instant().minus(Duration.ofDays(2)), 20, 1);
+		row(3, clock.instant().minus(Duration.ofMinutes(10)), 30, 3);
+		row(4, clock.instant().minus(Duration.ofDays(8)), 40, 5);
+
+		engine.refresh();
+
+		assertEquals(List.of(30L), engine.trending(Window.HOUR, 10));
+		assertEquals(List.of(30L, 10L), engine.trending(Window.DAY, 10));
+		assertEquals(List.of(30L, 10L, 20L), engine.trending(Window.WEEK, 10));
+	}
+
+	@Test
+	void advanceDropsBucketsThatLeaveAWindow() throws SQLException {
+		row(1, clock.instant().minus(Duration.ofMinutes(10)), 30, 3);
+		engine.refresh();
+
+		clock.advance(Duration.ofHours(1));
+		engine.refresh();
+
+		assertEquals(List.of(), engine.trending(Window.HOUR, 10));
+		assertEquals(List.of(30L), engine.trending(Window.DAY, 10));
+
+		clock.advance(Duration.ofDays(8));
+		engine.refresh();
+
+		assertEquals(List.of(), engine.trending(Window.WEEK, 10));
+	}
+
+	@Test
+	void cancelledOrderIsTakenBack() throws SQLException {
+		Instant createdAt = clock.instant().minus(Duration.ofHours(2));
+		row(1, createdAt, 10, 2);
+		row(2, clock.instant().minus(Duration.ofDays(2)), 20, 1);
+		engine.refresh();
+
+		engine.recordCancelled(1L, LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault()),
+				List.of(10L), List.of(2));
+		engine.refresh();
+
+		assertEquals(List.of(), engine.trending(Window.DAY, 10));
+		assertEquals(List.of(20L), engine.trending(Window.WEEK, 10));
+	}
+
+	@Test
+	void placedOrderIsCounted() {
+		engine.refresh();
+
+		engine.recordPlaced(5L, null, List.of(50L, 60L), List.of(1, 4));
+		engine.refresh();
+
+		assertEquals(List.of(60L, 50L), engine.trending(Window.HOUR, 10));
+	}
+
+	private void row(long orderId, Instant createdAt, long bookId, int quantity) throws SQLException {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getLong(1)).thenReturn(orderId);
+		when(rs.getTimestamp(2)).thenReturn(Timestamp.from(createdAt));
+		when(rs.getLong(3)).thenReturn(bookId);
+		when(rs.getInt(4)).thenReturn(quantity);
+		rows.add(rs);
+	}
+
+	static class MutableClock extends Clock {
+		Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.systemDefault();
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.swp391.bookverse.service.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	static final long TICK_MILLIS = 1_000;
+	static final int LEVELS = 3;
+	// 100 ticks past a multiple of 64^2, so the level 1 and 2 slots of a task are not aligned with its due tick
+	static final Instant START = Instant.ofEpochMilli((4096L * 400_000 + 100) * TICK_MILLIS);
+
+	MutableClock clock;
+	TimingWheel wheel;
+	List<Long> fired;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(START);
+		wheel = new TimingWheel(TICK_MILLIS, LEVELS, clock.millis());
+		fired = new ArrayList<>();
+	}
+
+	@Test
+	void taskDueNowIsLeftToTheCaller() {
+		assertFalse(wheel.add(1, clock.millis()));
+		assertFalse(wheel.add(2, clock.millis() - 5 * TICK_MILLIS));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void taskDueLaterInTheCurrentTickFiresOnTheNextTick() {
+		clock.advance(Duration.ofMillis(TICK_MILLIS / 2));
+		wheel.advance(clock.millis(), fired::add);
+
+		assertTrue(wheel.add(1, clock.millis() + TICK_MILLIS / 4));
+		assertEquals(List.of(), fired);
+
+		assertEquals(Map.of(1L, 1L), run(1));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void taskExactly64TicksAheadFiresOnItsTick() {
+		assertTrue(wheel.add(1, clock.millis() + 64 * TICK_MILLIS));
+
+		assertEquals(Map.of(), run(63));
+		assertEquals(1, wheel.size());
+		assertEquals(Map.of(1L, 64L), run(1));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void taskExactly64SquaredTicksAheadFiresOnItsTick() {
+		assertTrue(wheel.add(1, clock.millis() + 4096 * TICK_MILLIS));
+
+		assertEquals(Map.of(), run(4095));
+		assertEquals(1, wheel.size());
+		assertEquals(Map.of(1L, 4096L), run(1));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void tasksCascadeFromLevel2ToLevel1ToLevel0() {
+		// level 2, moved to level 1 at the next multiple of 64^2 (tick 3996), then to level 0 at tick 4060
+		assertTrue(wheel.add(1, clock.millis() + 4096 * TICK_MILLIS));
+		// level 2, due right on the multiple of 64^2: fires from the cascade itself
+		assertTrue(wheel.add(2, clock.millis() + 3996 * TICK_MILLIS));
+		// level 2, lands on level 0 straight away
+		assertTrue(wheel.add(3, clock.millis() + 4000 * TICK_MILLIS));
+		// level 1 and level 0, for company
+		assertTrue(wheel.add(4, clock.millis() + 100 * TICK_MILLIS));
+		assertTrue(wheel.add(5, clock.millis() + 10 * TICK_MILLIS));
+
+		Map<Long, Long> due = run(10_000);
+
+		assertEquals(Map.of(1L, 4096L, 2L, 3996L, 3L, 4000L, 4L, 100L, 5L, 10L), due);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void tasksInTheSameSlotAllFire() {
+		for (long id = 1; id <= 3; id++) {
+			assertTrue(wheel.add(id, clock.millis() + 200 * TICK_MILLIS + id));
+		}
+		assertEquals(3, wheel.size());
+
+		assertEquals(Map.of(1L, 201L, 2L, 201L, 3L, 201L), run(300));
+	}
+
+	@Test
+	void taskBeyondTheHorizonIsNotKept() {
+		long horizon = wheel.horizonMillis();
+		assertEquals(262_144 * TICK_MILLIS, horizon);
+
+		assertFalse(wheel.add(1, clock.millis() + horizon));
+		assertFalse(wheel.add(2, clock.millis() + 2 * horizon));
+		assertEquals(0, wheel.size());
+
+		assertTrue(wheel.add(3, clock.millis() + horizon - TICK_MILLIS));
+		assertEquals(Map.of(3L, 262_143L), run(262_143));
+	}
+
+	@Test
+	void advanceCatchesUpOnSkippedTicks() {
+		assertTrue(wheel.add(1, clock.millis() + 5 * TICK_MILLIS));
+		assertTrue(wheel.add(2, clock.millis() + 5000 * TICK_MILLIS));
+
+		clock.advance(Duration.ofMillis(10_000 * TICK_MILLIS));
+		wheel.advance(clock.millis(), fired::add);
+
+		assertEquals(List.of(1L, 2L), fired);
+	}
+
+	/**
+	 * Move the clock forward one tick at a time.
+	 * @return tick (counted from START) at which each task fired, by task id
+	 */
+	private Map<Long, Long> run(long ticks) {
+		Map<Long, Long> due = new HashMap<>();
+		for (long i = 0; i < ticks; i++) {
+			clock.advance(Duration.ofMillis(TICK_MILLIS));
+			long tick = Duration.between(START, clock.instant()).toMillis() / TICK_MILLIS;
+			wheel.advance(clock.millis(), id -> assertEquals(null, due.put(id, tick)));
+		}
+		return due;
+	}
+
+	static class MutableClock extends Clock {
+		Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.systemDefault();
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+}